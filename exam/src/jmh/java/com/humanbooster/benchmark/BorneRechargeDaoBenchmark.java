@@ -0,0 +1,203 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.BorneRechargeDAO;
+import com.humanbooster.DAO.BorneRechargeDAOImpl;
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.dto.BorneResume;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latence de chaque méthode publique de {@link BorneRechargeDAO}, sur le {@link JeuDeDonnees} de la taille demandée.
+ * <p>
+ * {@code saveOrUpdate} et {@code mettreAJour} modifient des bornes existantes (hors borne chargée) ;
+ * {@code saveAll} insère des lots de {@value #LOT} nouvelles bornes (score par borne) ; les suppressions
+ * portent sur une borne créée juste avant chaque appel. Les flux sont entièrement parcourus.
+ * Les mises à jour de masse basculent alternativement les {@value JeuDeDonnees#BORNES_PAR_LIEU} bornes
+ * du deuxième lieu entre HORS_SERVICE et DISPONIBLE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BorneRechargeDaoBenchmark {
+
+    private static final int LOT = 100;
+    /** Intervalle recherché par {@code findBornesDisponibles}, dans l'historique des bornes ordinaires. */
+    private static final LocalDateTime DEBUT_RECHERCHE = JeuDeDonnees.DEBUT.plusHours(18);
+
+    @Param({"1000", "100000"})
+    public int nombreReservations;
+
+    private BorneRechargeDAO borneRechargeDao;
+    private JeuDeDonnees donnees;
+    private BorneRecharge borneModifiee;
+    private List<Long> idsLieuModifie;
+    private int basculements;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        donnees = JeuDeDonnees.creer(nombreReservations);
+        borneRechargeDao = new BorneRechargeDAOImpl();
+        borneModifiee = donnees.bornes().get(1);
+        LieuRecharge lieuModifie = donnees.lieux().get(1);
+        idsLieuModifie = donnees.bornes().stream().filter(b -> b.getLieuRecharge() == lieuModifie).map(BorneRecharge::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    /**
+     * Lot de {@value BorneRechargeDaoBenchmark#LOT} bornes insérées avant chaque appel de {@code deleteByIds}.
+     */
+    @State(Scope.Thread)
+    public static class LotASupprimer {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void creer(BorneRechargeDaoBenchmark benchmark) {
+            List<BorneRecharge> lot = new ArrayList<>(LOT);
+            for (int i = 0; i < LOT; i++) {
+                lot.add(new BorneRecharge(22.0, EtatBorne.DISPONIBLE, benchmark.donnees.lieuAuHasard()));
+            }
+            new BorneRechargeDAOImpl().saveAll(lot);
+            ids = lot.stream().map(BorneRecharge::getId).toList();
+        }
+    }
+
+    /** Alterne l'état visé par les mises à jour de masse, pour que chaque appel modifie réellement les bornes. */
+    private EtatBorne etatSuivant() {
+        return basculements++ % 2 == 0 ? EtatBorne.HORS_SERVICE : EtatBorne.DISPONIBLE;
+    }
+
+    /**
+     * Borne insérée avant chaque appel d'une méthode de suppression.
+     */
+    @State(Scope.Thread)
+    public static class BorneASupprimer {
+        BorneRecharge borne;
+
+        @Setup(Level.Invocation)
+        public void creer(BorneRechargeDaoBenchmark benchmark) {
+            borne = new BorneRecharge(22.0, EtatBorne.DISPONIBLE, benchmark.donnees.lieuAuHasard());
+            new BorneRechargeDAOImpl().saveOrUpdate(borne);
+        }
+    }
+
+    @Benchmark
+    public void saveOrUpdate() {
+        borneModifiee.setTarif_horaire(7.0 + ThreadLocalRandom.current().nextInt(44));
+        borneRechargeDao.saveOrUpdate(borneModifiee);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public void saveAll() {
+        List<BorneRecharge> lot = new ArrayList<>(LOT);
+        for (int i = 0; i < LOT; i++) {
+            lot.add(new BorneRecharge(7.0 + i % 44, EtatBorne.DISPONIBLE, donnees.lieuAuHasard()));
+        }
+        borneRechargeDao.saveAll(lot);
+    }
+
+    @Benchmark
+    public Optional<BorneRecharge> mettreAJour() {
+        return borneRechargeDao.mettreAJour(donnees.bornes().get(2).getId(), borne -> borne.setEtatBorne(
+                borne.getEtatBorne() == EtatBorne.DISPONIBLE ? EtatBorne.OCCUPEE : EtatBorne.DISPONIBLE));
+    }
+
+    @Benchmark
+    public int updateEtat() {
+        return borneRechargeDao.updateEtat(idsLieuModifie, etatSuivant());
+    }
+
+    @Benchmark
+    public int updateEtatParLieu() {
+        return borneRechargeDao.updateEtatParLieu(donnees.lieux().get(1).getId(), etatSuivant());
+    }
+
+    @Benchmark
+    public Optional<BorneRecharge> findById() {
+        return borneRechargeDao.findById(donnees.borneAuHasard().getId());
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findAll() {
+        return borneRechargeDao.findAll();
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findPage() {
+        return borneRechargeDao.findPage(donnees.borneAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findByLieu() {
+        return borneRechargeDao.findByLieu(donnees.lieuAuHasard());
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findByEtat() {
+        return borneRechargeDao.findByEtat(EtatBorne.DISPONIBLE);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole trou) {
+        try (Stream<BorneRecharge> bornes = borneRechargeDao.streamAll()) {
+            bornes.forEach(trou::consume);
+        }
+    }
+
+    @Benchmark
+    public void streamByEtat(Blackhole trou) {
+        try (Stream<BorneRecharge> bornes = borneRechargeDao.streamByEtat(EtatBorne.DISPONIBLE)) {
+            bornes.forEach(trou::consume);
+        }
+    }
+
+    @Benchmark
+    public List<BorneResume> findResumesByEtat() {
+        return borneRechargeDao.findResumesByEtat(EtatBorne.DISPONIBLE);
+    }
+
+    @Benchmark
+    public List<BorneResume> findBornesDisponibles() {
+        return borneRechargeDao.findBornesDisponibles(donnees.lieuAuHasard(), DEBUT_RECHERCHE, DEBUT_RECHERCHE.plusMinutes(90));
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findByPuissanceMin() {
+        return borneRechargeDao.findByPuissanceMin(40.0);
+    }
+
+    @Benchmark
+    public void deleteById(BorneASupprimer aSupprimer) {
+        borneRechargeDao.deleteById(aSupprimer.borne.getId());
+    }
+
+    @Benchmark
+    public void delete(BorneASupprimer aSupprimer) {
+        borneRechargeDao.delete(aSupprimer.borne);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public int deleteByIds(LotASupprimer lot) {
+        return borneRechargeDao.deleteByIds(lot.ids);
+    }
+}
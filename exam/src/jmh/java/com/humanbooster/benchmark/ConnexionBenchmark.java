@@ -0,0 +1,79 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.UtilisateurDAO;
+import com.humanbooster.DAO.UtilisateurDAOImpl;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence du chemin de connexion : recherche d'un utilisateur par email.
+ * <ul>
+ *     <li>{@code requeteHql} reproduit l'ancienne implémentation (requête HQL à chaque appel) ;</li>
+ *     <li>{@code identifiantNaturel} appelle {@link UtilisateurDAO#findByEmail(String)}, qui passe par
+ *     la résolution d'identifiant naturel et ses caches.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnexionBenchmark {
+
+    @Param({"1000"})
+    public int nombreUtilisateurs;
+
+    private UtilisateurDAO utilisateurDao;
+    private SessionFactory sessionFactory;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        if (System.getProperty("app.env") == null) {
+            System.setProperty("app.env", "bench");
+        }
+        utilisateurDao = new UtilisateurDAOImpl();
+        sessionFactory = GestionnaireSessionFactory.getSessionFactory();
+        List<Utilisateur> utilisateurs = new ArrayList<>(nombreUtilisateurs);
+        emails = new String[nombreUtilisateurs];
+        for (int i = 0; i < nombreUtilisateurs; i++) {
+            emails[i] = "conducteur" + i + "@bench.example.com";
+            utilisateurs.add(new Utilisateur(emails[i], "motdepasse", RoleUtilisateur.UTILISATEUR));
+        }
+        utilisateurDao.saveAll(utilisateurs);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    private String emailAuHasard() {
+        return emails[ThreadLocalRandom.current().nextInt(emails.length)];
+    }
+
+    @Benchmark
+    public Optional<Utilisateur> requeteHql() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM Utilisateur u WHERE u.email = :emailParam", Utilisateur.class)
+                    .setParameter("emailParam", emailAuHasard())
+                    .uniqueResultOptional();
+        }
+    }
+
+    @Benchmark
+    public Optional<Utilisateur> identifiantNaturel() {
+        return utilisateurDao.findByEmail(emailAuHasard());
+    }
+}
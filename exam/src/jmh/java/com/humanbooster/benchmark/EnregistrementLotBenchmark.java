@@ -0,0 +1,75 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.BorneRechargeDAO;
+import com.humanbooster.DAO.BorneRechargeDAOImpl;
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.LieuRechargeDAO;
+import com.humanbooster.DAO.LieuRechargeDAOImpl;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le débit d'insertion (lignes/s) de bornes de recharge entre
+ * l'appel unitaire {@link BorneRechargeDAO#saveOrUpdate(BorneRecharge)}
+ * (une session et une transaction par ligne) et {@link BorneRechargeDAO#saveAll(java.util.Collection)}
+ * (une transaction, INSERT envoyés par lots JDBC).
+ * <p>
+ * Grâce à {@link OperationsPerInvocation}, le score affiché est directement en lignes par seconde.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnregistrementLotBenchmark {
+
+    private static final int LIGNES = 1000;
+
+    private BorneRechargeDAO borneRechargeDao;
+    private LieuRecharge lieu;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        if (System.getProperty("app.env") == null) {
+            System.setProperty("app.env", "bench");
+        }
+        LieuRechargeDAO lieuRechargeDao = new LieuRechargeDAOImpl();
+        borneRechargeDao = new BorneRechargeDAOImpl();
+        lieu = new LieuRecharge("Site benchmark", "1 rue du Banc d'Essai");
+        lieuRechargeDao.saveOrUpdate(lieu);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    private List<BorneRecharge> nouvellesBornes() {
+        List<BorneRecharge> bornes = new ArrayList<>(LIGNES);
+        for (int i = 0; i < LIGNES; i++) {
+            bornes.add(new BorneRecharge(7.0 + (i % 40), EtatBorne.DISPONIBLE, lieu));
+        }
+        return bornes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void unParUn() {
+        for (BorneRecharge borne : nouvellesBornes()) {
+            borneRechargeDao.saveOrUpdate(borne);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void parLots() {
+        borneRechargeDao.saveAll(nouvellesBornes());
+    }
+}
@@ -0,0 +1,152 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.BorneRechargeDAOImpl;
+import com.humanbooster.DAO.LieuRechargeDAOImpl;
+import com.humanbooster.DAO.ReservationDAOImpl;
+import com.humanbooster.DAO.UtilisateurDAOImpl;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import com.humanbooster.model.Reservation;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Jeu de données commun aux benchmarks des DAO, proportionnel au nombre de réservations :
+ * <ul>
+ *     <li>{@code n / 10} utilisateurs (au moins 100) ;</li>
+ *     <li>{@code n / 1000} lieux (au moins 10), de {@value #BORNES_PAR_LIEU} bornes chacun ;</li>
+ *     <li>{@code n} réservations d'une heure, consécutives sur chaque borne à partir de {@link #DEBUT}.
+ *     La moitié porte sur la {@linkplain #borneChargee() borne chargée}, pour mesurer les recherches
+ *     de chevauchement sur un gros historique ; le reste est réparti sur les autres bornes.</li>
+ * </ul>
+ * Les entités sont insérées par lots ({@code saveAll}) dans la base de l'environnement courant
+ * ({@code bench} par défaut : H2 en mode MySQL) et conservées détachées pour servir de paramètres.
+ */
+final class JeuDeDonnees {
+
+    static final LocalDateTime DEBUT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final int BORNES_PAR_LIEU = 10;
+
+    private final List<Utilisateur> utilisateurs;
+    private final List<LieuRecharge> lieux;
+    private final List<BorneRecharge> bornes;
+    private final List<Reservation> reservations;
+
+    private JeuDeDonnees(List<Utilisateur> utilisateurs, List<LieuRecharge> lieux,
+                         List<BorneRecharge> bornes, List<Reservation> reservations) {
+        this.utilisateurs = utilisateurs;
+        this.lieux = lieux;
+        this.bornes = bornes;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Choisit l'environnement {@code bench} si aucun n'est imposé, puis crée et insère le jeu de données.
+     *
+     * @param nombreReservations Le nombre total de réservations.
+     */
+    static JeuDeDonnees creer(int nombreReservations) {
+        if (System.getProperty("app.env") == null) {
+            System.setProperty("app.env", "bench");
+        }
+        int nombreUtilisateurs = Math.max(100, nombreReservations / 10);
+        int nombreLieux = Math.max(10, nombreReservations / 1000);
+
+        List<Utilisateur> utilisateurs = new ArrayList<>(nombreUtilisateurs);
+        for (int i = 0; i < nombreUtilisateurs; i++) {
+            utilisateurs.add(new Utilisateur(email(i), "motdepasse", RoleUtilisateur.UTILISATEUR));
+        }
+        new UtilisateurDAOImpl().saveAll(utilisateurs);
+
+        List<LieuRecharge> lieux = new ArrayList<>(nombreLieux);
+        for (int i = 0; i < nombreLieux; i++) {
+            lieux.add(new LieuRecharge(nomLieu(i), i + " avenue du Banc d'Essai"));
+        }
+        new LieuRechargeDAOImpl().saveAll(lieux);
+
+        List<BorneRecharge> bornes = new ArrayList<>(nombreLieux * BORNES_PAR_LIEU);
+        for (LieuRecharge lieu : lieux) {
+            for (int i = 0; i < BORNES_PAR_LIEU; i++) {
+                bornes.add(new BorneRecharge(7.0 + (bornes.size() % 44), EtatBorne.DISPONIBLE, lieu));
+            }
+        }
+        new BorneRechargeDAOImpl().saveAll(bornes);
+
+        List<Reservation> reservations = new ArrayList<>(nombreReservations);
+        int[] creneauSuivant = new int[bornes.size()];
+        for (int i = 0; i < nombreReservations; i++) {
+            int indiceBorne = i % 2 == 0 ? 0 : 1 + (i / 2) % (bornes.size() - 1);
+            LocalDateTime debut = DEBUT.plusHours(creneauSuivant[indiceBorne]++);
+            reservations.add(new Reservation(debut, debut.plusHours(1),
+                    utilisateurs.get(i % nombreUtilisateurs), bornes.get(indiceBorne)));
+        }
+        new ReservationDAOImpl().saveAll(reservations);
+
+        return new JeuDeDonnees(utilisateurs, lieux, bornes, reservations);
+    }
+
+    static String email(int i) {
+        return "conducteur" + i + "@bench.example.com";
+    }
+
+    static String nomLieu(int i) {
+        return "Site " + i;
+    }
+
+    /** @return La borne qui porte la moitié des réservations. */
+    BorneRecharge borneChargee() {
+        return bornes.get(0);
+    }
+
+    /** @return Le nombre de créneaux d'une heure déjà réservés sur la borne chargée. */
+    int creneauxBorneChargee() {
+        return (reservations.size() + 1) / 2;
+    }
+
+    List<Utilisateur> utilisateurs() {
+        return utilisateurs;
+    }
+
+    List<LieuRecharge> lieux() {
+        return lieux;
+    }
+
+    List<BorneRecharge> bornes() {
+        return bornes;
+    }
+
+    List<Reservation> reservations() {
+        return reservations;
+    }
+
+    Utilisateur utilisateurAuHasard() {
+        return auHasard(utilisateurs);
+    }
+
+    LieuRecharge lieuAuHasard() {
+        return auHasard(lieux);
+    }
+
+    BorneRecharge borneAuHasard() {
+        return auHasard(bornes);
+    }
+
+    /** @return Une borne au hasard hors borne chargée, à l'historique de taille ordinaire. */
+    BorneRecharge borneOrdinaireAuHasard() {
+        return bornes.get(1 + ThreadLocalRandom.current().nextInt(bornes.size() - 1));
+    }
+
+    Reservation reservationAuHasard() {
+        return auHasard(reservations);
+    }
+
+    private static <T> T auHasard(List<T> liste) {
+        return liste.get(ThreadLocalRandom.current().nextInt(liste.size()));
+    }
+}
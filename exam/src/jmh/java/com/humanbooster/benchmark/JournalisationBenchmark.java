@@ -0,0 +1,152 @@
+package com.humanbooster.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit des messages émis par les DAO (ex : {@code "Borne de recharge sauvegardée/mise à jour : ID 42"})
+ * selon la manière de les écrire, avec plusieurs threads en concurrence comme sous charge :
+ * <ul>
+ *     <li>{@code printlnSynchrone} reproduit l'ancien {@code System.out.println} (concaténation, flux partagé
+ *     vidé à chaque ligne) ;</li>
+ *     <li>{@code journalSynchrone} passe par SLF4J avec un {@link FileAppender} appelé sur le thread appelant ;</li>
+ *     <li>{@code journalAsynchrone} reprend la configuration de {@code logback.xml} : {@link AsyncAppender}
+ *     non bloquant devant le même fichier ;</li>
+ *     <li>{@code journalNiveauDesactive} mesure un appel DEBUG filtré par le niveau (cas des traces de sauvegarde
+ *     en production) ;</li>
+ *     <li>les variantes {@code AvecPile} ajoutent une exception, comme les chemins d'erreur des DAO.</li>
+ * </ul>
+ * Les sorties vont dans des fichiers temporaires pour ne pas mêler les messages à ceux de JMH. L'appender
+ * asynchrone ne bloquant jamais, il abandonne les messages INFO quand sa file sature : son score mesure
+ * le coût supporté par le thread appelant, pas le débit d'écriture du fichier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JournalisationBenchmark {
+
+    private static final String MESSAGE = "Borne de recharge sauvegardée/mise à jour : ID ";
+    private static final String MESSAGE_PARAMETRE = MESSAGE + "{}";
+
+    private final Exception exception = new IllegalStateException("Erreur simulée");
+
+    private File fichierPrintln;
+    private File fichierSynchrone;
+    private File fichierAsynchrone;
+    private PrintStream console;
+    private Logger journalSynchrone;
+    private Logger journalAsynchrone;
+    private Logger journalDesactive;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        fichierPrintln = Files.createTempFile("bench-println", ".log").toFile();
+        fichierSynchrone = Files.createTempFile("bench-synchrone", ".log").toFile();
+        fichierAsynchrone = Files.createTempFile("bench-asynchrone", ".log").toFile();
+        console = new PrintStream(new FileOutputStream(fichierPrintln), true, StandardCharsets.UTF_8);
+
+        LoggerContext contexte = (LoggerContext) LoggerFactory.getILoggerFactory();
+        journalSynchrone = journal(contexte, "bench.synchrone", Level.INFO, fichier(contexte, fichierSynchrone));
+
+        AsyncAppender asynchrone = new AsyncAppender();
+        asynchrone.setContext(contexte);
+        asynchrone.setName("bench-asynchrone");
+        asynchrone.setQueueSize(8192);
+        asynchrone.setNeverBlock(true);
+        asynchrone.setIncludeCallerData(false);
+        asynchrone.addAppender(fichier(contexte, fichierAsynchrone));
+        asynchrone.start();
+        journalAsynchrone = journal(contexte, "bench.asynchrone", Level.INFO, asynchrone);
+
+        journalDesactive = journal(contexte, "bench.desactive", Level.INFO, fichier(contexte, fichierSynchrone));
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        console.close();
+        journalSynchrone.detachAndStopAllAppenders();
+        journalAsynchrone.detachAndStopAllAppenders();
+        journalDesactive.detachAndStopAllAppenders();
+        fichierPrintln.delete();
+        fichierSynchrone.delete();
+        fichierAsynchrone.delete();
+    }
+
+    private static FileAppender<ILoggingEvent> fichier(LoggerContext contexte, File fichier) {
+        PatternLayoutEncoder encodeur = new PatternLayoutEncoder();
+        encodeur.setContext(contexte);
+        encodeur.setPattern("%d{HH:mm:ss.SSS} %-5level [%thread] %logger{36} - %msg%n");
+        encodeur.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(contexte);
+        appender.setName("bench-" + fichier.getName());
+        appender.setFile(fichier.getAbsolutePath());
+        appender.setEncoder(encodeur);
+        appender.start();
+        return appender;
+    }
+
+    private static Logger journal(LoggerContext contexte, String nom, Level niveau, Appender<ILoggingEvent> appender) {
+        Logger journal = contexte.getLogger(nom);
+        journal.setLevel(niveau);
+        journal.setAdditive(false);
+        journal.addAppender(appender);
+        return journal;
+    }
+
+    private static long idAuHasard() {
+        return ThreadLocalRandom.current().nextLong(1, 1_000_000);
+    }
+
+    @Benchmark
+    public void printlnSynchrone() {
+        console.println(MESSAGE + idAuHasard());
+    }
+
+    @Benchmark
+    public void journalSynchrone() {
+        journalSynchrone.info(MESSAGE_PARAMETRE, idAuHasard());
+    }
+
+    @Benchmark
+    public void journalAsynchrone() {
+        journalAsynchrone.info(MESSAGE_PARAMETRE, idAuHasard());
+    }
+
+    @Benchmark
+    public void journalNiveauDesactive() {
+        journalDesactive.debug(MESSAGE_PARAMETRE, idAuHasard());
+    }
+
+    @Benchmark
+    public void printlnAvecPileSynchrone() {
+        console.println("Erreur lors de la sauvegarde de la borne ID " + idAuHasard() + " : " + exception.getMessage());
+        exception.printStackTrace(console);
+    }
+
+    @Benchmark
+    public void journalAsynchroneAvecPile() {
+        journalAsynchrone.error("Erreur lors de la sauvegarde de la borne ID {}", idAuHasard(), exception);
+    }
+}
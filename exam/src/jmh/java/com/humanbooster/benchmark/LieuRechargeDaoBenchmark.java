@@ -0,0 +1,161 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.BorneRechargeDAOImpl;
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.LieuRechargeDAO;
+import com.humanbooster.DAO.LieuRechargeDAOImpl;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latence de chaque méthode publique de {@link LieuRechargeDAO}, sur le {@link JeuDeDonnees} de la taille demandée.
+ * <p>
+ * {@code saveOrUpdate} met à jour un lieu existant ; {@code saveAll} insère des lots de {@value #LOT}
+ * nouveaux lieux (score par lieu) ; les suppressions portent sur un lieu sans borne créé juste avant chaque appel,
+ * {@code deleteByIds} sur des lieux équipés de bornes (score par lieu).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LieuRechargeDaoBenchmark {
+
+    private static final int LOT = 100;
+    private static final int LIEUX_A_SUPPRIMER = 10;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Param({"1000", "100000"})
+    public int nombreReservations;
+
+    private LieuRechargeDAO lieuRechargeDao;
+    private JeuDeDonnees donnees;
+    private LieuRecharge lieuModifie;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        donnees = JeuDeDonnees.creer(nombreReservations);
+        lieuRechargeDao = new LieuRechargeDAOImpl();
+        lieuModifie = donnees.lieux().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    private static LieuRecharge nouveauLieu() {
+        return new LieuRecharge("Nouveau site " + SEQUENCE.incrementAndGet(), "1 rue du Banc d'Essai");
+    }
+
+    /**
+     * Lieu inséré avant chaque appel d'une méthode de suppression.
+     */
+    @State(Scope.Thread)
+    public static class LieuASupprimer {
+        LieuRecharge lieu;
+
+        @Setup(Level.Invocation)
+        public void creer() {
+            lieu = nouveauLieu();
+            new LieuRechargeDAOImpl().saveOrUpdate(lieu);
+        }
+    }
+
+    /**
+     * Lot de {@value LieuRechargeDaoBenchmark#LIEUX_A_SUPPRIMER} lieux de {@value JeuDeDonnees#BORNES_PAR_LIEU} bornes chacun,
+     * insérés avant chaque appel de {@code deleteByIds} : les bornes sont supprimées en cascade par la base.
+     */
+    @State(Scope.Thread)
+    public static class LotASupprimer {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void creer() {
+            List<LieuRecharge> lieux = new ArrayList<>(LIEUX_A_SUPPRIMER);
+            List<BorneRecharge> bornes = new ArrayList<>();
+            for (int i = 0; i < LIEUX_A_SUPPRIMER; i++) {
+                LieuRecharge lieu = nouveauLieu();
+                lieux.add(lieu);
+                for (int b = 0; b < JeuDeDonnees.BORNES_PAR_LIEU; b++) {
+                    bornes.add(new BorneRecharge(22.0, EtatBorne.DISPONIBLE, lieu));
+                }
+            }
+            new LieuRechargeDAOImpl().saveAll(lieux);
+            new BorneRechargeDAOImpl().saveAll(bornes);
+            ids = lieux.stream().map(LieuRecharge::getId).toList();
+        }
+    }
+
+    @Benchmark
+    public void saveOrUpdate() {
+        lieuModifie.setAdresse(ThreadLocalRandom.current().nextInt(1, 100) + " avenue du Banc d'Essai");
+        lieuRechargeDao.saveOrUpdate(lieuModifie);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public void saveAll() {
+        List<LieuRecharge> lot = new ArrayList<>(LOT);
+        for (int i = 0; i < LOT; i++) {
+            lot.add(nouveauLieu());
+        }
+        lieuRechargeDao.saveAll(lot);
+    }
+
+    @Benchmark
+    public Optional<LieuRecharge> findById() {
+        return lieuRechargeDao.findById(donnees.lieuAuHasard().getId());
+    }
+
+    @Benchmark
+    public List<LieuRecharge> findByNom() {
+        return lieuRechargeDao.findByNom(JeuDeDonnees.nomLieu(ThreadLocalRandom.current().nextInt(donnees.lieux().size())));
+    }
+
+    @Benchmark
+    public List<LieuRecharge> findAll() {
+        return lieuRechargeDao.findAll();
+    }
+
+    @Benchmark
+    public List<LieuRecharge> findPage() {
+        return lieuRechargeDao.findPage(donnees.lieuAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public List<LieuRecharge> findPageAvecBornes() {
+        return lieuRechargeDao.findPageAvecBornes(donnees.lieuAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public List<LieuRecharge> findAllSansBornes() {
+        return lieuRechargeDao.findAllSansBornes();
+    }
+
+    @Benchmark
+    public void deleteById(LieuASupprimer aSupprimer) {
+        lieuRechargeDao.deleteById(aSupprimer.lieu.getId());
+    }
+
+    @Benchmark
+    public void delete(LieuASupprimer aSupprimer) {
+        lieuRechargeDao.delete(aSupprimer.lieu);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIEUX_A_SUPPRIMER)
+    public int deleteByIds(LotASupprimer lot) {
+        return lieuRechargeDao.deleteByIds(lot.ids);
+    }
+}
@@ -0,0 +1,257 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.ReservationDAO;
+import com.humanbooster.DAO.ReservationDAOImpl;
+import com.humanbooster.DAO.ResultatReservation;
+import com.humanbooster.dto.ReservationResume;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.Reservation;
+import com.humanbooster.model.StatutReservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Latence de chaque méthode publique de {@link ReservationDAO}, sur le {@link JeuDeDonnees} de la taille demandée.
+ * <ul>
+ *     <li>{@code findReservationsChevauchantesPourBorne} et {@code estDisponible} interrogent une journée au milieu
+ *     de l'historique de la borne chargée (la moitié des réservations) ;</li>
+ *     <li>les recherches par borne visent une borne ordinaire, par utilisateur un utilisateur au hasard ;</li>
+ *     <li>{@code findBornesLibres} filtre les bornes d'un lieu au hasard sur demain 18h00-19h30 ;</li>
+ *     <li>les écritures ({@code reserver}, {@code saveAll}, réservations à supprimer) portent sur des créneaux
+ *     libres, postérieurs à tout l'historique, d'une borne réservée à cet usage ;</li>
+ *     <li>{@code deleteByIds} et {@code purgerAvant} suppriment des lots de {@value #LOT} réservations (score par réservation).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationDaoBenchmark {
+
+    private static final int LOT = 100;
+    /** Premier créneau libre de la borne d'écriture, au-delà de tout l'historique généré. */
+    private static final LocalDateTime DEBUT_ECRITURES = JeuDeDonnees.DEBUT.plusYears(50);
+
+    @Param({"1000", "100000"})
+    public int nombreReservations;
+
+    private ReservationDAO reservationDao;
+    private JeuDeDonnees donnees;
+    private BorneRecharge borneEcritures;
+    private final AtomicInteger creneauLibre = new AtomicInteger();
+    private LocalDateTime debutFenetre;
+    private LocalDateTime finFenetre;
+    private List<List<BorneRecharge>> bornesParLieu;
+    /** Créneau dans l'horizon du calendrier de disponibilité. */
+    private LocalDateTime demain18h;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        donnees = JeuDeDonnees.creer(nombreReservations);
+        reservationDao = new ReservationDAOImpl();
+        borneEcritures = donnees.bornes().get(donnees.bornes().size() - 1);
+        debutFenetre = JeuDeDonnees.DEBUT.plusHours(donnees.creneauxBorneChargee() / 2);
+        finFenetre = debutFenetre.plusDays(1);
+        bornesParLieu = new ArrayList<>(donnees.bornes().stream()
+                .collect(Collectors.groupingBy(BorneRecharge::getLieuRecharge)).values());
+        demain18h = LocalDate.now().plusDays(1).atTime(18, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    private Reservation nouvelleReservation() {
+        LocalDateTime debut = DEBUT_ECRITURES.plusHours(creneauLibre.getAndIncrement());
+        return new Reservation(debut, debut.plusHours(1), donnees.utilisateurAuHasard(), borneEcritures);
+    }
+
+    private static StatutReservation basculer(StatutReservation statut) {
+        return statut == StatutReservation.ACCEPTEE ? StatutReservation.EN_ATTENTE : StatutReservation.ACCEPTEE;
+    }
+
+    /**
+     * Réservation insérée avant chaque appel d'une méthode de suppression.
+     */
+    @State(Scope.Thread)
+    public static class ReservationASupprimer {
+        Reservation reservation;
+
+        @Setup(Level.Invocation)
+        public void creer(ReservationDaoBenchmark benchmark) {
+            reservation = benchmark.nouvelleReservation();
+            new ReservationDAOImpl().saveOrUpdate(reservation);
+        }
+    }
+
+    /**
+     * Lot de {@value ReservationDaoBenchmark#LOT} réservations insérées avant chaque appel de {@code deleteByIds}.
+     */
+    @State(Scope.Thread)
+    public static class LotASupprimer {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void creer(ReservationDaoBenchmark benchmark) {
+            List<Reservation> lot = new ArrayList<>(LOT);
+            for (int i = 0; i < LOT; i++) {
+                lot.add(benchmark.nouvelleReservation());
+            }
+            new ReservationDAOImpl().saveAll(lot);
+            ids = lot.stream().map(Reservation::getId).toList();
+        }
+    }
+
+    /**
+     * Lot de {@value ReservationDaoBenchmark#LOT} réservations terminées avant {@link JeuDeDonnees#DEBUT}, inséré avant chaque appel de
+     * {@code purgerAvant} : la purge parcourt toute la table mais ne supprime que ce lot.
+     */
+    @State(Scope.Thread)
+    public static class HistoriqueAPurger {
+        @Setup(Level.Invocation)
+        public void creer(ReservationDaoBenchmark benchmark) {
+            List<Reservation> lot = new ArrayList<>(LOT);
+            for (int i = 0; i < LOT; i++) {
+                LocalDateTime debut = JeuDeDonnees.DEBUT.minusYears(10).plusHours(i);
+                lot.add(new Reservation(debut, debut.plusHours(1), benchmark.donnees.utilisateurAuHasard(), benchmark.borneEcritures));
+            }
+            new ReservationDAOImpl().saveAll(lot);
+        }
+    }
+
+    @Benchmark
+    public void saveOrUpdate() {
+        Reservation reservation = donnees.reservations().get(1);
+        reservation.setStatut(basculer(reservation.getStatut()));
+        reservationDao.saveOrUpdate(reservation);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public void saveAll() {
+        List<Reservation> lot = new ArrayList<>(LOT);
+        for (int i = 0; i < LOT; i++) {
+            lot.add(nouvelleReservation());
+        }
+        reservationDao.saveAll(lot);
+    }
+
+    @Benchmark
+    public Optional<Reservation> mettreAJour() {
+        return reservationDao.mettreAJour(donnees.reservations().get(0).getId(),
+                reservation -> reservation.setStatut(basculer(reservation.getStatut())));
+    }
+
+    @Benchmark
+    public Optional<Reservation> findById() {
+        return reservationDao.findById(donnees.reservationAuHasard().getId());
+    }
+
+    @Benchmark
+    public List<Reservation> findAll() {
+        return reservationDao.findAll();
+    }
+
+    @Benchmark
+    public List<Reservation> findPage() {
+        return reservationDao.findPage(donnees.reservationAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public List<Reservation> findByUtilisateur() {
+        return reservationDao.findByUtilisateur(donnees.utilisateurAuHasard());
+    }
+
+    @Benchmark
+    public List<Reservation> findByUtilisateurAvecGraphe() {
+        return reservationDao.findByUtilisateur(donnees.utilisateurAuHasard(), Reservation.GRAPHE_BORNE_ET_LIEU);
+    }
+
+    @Benchmark
+    public List<ReservationResume> findResumesByUtilisateur() {
+        return reservationDao.findResumesByUtilisateur(donnees.utilisateurAuHasard());
+    }
+
+    @Benchmark
+    public List<Reservation> findByBorne() {
+        return reservationDao.findByBorne(donnees.borneOrdinaireAuHasard());
+    }
+
+    @Benchmark
+    public List<Reservation> findByBorneAvecGraphe() {
+        return reservationDao.findByBorne(donnees.borneOrdinaireAuHasard(), Reservation.GRAPHE_COMPLET);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole trou) {
+        try (Stream<Reservation> reservations = reservationDao.streamAll()) {
+            reservations.forEach(trou::consume);
+        }
+    }
+
+    @Benchmark
+    public void streamByBorne(Blackhole trou) {
+        try (Stream<Reservation> reservations = reservationDao.streamByBorne(donnees.borneOrdinaireAuHasard())) {
+            reservations.forEach(trou::consume);
+        }
+    }
+
+    @Benchmark
+    public List<Reservation> findReservationsChevauchantesPourBorne() {
+        return reservationDao.findReservationsChevauchantesPourBorne(donnees.borneChargee(), debutFenetre, finFenetre);
+    }
+
+    @Benchmark
+    public boolean estDisponible() {
+        return reservationDao.estDisponible(donnees.borneChargee(), debutFenetre, finFenetre);
+    }
+
+    @Benchmark
+    public List<BorneRecharge> findBornesLibres() {
+        List<BorneRecharge> bornes = bornesParLieu.get(ThreadLocalRandom.current().nextInt(bornesParLieu.size()));
+        return reservationDao.findBornesLibres(bornes, demain18h, demain18h.plusMinutes(90));
+    }
+
+    @Benchmark
+    public ResultatReservation reserver() {
+        LocalDateTime debut = DEBUT_ECRITURES.plusHours(creneauLibre.getAndIncrement());
+        return reservationDao.reserver(donnees.utilisateurAuHasard().getId(), borneEcritures.getId(), debut, debut.plusHours(1));
+    }
+
+    @Benchmark
+    public void deleteById(ReservationASupprimer aSupprimer) {
+        reservationDao.deleteById(aSupprimer.reservation.getId());
+    }
+
+    @Benchmark
+    public void delete(ReservationASupprimer aSupprimer) {
+        reservationDao.delete(aSupprimer.reservation);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public int deleteByIds(LotASupprimer lot) {
+        return reservationDao.deleteByIds(lot.ids);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public int purgerAvant(HistoriqueAPurger historique) {
+        return reservationDao.purgerAvant(JeuDeDonnees.DEBUT, 1000);
+    }
+}
@@ -0,0 +1,147 @@
+package com.humanbooster.benchmark;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.UtilisateurDAO;
+import com.humanbooster.DAO.UtilisateurDAOImpl;
+import com.humanbooster.dto.UtilisateurResume;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latence de chaque méthode publique de {@link UtilisateurDAO}, sur le {@link JeuDeDonnees} de la taille demandée.
+ * <p>
+ * {@code saveOrUpdate} met à jour un utilisateur existant ; {@code saveAll} insère des lots de
+ * {@value #LOT} nouveaux utilisateurs (score par utilisateur) ; les suppressions portent sur un utilisateur
+ * créé juste avant chaque appel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilisateurDaoBenchmark {
+
+    private static final int LOT = 100;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Param({"1000", "100000"})
+    public int nombreReservations;
+
+    private UtilisateurDAO utilisateurDao;
+    private JeuDeDonnees donnees;
+    private Utilisateur utilisateurModifie;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        donnees = JeuDeDonnees.creer(nombreReservations);
+        utilisateurDao = new UtilisateurDAOImpl();
+        utilisateurModifie = donnees.utilisateurs().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        GestionnaireSessionFactory.shutdown();
+    }
+
+    private static Utilisateur nouvelUtilisateur() {
+        return new Utilisateur("nouveau" + SEQUENCE.incrementAndGet() + "@bench.example.com", "motdepasse", RoleUtilisateur.UTILISATEUR);
+    }
+
+    /**
+     * Utilisateur inséré avant chaque appel d'une méthode de suppression.
+     */
+    @State(Scope.Thread)
+    public static class UtilisateurASupprimer {
+        Utilisateur utilisateur;
+
+        @Setup(Level.Invocation)
+        public void creer() {
+            utilisateur = nouvelUtilisateur();
+            new UtilisateurDAOImpl().saveOrUpdate(utilisateur);
+        }
+    }
+
+    /**
+     * Lot de {@value UtilisateurDaoBenchmark#LOT} utilisateurs insérés avant chaque appel de {@code deleteByIds}.
+     */
+    @State(Scope.Thread)
+    public static class LotASupprimer {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void creer() {
+            List<Utilisateur> lot = new ArrayList<>(LOT);
+            for (int i = 0; i < LOT; i++) {
+                lot.add(nouvelUtilisateur());
+            }
+            new UtilisateurDAOImpl().saveAll(lot);
+            ids = lot.stream().map(Utilisateur::getId).toList();
+        }
+    }
+
+    @Benchmark
+    public void saveOrUpdate() {
+        utilisateurModifie.setValide(!utilisateurModifie.isValide());
+        utilisateurDao.saveOrUpdate(utilisateurModifie);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public void saveAll() {
+        List<Utilisateur> lot = new ArrayList<>(LOT);
+        for (int i = 0; i < LOT; i++) {
+            lot.add(nouvelUtilisateur());
+        }
+        utilisateurDao.saveAll(lot);
+    }
+
+    @Benchmark
+    public Optional<Utilisateur> findById() {
+        return utilisateurDao.findById(donnees.utilisateurAuHasard().getId());
+    }
+
+    @Benchmark
+    public Optional<Utilisateur> findByEmail() {
+        return utilisateurDao.findByEmail(JeuDeDonnees.email(ThreadLocalRandom.current().nextInt(donnees.utilisateurs().size())));
+    }
+
+    @Benchmark
+    public List<Utilisateur> findAll() {
+        return utilisateurDao.findAll();
+    }
+
+    @Benchmark
+    public List<Utilisateur> findPage() {
+        return utilisateurDao.findPage(donnees.utilisateurAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public List<UtilisateurResume> findResumes() {
+        return utilisateurDao.findResumes(donnees.utilisateurAuHasard().getId(), 50);
+    }
+
+    @Benchmark
+    public void deleteById(UtilisateurASupprimer aSupprimer) {
+        utilisateurDao.deleteById(aSupprimer.utilisateur.getId());
+    }
+
+    @Benchmark
+    public void delete(UtilisateurASupprimer aSupprimer) {
+        utilisateurDao.delete(aSupprimer.utilisateur);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOT)
+    public int deleteByIds(LotASupprimer lot) {
+        return utilisateurDao.deleteByIds(lot.ids);
+    }
+}
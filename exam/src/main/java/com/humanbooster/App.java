@@ -2,6 +2,13 @@ package com.humanbooster;
 
 import com.humanbooster.DAO.*;
 import com.humanbooster.model.*;
+import com.humanbooster.supervision.InstrumentationDao;
+import com.humanbooster.supervision.JournalRequetesLentes;
+import com.humanbooster.simulation.ParametresSimulation;
+import com.humanbooster.simulation.SimulateurCharge;
+import com.humanbooster.supervision.Supervision;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,13 +21,27 @@ import java.util.Optional;
  * Mise à jour pour correspondre à la nouvelle structure de l'entité Reservation.
  */
 public class App { // Renommez en App si c'est le nom de votre classe principale
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
+
+    /**
+     * Sans argument, déroule la démonstration CRUD. Avec {@code simulation [clé=valeur...]}, lance le simulateur
+     * de charge ; chaque {@code clé=valeur} surcharge le paramètre {@code humanbooster.simulation.<clé>}
+     * (ex : {@code simulation conducteurs=64 duree_secondes=120 debit_par_seconde=500}).
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && "simulation".equals(args[0])) {
+            simuler(args);
+            return;
+        }
         System.out.println("Démarrage de l'application Electricity Business (TP Hibernate)...");
 
-        UtilisateurDAO utilisateurDao = new UtilisateurDAOImpl();
-        LieuRechargeDAO lieuRechargeDao = new LieuRechargeDAOImpl();
-        BorneRechargeDAO borneRechargeDao = new BorneRechargeDAOImpl();
-        ReservationDAO reservationDao = new ReservationDAOImpl();
+        // DAO instrumentés : latences et compteurs par méthode (JMX et /metrics)
+        UtilisateurDAO utilisateurDao = InstrumentationDao.instrumenter(UtilisateurDAO.class, new UtilisateurDAOImpl());
+        LieuRechargeDAO lieuRechargeDao = InstrumentationDao.instrumenter(LieuRechargeDAO.class, new LieuRechargeDAOImpl());
+        BorneRechargeDAO borneRechargeDao = InstrumentationDao.instrumenter(BorneRechargeDAO.class, new BorneRechargeDAOImpl());
+        ReservationDAO reservationDao = InstrumentationDao.instrumenter(ReservationDAO.class, new ReservationDAOImpl());
+        Supervision.demarrer();
 
         try {
             System.out.println("\n--- GESTION DES UTILISATEURS ---");
@@ -34,7 +55,7 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
             if (user1.getId() != null && user2.getId() != null) {
                 System.out.println("Utilisateur 1 (ID: " + user1.getId() + ") et Utilisateur 2 (ID: " + user2.getId() + ") créés/mis à jour.");
             } else {
-                System.err.println("Problème lors de la création des utilisateurs initiaux, les IDs sont null. Vérifiez les erreurs de contrainte (email unique) et la configuration de la base de données.");
+                LOGGER.error("Problème lors de la création des utilisateurs initiaux, les IDs sont null. Vérifiez les erreurs de contrainte (email unique) et la configuration de la base de données.");
             }
 
             if (user1.getId() != null) {
@@ -61,7 +82,7 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
             if (lieu1.getId() != null && lieu2.getId() != null) {
                 System.out.println("Lieu 1 (ID: " + lieu1.getId() + ") et Lieu 2 (ID: " + lieu2.getId() + ") créés/mis à jour.");
             } else {
-                System.err.println("Problème lors de la création des lieux initiaux.");
+                LOGGER.error("Problème lors de la création des lieux initiaux.");
             }
 
             System.out.println("\nListe de tous les lieux de recharge :");
@@ -80,8 +101,8 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
                 borneRechargeDao.saveOrUpdate(borne3);
                 System.out.println("Borne 1 (ID: " + borne1.getId() + "), Borne 2 (ID: " + borne2.getId() + "), Borne 3 (ID: " + borne3.getId() + ") créées.");
 
-                borne2.setEtatBorne(EtatBorne.DISPONIBLE); // Utiliser setEtat
-                borneRechargeDao.saveOrUpdate(borne2);
+                // Relecture + modification sous @Version, rejouée en cas de modification concurrente
+                borneRechargeDao.mettreAJour(borne2.getId(), b -> b.setEtatBorne(EtatBorne.DISPONIBLE));
                 System.out.println("État de la Borne 2 mis à jour à DISPONIBLE.");
 
                 System.out.println("\nBornes du lieu '" + lieu1.getNom() + "':");
@@ -92,7 +113,14 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
                 }
 
                 System.out.println("\nBornes actuellement DISPONIBLES:");
-                borneRechargeDao.findByEtat(EtatBorne.DISPONIBLE).forEach(b -> System.out.println(" - " + b));
+                borneRechargeDao.findResumesByEtat(EtatBorne.DISPONIBLE).forEach(b -> System.out.println(" - " + b));
+
+                // Signalements fréquents des bornes physiques : seul le dernier état de chaque borne est écrit
+                TamponEtatsBornes tampon = TamponEtatsBornes.depuisConfiguration("demo", borneRechargeDao);
+                for (int i = 0; i < 10; i++) {
+                    tampon.signaler(borne3.getId(), i % 2 == 0 ? EtatBorne.DISPONIBLE : EtatBorne.HORS_SERVICE);
+                }
+                System.out.println("\nSignalements de la Borne 3 écrits : " + tampon.vider() + " borne(s) modifiée(s) ; " + tampon);
 
 
                 System.out.println("\n--- GESTION DES RESERVATIONS ---");
@@ -107,24 +135,22 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
                         LocalDateTime debutCrenau = LocalDateTime.now().plusHours(2).withMinute(0).withSecond(0).withNano(0);
                         LocalDateTime finCrenau = debutCrenau.plusHours(1); // Réservation d'une heure
 
-                        List<Reservation> chevauchements = reservationDao.findReservationsChevauchantesPourBorne(borneAReserver, debutCrenau, finCrenau);
-                        if (chevauchements.isEmpty()) {
-                            // Utilisation du constructeur mis à jour pour Reservation (sans dateReservation)
-                            Reservation reservation1 = new Reservation(debutCrenau, finCrenau, utilisateurPourResa, borneAReserver);
+                        // Vérification du chevauchement et création dans une seule transaction, sous verrou de la borne
+                        ResultatReservation resultat = reservationDao.reserver(utilisateurPourResa.getId(), borneAReserver.getId(), debutCrenau, finCrenau);
+                        if (resultat.estReservee()) {
+                            Reservation reservation1 = resultat.reservation();
                             // Le statut est EN_ATTENTE par défaut dans le constructeur de Reservation
-                            reservationDao.saveOrUpdate(reservation1);
                             System.out.println("Réservation créée (ID: " + reservation1.getId() + ", Statut: " + reservation1.getStatut() + ") pour " + utilisateurPourResa.getEmail() + " sur la borne ID " + borneAReserver.getId());
 
                             // On pourrait vouloir changer le statut pour la démo
-                            reservation1.setStatut(StatutReservation.ACCEPTEE);
-                            reservationDao.saveOrUpdate(reservation1);
+                            reservation1 = reservationDao.mettreAJour(reservation1.getId(), r -> r.setStatut(StatutReservation.ACCEPTEE)).orElse(reservation1);
                             System.out.println("Statut de la réservation ID " + reservation1.getId() + " mis à jour à " + reservation1.getStatut());
 
 
                             System.out.println("\nRéservations de " + utilisateurPourResa.getEmail() + ":");
-                            reservationDao.findByUtilisateur(utilisateurPourResa).forEach(r -> System.out.println(" - " + r));
+                            reservationDao.findResumesByUtilisateur(utilisateurPourResa).forEach(r -> System.out.println(" - " + r));
                         } else {
-                            System.out.println("La borne ID " + borneAReserver.getId() + " est déjà réservée sur ce créneau.");
+                            System.out.println("Réservation refusée pour la borne ID " + borneAReserver.getId() + " : " + resultat.issue());
                         }
                     } else {
                         System.out.println("La borne ID " + borneAReserver.getId() + " n'est pas disponible (État: " + borneAReserver.getEtatBorne() + ").");
@@ -137,18 +163,60 @@ public class App { // Renommez en App si c'est le nom de votre classe principale
                 // ... (la logique de suppression peut rester similaire, mais attention aux ID si les créations ont échoué)
 
             } else {
-                System.err.println("Erreur: Un des lieux n'a pas été persisté correctement, certaines opérations sur les bornes et réservations sont sautées.");
+                LOGGER.error("Erreur: Un des lieux n'a pas été persisté correctement, certaines opérations sur les bornes et réservations sont sautées.");
             }
 
             // ... (fin de la section suppression et du try-catch)
 
         } catch (Exception e) {
-            System.err.println("Une erreur majeure est survenue dans l'application :");
-            e.printStackTrace();
+            LOGGER.error("Une erreur majeure est survenue dans l'application", e);
         } finally {
+            afficherStatistiques();
+            Supervision.arreter();
             GestionnaireSessionFactory.shutdown();
         }
 
         System.out.println("\nFin de l'application Electricity Business (TP Hibernate).");
     }
+
+    /**
+     * Mode {@code simulation} : conducteurs concurrents cherchant et réservant des bornes (voir {@link SimulateurCharge}).
+     */
+    private static void simuler(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            int egal = args[i].indexOf('=');
+            if (egal <= 0) {
+                LOGGER.error("Argument de simulation ignoré (attendu clé=valeur) : {}", args[i]);
+                continue;
+            }
+            System.setProperty("humanbooster.simulation." + args[i].substring(0, egal), args[i].substring(egal + 1));
+        }
+        Supervision.demarrer();
+        try {
+            SimulateurCharge simulateur = new SimulateurCharge(ParametresSimulation.depuisConfiguration(),
+                    InstrumentationDao.instrumenter(UtilisateurDAO.class, new UtilisateurDAOImpl()),
+                    InstrumentationDao.instrumenter(LieuRechargeDAO.class, new LieuRechargeDAOImpl()),
+                    InstrumentationDao.instrumenter(BorneRechargeDAO.class, new BorneRechargeDAOImpl()),
+                    InstrumentationDao.instrumenter(ReservationDAO.class, new ReservationDAOImpl()));
+            System.out.println("\n" + simulateur.executer());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Simulation interrompue");
+        } catch (Exception e) {
+            LOGGER.error("La simulation a échoué", e);
+        } finally {
+            afficherStatistiques();
+            Supervision.arreter();
+            GestionnaireSessionFactory.shutdown();
+        }
+    }
+
+    private static void afficherStatistiques() {
+        System.out.println("\n" + GestionnaireSessionFactory.getStatistiquesPool());
+        GestionnaireSessionFactory.getStatistiquesCache().forEach(c -> System.out.println("Cache " + c));
+        PolitiqueReessai.toutes().forEach(System.out::println);
+        InstrumentationDao.toutes().stream().filter(m -> m.getAppels() > 0).forEach(System.out::println);
+        JournalRequetesLentes.toutes().forEach(System.out::println);
+        TamponEtatsBornes.tous().forEach(System.out::println);
+    }
 }
@@ -5,9 +5,14 @@ package com.humanbooster.DAO;
 import com.humanbooster.model.BorneRecharge;
 import com.humanbooster.model.EtatBorne;
 import com.humanbooster.model.LieuRecharge; // Nécessaire pour une recherche par lieu
+import com.humanbooster.dto.BorneResume;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interface Data Access Object (DAO) pour l'entité {@link BorneRecharge}.
@@ -24,6 +29,53 @@ public interface BorneRechargeDAO {
      */
     void saveOrUpdate(BorneRecharge borneRecharge);
 
+    /**
+     * Sauvegarde ou met à jour un ensemble de bornes de recharge dans une seule transaction.
+     * Les écritures sont envoyées par lots JDBC (taille définie par {@code hibernate.jdbc.batch_size}),
+     * ce qui est nettement plus rapide que des appels successifs à {@link #saveOrUpdate(BorneRecharge)}
+     * pour les imports volumineux. En cas d'erreur, aucune écriture n'est conservée.
+     *
+     * @param bornes Les bornes à sauvegarder ou à mettre à jour.
+     */
+    void saveAll(Collection<BorneRecharge> bornes);
+
+    /**
+     * Applique une modification à une borne de recharge sous verrouillage optimiste, avec réessais.
+     * L'entité est relue en base, modifiée par {@code modification} puis enregistrée dans une même
+     * transaction. Si une écriture concurrente a changé la version entre-temps, l'opération est rejouée
+     * (relecture comprise) selon la politique {@code humanbooster.reessai.*}.
+     * Exemple : {@code mettreAJour(id, b -> b.setEtatBorne(EtatBorne.HORS_SERVICE))}.
+     *
+     * @param id L'ID de l'entité à modifier.
+     * @param modification La modification à appliquer ; peut être exécutée plusieurs fois.
+     * @return L'entité telle qu'enregistrée, ou un {@code Optional} vide si elle n'existe pas
+     * ou si la modification a échoué malgré les réessais.
+     */
+    Optional<BorneRecharge> mettreAJour(Long id, Consumer<BorneRecharge> modification);
+
+    /**
+     * Change l'état d'un ensemble de bornes sans les charger : une instruction {@code UPDATE} par paquet
+     * d'au plus 1 000 IDs, le tout dans une seule transaction.
+     * Les bornes déjà dans l'état demandé ne sont pas modifiées. La version de chaque borne modifiée est
+     * incrémentée : une modification concurrente faite sur une copie antérieure échoue en conflit de version
+     * au lieu d'écraser le nouvel état. Les caches de second niveau et de requêtes des bornes sont invalidés.
+     *
+     * @param ids  Les IDs des bornes à modifier.
+     * @param etat Le nouvel état.
+     * @return Le nombre de bornes modifiées, 0 si les paramètres sont invalides, -1 en cas d'erreur (rien n'est alors modifié).
+     */
+    int updateEtat(Collection<Long> ids, EtatBorne etat);
+
+    /**
+     * Change l'état de toutes les bornes d'un lieu en une seule instruction {@code UPDATE}
+     * (ex : un site entier passe {@link EtatBorne#HORS_SERVICE}). Mêmes garanties que {@link #updateEtat(Collection, EtatBorne)}.
+     *
+     * @param lieuId L'ID du lieu de recharge.
+     * @param etat   Le nouvel état.
+     * @return Le nombre de bornes modifiées, 0 si les paramètres sont invalides, -1 en cas d'erreur.
+     */
+    int updateEtatParLieu(Long lieuId, EtatBorne etat);
+
     /**
      * Recherche une borne de recharge par son identifiant unique (ID).
      *
@@ -41,6 +93,18 @@ public interface BorneRechargeDAO {
      */
     List<BorneRecharge> findAll();
 
+    /**
+     * Récupère une page de bornes de recharge, triées par ID croissant (pagination par clé).
+     * Le coût d'une page ne dépend pas de sa profondeur, contrairement à un {@code OFFSET}.
+     * Pour parcourir toute la table, passer {@code null} puis l'ID du dernier élément de chaque page,
+     * jusqu'à obtenir une page vide.
+     *
+     * @param apresId L'ID du dernier élément de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal d'éléments de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Une {@link List} d'au plus {@code limite} {@link BorneRecharge}s d'ID supérieur à {@code apresId}.
+     */
+    List<BorneRecharge> findPage(Long apresId, int limite);
+
     /**
      * Récupère la liste de toutes les bornes de recharge associées à un lieu spécifique.
      *
@@ -53,15 +117,88 @@ public interface BorneRechargeDAO {
     /**
      * Récupère la liste de toutes les bornes de recharge ayant un état spécifique.
      *
+     * Le résultat est conservé dans le cache de requêtes (si {@code hibernate.cache.use_query_cache}
+     * est activé) jusqu'à la prochaine écriture sur une borne : les appels répétés avec le même état
+     * sont alors servis depuis la mémoire.
+     *
      * @param etat L'{@link EtatBorne} à rechercher.
      * @return Une {@link List} des {@link BorneRecharge}s trouvées avec cet état.
      * Peut être vide.
      */
     List<BorneRecharge> findByEtat(EtatBorne etat);
 
+    /**
+     * Parcourt toutes les bornes de recharge sans les charger en mémoire d'un seul coup.
+     * Les lignes sont lues par paquets ({@code humanbooster.flux.taille_lecture}) à l'aide d'un curseur
+     * côté serveur, et les bornes déjà traitées sont libérées au fil de la lecture : la mémoire
+     * utilisée reste constante quelle que soit la taille de la table.
+     * <p>
+     * Le flux garde une session ouverte et doit être fermé :
+     * {@code try (Stream<BorneRecharge> bornes = dao.streamAll()) { ... }}.
+     * Les bornes sont en lecture seule et leur lieu (chargé paresseusement) doit être lu
+     * pendant le traitement de l'élément.
+     *
+     * @return Un {@link Stream} des {@link BorneRecharge}s, vide en cas d'erreur à l'ouverture.
+     */
+    Stream<BorneRecharge> streamAll();
+
+    /**
+     * Variante en flux de {@link #findByEtat(EtatBorne)}, pour les traitements de masse.
+     * Mêmes garanties et mêmes obligations que {@link #streamAll()} ; le cache de requêtes n'est pas utilisé.
+     *
+     * @param etat L'{@link EtatBorne} à rechercher.
+     * @return Un {@link Stream} des {@link BorneRecharge}s ayant cet état, à fermer après usage.
+     */
+    Stream<BorneRecharge> streamByEtat(EtatBorne etat);
+
+    /**
+     * Récupère les résumés (ID, puissance, état, lieu) des bornes ayant un état spécifique.
+     * Variante légère de {@link #findByEtat(EtatBorne)} pour les écrans de liste : le résultat est construit
+     * directement par la requête, sans entité gérée ni proxy du lieu. Comme {@code findByEtat},
+     * il est conservé dans le cache de requêtes jusqu'à la prochaine écriture sur une borne ou un lieu.
+     *
+     * @param etat L'{@link EtatBorne} à rechercher.
+     * @return Une {@link List} de {@link BorneResume}s, triés par ID. Peut être vide.
+     */
+    List<BorneResume> findResumesByEtat(EtatBorne etat);
+
+
+    /**
+     * Récupère les bornes disponibles d'un lieu sur un intervalle : état {@link EtatBorne#DISPONIBLE} et aucune
+     * réservation chevauchant {@code [debutInterval, finInterval[}. Toutes les bornes disponibles sont renvoyées :
+     * les pages de {@link #findBornesDisponibles(Collection, LocalDateTime, LocalDateTime, Long, int)} sont lues
+     * à la suite, soit une requête SQL par tranche de {@code humanbooster.pagination.limite_max} bornes (une seule
+     * pour un lieu ordinaire). Pour les grands ensembles de lieux, préférer la variante paginée.
+     *
+     * @param lieu          Le lieu de recharge.
+     * @param debutInterval Début de l'intervalle souhaité.
+     * @param finInterval   Fin de l'intervalle souhaité.
+     * @return Les {@link BorneResume}s de toutes les bornes disponibles du lieu, triés par ID.
+     * Vide si les paramètres sont invalides ou en cas d'erreur.
+     */
+    List<BorneResume> findBornesDisponibles(LieuRecharge lieu, LocalDateTime debutInterval, LocalDateTime finInterval);
+
+    /**
+     * Récupère une page des bornes disponibles d'un ensemble de lieux sur un intervalle, en une seule requête :
+     * filtre sur l'état {@link EtatBorne#DISPONIBLE} et anti-jointure ({@code NOT EXISTS}) sur les réservations
+     * chevauchant {@code [debutInterval, finInterval[}, avec la même règle de chevauchement que
+     * {@link ReservationDAO#findReservationsChevauchantesPourBorne}. Remplace la boucle « bornes du lieu, puis
+     * une vérification par borne » (1 + N requêtes). La pagination se fait par clé, comme {@link #findPage(Long, int)}.
+     *
+     * @param lieuIds       Les IDs des lieux de recharge.
+     * @param debutInterval Début de l'intervalle souhaité.
+     * @param finInterval   Fin de l'intervalle souhaité.
+     * @param apresId       L'ID de la dernière borne de la page précédente, ou {@code null} pour la première page.
+     * @param limite        Le nombre maximal de bornes de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Les {@link BorneResume}s des bornes disponibles d'ID supérieur à {@code apresId}, triés par ID.
+     * Vide si les paramètres sont invalides ou en cas d'erreur.
+     */
+    List<BorneResume> findBornesDisponibles(Collection<Long> lieuIds, LocalDateTime debutInterval, LocalDateTime finInterval,
+                                            Long apresId, int limite);
 
     /**
      * Récupère la liste des bornes de recharge ayant une puissance supérieure ou égale à la valeur spécifiée.
+     * Comme {@link #findByEtat(EtatBorne)}, ce résultat est mis en cache et invalidé à chaque écriture sur une borne.
      *
      * @param puissanceMinKw La puissance minimale en kW.
      * @return Une {@link List} des {@link BorneRecharge}s correspondantes.
@@ -70,18 +207,28 @@ public interface BorneRechargeDAO {
 
 
     /**
-     * Supprime une borne de recharge de la base de données en utilisant son ID.
-     * La suppression peut entraîner la suppression en cascade des réservations associées
-     * si la relation est configurée ainsi (CascadeType.ALL et orphanRemoval=true).
+     * Supprime une borne de recharge de la base de données en utilisant son ID, en une instruction
+     * ({@link #deleteByIds(Collection)}) : ses réservations sont supprimées par la base ({@code ON DELETE CASCADE}).
      *
      * @param id L'ID de la borne de recharge à supprimer.
      */
     void deleteById(Long id);
 
     /**
-     * Supprime une borne de recharge donnée de la base de données.
+     * Supprime une borne de recharge donnée de la base de données. Seul son ID est utilisé ; même traitement que
+     * {@link #deleteById(Long)}.
      *
      * @param borneRecharge L'objet {@link BorneRecharge} à supprimer.
      */
     void delete(BorneRecharge borneRecharge);
+
+    /**
+     * Supprime des bornes de recharge par ID sans les charger : une instruction {@code DELETE} par paquet
+     * d'au plus 1 000 IDs, dans une seule transaction. Les réservations des bornes sont supprimées par la base
+     * ({@code ON DELETE CASCADE}), les caches des bornes et l'index de disponibilité sont mis à jour.
+     *
+     * @param ids Les IDs des bornes à supprimer ; les IDs inconnus sont ignorés.
+     * @return Le nombre de bornes supprimées, 0 en cas d'erreur (rien n'est alors supprimé).
+     */
+    int deleteByIds(Collection<Long> ids);
 }
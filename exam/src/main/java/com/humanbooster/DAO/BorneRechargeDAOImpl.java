@@ -5,14 +5,24 @@ import com.humanbooster.model.BorneRecharge;
 import com.humanbooster.model.EtatBorne;
 import com.humanbooster.model.LieuRecharge;
 import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.dto.BorneResume;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query; // Pour les requêtes HQL typées
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface {@link BorneRechargeDAO} utilisant Hibernate
@@ -21,9 +31,17 @@ import java.util.Optional;
  */
 public class BorneRechargeDAOImpl implements BorneRechargeDAO {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(BorneRechargeDAOImpl.class);
+
     /** Référence à la SessionFactory, obtenue via HibernateFactoryManager. */
     private final SessionFactory sessionFactory = GestionnaireSessionFactory.getSessionFactory();
 
+    /** Réessais des mises à jour en conflit de version (voir {@link PolitiqueReessai}). */
+    private static final PolitiqueReessai POLITIQUE_REESSAI = PolitiqueReessai.depuisConfiguration("bornes_recharge");
+
+    /** Région du cache de requêtes (voir ehcache.xml) utilisée pour les recherches fréquentes de bornes. */
+    static final String REGION_REQUETES = "bornes_recharge.requetes";
+
     /**
      * {@inheritDoc}
      */
@@ -34,21 +52,160 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
             transaction = session.beginTransaction();
             session.saveOrUpdate(borneRecharge);
             transaction.commit();
-            System.out.println("Borne de recharge sauvegardée/mise à jour : ID " + borneRecharge.getId());
+            LOGGER.debug("Borne de recharge sauvegardée/mise à jour : ID {}", borneRecharge.getId());
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 try {
                     transaction.rollback();
-                    System.err.println("Transaction annulée pour borne de recharge ID : " + (borneRecharge != null ? borneRecharge.getId() : "null"));
+                    LOGGER.warn("Transaction annulée pour borne de recharge ID : {}", (borneRecharge != null ? borneRecharge.getId() : "null"));
                 } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction pour borne : " + (borneRecharge != null ? borneRecharge.getId() : "null") + " - " + rbEx.getMessage());
+                    LOGGER.error("Erreur lors du rollback de la transaction pour borne : {} - {}", (borneRecharge != null ? borneRecharge.getId() : "null"), rbEx.getMessage());
                 }
             }
-            System.err.println("Erreur lors de la sauvegarde/mise à jour de la borne de recharge : " + e.getMessage());
-            e.printStackTrace();
+            if (PolitiqueReessai.estConflitOptimiste(e)) {
+                POLITIQUE_REESSAI.signalerConflit();
+                LOGGER.warn("Borne de recharge ID {} modifiée entre-temps (version périmée) : utiliser mettreAJour pour rejouer la modification.", (borneRecharge != null ? borneRecharge.getId() : "null"));
+            }
+            LOGGER.error("Erreur lors de la sauvegarde/mise à jour de la borne de recharge", e);
+            EchecsDao.signaler();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveAll(Collection<BorneRecharge> bornes) {
+        TraitementParLots.enregistrerTout(sessionFactory, bornes, "bornes de recharge");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Chaque tentative ouvre sa propre session et relit la ligne en base (sans passer par le
+     * cache de second niveau), de sorte qu'une tentative rejouée après un conflit repart
+     * de la dernière version validée.
+     */
+    @Override
+    public Optional<BorneRecharge> mettreAJour(Long id, Consumer<BorneRecharge> modification) {
+        if (id == null || modification == null) {
+            LOGGER.warn("ID et modification requis pour mettre à jour la borne de recharge.");
+            return Optional.empty();
+        }
+        try {
+            return POLITIQUE_REESSAI.executer(() -> {
+                Transaction transaction = null;
+                try (Session session = sessionFactory.openSession()) {
+                    session.setCacheMode(CacheMode.REFRESH);
+                    transaction = session.beginTransaction();
+                    BorneRecharge borne = session.get(BorneRecharge.class, id);
+                    if (borne == null) {
+                        transaction.rollback();
+                        return Optional.<BorneRecharge>empty();
+                    }
+                    modification.accept(borne);
+                    transaction.commit();
+                    return Optional.of(borne);
+                } catch (RuntimeException e) {
+                    if (transaction != null && transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw e;
+                }
+            });
+        } catch (Exception e) {
+            LOGGER.error("Échec de la mise à jour de la borne de recharge ID {}", id, e);
+            EchecsDao.signaler();
+            return Optional.empty();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Après validation, Hibernate évince la région {@code bornes_recharge}, la collection {@code LieuRecharge.bornes}
+     * et périme les requêtes en cache portant sur la table ; les régions sont de plus vidées explicitement
+     * quand au moins une borne a changé d'état.
+     */
+    @Override
+    public int updateEtat(Collection<Long> ids, EtatBorne etat) {
+        if (ids == null || etat == null) {
+            LOGGER.warn("IDs et état requis pour la mise à jour de masse des bornes de recharge.");
+            return 0;
+        }
+        List<Long> distincts = OperationsEnMasse.distincts(ids);
+        if (distincts.isEmpty()) {
+            return 0;
+        }
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            int modifiees = 0;
+            for (int debut = 0; debut < distincts.size(); debut += OperationsEnMasse.TAILLE_PAQUET_IN) {
+                modifiees += session.createMutationQuery(
+                        "UPDATE VERSIONED BorneRecharge b SET b.etatBorne = :etatParam WHERE b.id IN :ids AND b.etatBorne <> :etatParam")
+                        .setParameter("etatParam", etat)
+                        .setParameterList("ids", distincts.subList(debut, Math.min(debut + OperationsEnMasse.TAILLE_PAQUET_IN, distincts.size())))
+                        .executeUpdate();
+            }
+            transaction.commit();
+            if (modifiees > 0) {
+                evincerCaches(sessionFactory);
+            }
+            LOGGER.debug("{} borne(s) de recharge passée(s) à l'état {}", modifiees, etat);
+            return modifiees;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.error("Erreur lors du passage de {} borne(s) de recharge à l'état {}", distincts.size(), etat, e);
+            EchecsDao.signaler();
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int updateEtatParLieu(Long lieuId, EtatBorne etat) {
+        if (lieuId == null || etat == null) {
+            LOGGER.warn("ID de lieu et état requis pour la mise à jour de masse des bornes de recharge.");
+            return 0;
+        }
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            int modifiees = session.createMutationQuery(
+                    "UPDATE VERSIONED BorneRecharge b SET b.etatBorne = :etatParam WHERE b.lieuRecharge.id = :lieuId AND b.etatBorne <> :etatParam")
+                    .setParameter("etatParam", etat)
+                    .setParameter("lieuId", lieuId)
+                    .executeUpdate();
+            transaction.commit();
+            if (modifiees > 0) {
+                evincerCaches(sessionFactory);
+            }
+            LOGGER.debug("{} borne(s) du lieu ID {} passée(s) à l'état {}", modifiees, lieuId, etat);
+            return modifiees;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.error("Erreur lors du passage des bornes du lieu ID {} à l'état {}", lieuId, etat, e);
+            EchecsDao.signaler();
+            return -1;
+        }
+    }
+
+    /**
+     * Vide les régions de cache qui peuvent contenir une borne, après une mise à jour ou une suppression de masse
+     * (y compris la suppression en cascade, par la base, des bornes d'un lieu).
+     */
+    static void evincerCaches(SessionFactory sessionFactory) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(BorneRecharge.class);
+        cache.evictCollectionData("com.humanbooster.model.LieuRecharge.bornes");
+        cache.evictQueryRegion(REGION_REQUETES);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -58,8 +215,8 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
             BorneRecharge borne = session.get(BorneRecharge.class, id);
             return Optional.ofNullable(borne);
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche de la borne de recharge par ID " + id + " : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche de la borne de recharge par ID {}", id, e);
+            EchecsDao.signaler();
             return Optional.empty();
         }
     }
@@ -72,19 +229,27 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
         try (Session session = sessionFactory.openSession()) {
             return session.createQuery("FROM BorneRecharge", BorneRecharge.class).list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la récupération de toutes les bornes de recharge : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la récupération de toutes les bornes de recharge", e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BorneRecharge> findPage(Long apresId, int limite) {
+        return PaginationParCle.page(sessionFactory, BorneRecharge.class, apresId, limite, "bornes de recharge");
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public List<BorneRecharge> findByLieu(LieuRecharge lieu) {
         if (lieu == null || lieu.getId() == null) {
-            System.err.println("Lieu de recharge ou son ID ne peut être null pour la recherche de bornes.");
+            LOGGER.warn("Lieu de recharge ou son ID ne peut être null pour la recherche de bornes.");
             return new ArrayList<>();
         }
         try (Session session = sessionFactory.openSession()) {
@@ -92,8 +257,8 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
             query.setParameter("lieuId", lieu.getId());
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des bornes pour le lieu ID " + lieu.getId() + " : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des bornes pour le lieu ID {}", lieu.getId(), e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
@@ -104,32 +269,153 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
     @Override
     public List<BorneRecharge> findByEtat(EtatBorne etat) {
         if (etat == null) {
-            System.err.println("L'état de la borne ne peut être null pour la recherche.");
+            LOGGER.warn("L'état de la borne ne peut être null pour la recherche.");
             return new ArrayList<>();
         }
         try (Session session = sessionFactory.openSession()) {
             Query<BorneRecharge> query = session.createQuery("FROM BorneRecharge b WHERE b.etatBorne = :etatParam", BorneRecharge.class);
             query.setParameter("etatParam", etat);
+            query.setCacheable(true);
+            query.setCacheRegion(REGION_REQUETES);
+            return query.list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des bornes par état '{}'", etat, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BorneResume> findResumesByEtat(EtatBorne etat) {
+        if (etat == null) {
+            LOGGER.warn("L'état de la borne ne peut être null pour la recherche.");
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Query<BorneResume> query = session.createQuery(
+                    "SELECT new com.humanbooster.dto.BorneResume(b.id, b.tarif_horaire, b.etatBorne, l.id, l.nom) " +
+                    "FROM BorneRecharge b JOIN b.lieuRecharge l WHERE b.etatBorne = :etatParam ORDER BY b.id", BorneResume.class);
+            query.setParameter("etatParam", etat);
+            query.setCacheable(true);
+            query.setCacheRegion(REGION_REQUETES);
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des bornes par état '" + etat + "' : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des résumés de bornes par état '{}'", etat, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BorneResume> findBornesDisponibles(LieuRecharge lieu, LocalDateTime debutInterval, LocalDateTime finInterval) {
+        if (lieu == null || lieu.getId() == null) {
+            LOGGER.warn("Lieu de recharge ou son ID ne peut être null pour la recherche de bornes disponibles.");
+            return new ArrayList<>();
+        }
+        if (debutInterval == null || finInterval == null || !finInterval.isAfter(debutInterval)) {
+            LOGGER.warn("Paramètres invalides pour findBornesDisponibles.");
+            return new ArrayList<>();
+        }
+        int limite = PaginationParCle.limiteMax();
+        List<BorneResume> disponibles = new ArrayList<>();
+        try (Session session = sessionFactory.openSession()) {
+            List<BorneResume> page;
+            Long apresId = null;
+            do {
+                page = pageBornesDisponibles(session, List.of(lieu.getId()), debutInterval, finInterval, apresId, limite);
+                disponibles.addAll(page);
+                apresId = page.isEmpty() ? null : page.get(page.size() - 1).id();
+            } while (page.size() == limite);
+            return disponibles;
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des bornes disponibles du lieu ID {} du {} au {}", lieu.getId(), debutInterval, finInterval, e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * La sous-requête s'appuie sur l'index {@code idx_reservations_borne_periode}, le filtre des bornes
+     * sur {@code idx_bornes_recharge_lieu_etat}. Le résultat n'est pas mis en cache : il dépend des réservations.
+     */
+    @Override
+    public List<BorneResume> findBornesDisponibles(Collection<Long> lieuIds, LocalDateTime debutInterval, LocalDateTime finInterval,
+                                                   Long apresId, int limite) {
+        if (lieuIds == null || lieuIds.isEmpty() || debutInterval == null || finInterval == null
+                || !finInterval.isAfter(debutInterval) || limite <= 0) {
+            LOGGER.warn("Paramètres invalides pour findBornesDisponibles.");
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            return pageBornesDisponibles(session, lieuIds, debutInterval, finInterval, apresId, Math.min(limite, PaginationParCle.limiteMax()));
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des bornes disponibles des lieux {} du {} au {}", lieuIds, debutInterval, finInterval, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<BorneResume> pageBornesDisponibles(Session session, Collection<Long> lieuIds, LocalDateTime debutInterval,
+                                                           LocalDateTime finInterval, Long apresId, int limite) {
+        Query<BorneResume> query = session.createQuery(
+                "SELECT new com.humanbooster.dto.BorneResume(b.id, b.tarif_horaire, b.etatBorne, l.id, l.nom) " +
+                "FROM BorneRecharge b JOIN b.lieuRecharge l " +
+                "WHERE l.id IN :lieuIds AND b.etatBorne = :etatParam" +
+                (apresId != null ? " AND b.id > :apresId" : "") +
+                " AND NOT EXISTS (SELECT 1 FROM Reservation r WHERE r.borne = b" +
+                " AND r.dateDebut < :finInterval AND r.dateFin > :debutInterval) ORDER BY b.id", BorneResume.class);
+        query.setParameterList("lieuIds", lieuIds);
+        query.setParameter("etatParam", EtatBorne.DISPONIBLE);
+        query.setParameter("debutInterval", debutInterval);
+        query.setParameter("finInterval", finInterval);
+        if (apresId != null) {
+            query.setParameter("apresId", apresId);
+        }
+        return query.setMaxResults(limite).list();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<BorneRecharge> streamAll() {
+        return LectureEnFlux.flux(sessionFactory, "FROM BorneRecharge", BorneRecharge.class, Map.of(), "bornes de recharge");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<BorneRecharge> streamByEtat(EtatBorne etat) {
+        if (etat == null) {
+            LOGGER.warn("L'état de la borne ne peut être null pour la recherche.");
+            return Stream.empty();
+        }
+        return LectureEnFlux.flux(sessionFactory, "FROM BorneRecharge b WHERE b.etatBorne = :etatParam",
+                BorneRecharge.class, Map.of("etatParam", etat), "bornes de recharge");
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public List<BorneRecharge> findByPuissanceMin(double puissanceMinKw) {
         try (Session session = sessionFactory.openSession()) {
-            Query<BorneRecharge> query = session.createQuery("FROM BorneRecharge b WHERE b.puissanceKw >= :puissanceMin", BorneRecharge.class);
+            Query<BorneRecharge> query = session.createQuery("FROM BorneRecharge b WHERE b.tarif_horaire >= :puissanceMin", BorneRecharge.class);
             query.setParameter("puissanceMin", puissanceMinKw);
+            query.setCacheable(true);
+            query.setCacheRegion(REGION_REQUETES);
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des bornes par puissance minimale (" + puissanceMinKw + "kW) : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des bornes par puissance minimale ({}kW)", puissanceMinKw, e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
@@ -140,11 +426,8 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
      */
     @Override
     public void deleteById(Long id) {
-        Optional<BorneRecharge> borneOpt = findById(id);
-        if (borneOpt.isPresent()) {
-            delete(borneOpt.get());
-        } else {
-            System.err.println("Tentative de suppression d'une borne de recharge non trouvée avec ID : " + id);
+        if (id == null || deleteByIds(List.of(id)) == 0) {
+            LOGGER.warn("Tentative de suppression d'une borne de recharge non trouvée avec ID : {}", id);
         }
     }
 
@@ -154,32 +437,22 @@ public class BorneRechargeDAOImpl implements BorneRechargeDAO {
     @Override
     public void delete(BorneRecharge borneRecharge) {
         if (borneRecharge == null || borneRecharge.getId() == null) {
-            System.err.println("Impossible de supprimer une borne de recharge null ou sans ID.");
+            LOGGER.warn("Impossible de supprimer une borne de recharge null ou sans ID.");
             return;
         }
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            BorneRecharge borneASupprimer = session.get(BorneRecharge.class, borneRecharge.getId());
-            if (borneASupprimer != null) {
-                session.delete(borneASupprimer);
-                transaction.commit();
-                System.out.println("Borne de recharge supprimée : ID " + borneASupprimer.getId());
-            } else {
-                if(transaction.isActive()) transaction.rollback();
-                System.err.println("Borne de recharge non trouvée pour suppression (ID : " + borneRecharge.getId() + ")");
-            }
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                try {
-                    transaction.rollback();
-                    System.err.println("Transaction annulée lors de la suppression de la borne ID : " + borneRecharge.getId());
-                } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction de suppression pour borne ID : " + borneRecharge.getId() + " - " + rbEx.getMessage());
-                }
-            }
-            System.err.println("Erreur lors de la suppression de la borne de recharge : " + e.getMessage());
-            e.printStackTrace();
+        deleteById(borneRecharge.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        OperationsEnMasse.Suppression suppression = OperationsEnMasse.supprimer(sessionFactory, BorneRecharge.class, ids, null, "bornes de recharge");
+        if (suppression.supprimees() > 0) {
+            evincerCaches(sessionFactory);
+            OperationsEnMasse.distincts(ids).forEach(ReservationDAOImpl.indexDisponibilite()::supprimerBorne);
         }
+        return suppression.supprimees();
     }
 }
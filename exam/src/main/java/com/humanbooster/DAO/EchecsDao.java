@@ -0,0 +1,33 @@
+package com.humanbooster.DAO;
+
+/**
+ * Échecs des méthodes DAO qui journalisent l'erreur et renvoient une valeur par défaut ({@code false},
+ * {@code Optional} ou liste vide, -1...) au lieu de lever une exception. Chaque bloc {@code catch} le signale
+ * sur le thread courant ; la couche d'instrumentation ({@code InstrumentationDao}) le relit après l'appel
+ * pour le compter comme une erreur de la méthode.
+ */
+public final class EchecsDao {
+
+    private static final ThreadLocal<Boolean> ECHEC = new ThreadLocal<>();
+
+    private EchecsDao() {
+    }
+
+    /**
+     * Signale l'échec de l'appel DAO en cours sur ce thread.
+     */
+    public static void signaler() {
+        ECHEC.set(Boolean.TRUE);
+    }
+
+    /**
+     * Efface le signalement du thread courant.
+     *
+     * @return {@code true} si un échec avait été signalé depuis la précédente réinitialisation.
+     */
+    public static boolean reinitialiser() {
+        boolean echec = ECHEC.get() != null;
+        ECHEC.remove();
+        return echec;
+    }
+}
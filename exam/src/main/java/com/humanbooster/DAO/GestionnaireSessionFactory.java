@@ -1,18 +1,51 @@
 package com.humanbooster.DAO;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * Gère la création et l'accès à l'unique instance de SessionFactory d'Hibernate.
  * La SessionFactory est initialisée une seule fois au chargement de la classe.
+ * <p>
+ * La configuration de base (hibernate.cfg.xml) peut être surchargée par environnement :
+ * <ol>
+ *     <li>le fichier {@code hibernate-<env>.properties} du classpath, où {@code <env>} est donné
+ *     par la propriété système {@code app.env} ou la variable d'environnement {@code APP_ENV} ;</li>
+ *     <li>les variables d'environnement {@code DB_HOST}, {@code DB_PORT}, {@code DB_NAME},
+ *     {@code DB_USER} et {@code DB_PASSWORD} (voir docker-compose.yaml) ;</li>
+ *     <li>toute propriété système commençant par {@code hibernate.}
+ *     (ex : {@code -Dhibernate.hikari.maximumPoolSize=30}).</li>
+ * </ol>
  */
 public class GestionnaireSessionFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GestionnaireSessionFactory.class);
+
     private static final SessionFactory sessionFactory = buildSessionFactory();
 
     /**
-     * Construit la SessionFactory en lisant la configuration depuis hibernate.cfg.xml.
+     * Construit la SessionFactory en lisant la configuration depuis hibernate.cfg.xml,
+     * puis en appliquant les surcharges propres à l'environnement d'exécution.
+     * Les migrations du schéma ({@link MigrationsSchema}) sont appliquées avant la construction,
+     * qui se limite alors à valider le schéma.
      * Cette méthode est appelée statiquement une seule fois.
      *
      * @return L'instance de SessionFactory configurée.
@@ -20,13 +53,66 @@ public class GestionnaireSessionFactory {
      */
     private static SessionFactory buildSessionFactory() {
         try {
-            return new Configuration().configure().buildSessionFactory();
+            Configuration configuration = new Configuration().configure();
+            appliquerSurchargesEnvironnement(configuration);
+            MigrationsSchema.appliquer(configuration.getProperties());
+            long debut = System.nanoTime();
+            SessionFactory factory = configuration.buildSessionFactory();
+            LOGGER.info("SessionFactory construite en {} ms (hbm2ddl.auto={}).", (System.nanoTime() - debut) / 1_000_000, configuration.getProperty("hibernate.hbm2ddl.auto"));
+            return factory;
         } catch (Throwable ex) {
-            System.err.println("La création initiale de la SessionFactory Hibernate a échoué : " + ex);
+            LOGGER.error("La création initiale de la SessionFactory Hibernate a échoué", ex);
             throw new ExceptionInInitializerError(ex);
         }
     }
 
+    /**
+     * Applique, dans l'ordre, le fichier de propriétés de l'environnement, les variables
+     * d'environnement de connexion à la base, puis les propriétés système {@code hibernate.*} et {@code humanbooster.*}.
+     * Chaque niveau l'emporte sur le précédent.
+     *
+     * @param configuration La configuration chargée depuis hibernate.cfg.xml.
+     * @throws IOException si le fichier de l'environnement demandé ne peut être lu.
+     */
+    private static void appliquerSurchargesEnvironnement(Configuration configuration) throws IOException {
+        String environnement = System.getProperty("app.env", System.getenv("APP_ENV"));
+        if (environnement != null && !environnement.isBlank()) {
+            String ressource = "/hibernate-" + environnement.trim() + ".properties";
+            try (InputStream in = GestionnaireSessionFactory.class.getResourceAsStream(ressource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Fichier de configuration introuvable pour l'environnement '" + environnement + "' : " + ressource);
+                }
+                Properties proprietes = new Properties();
+                proprietes.load(in);
+                configuration.addProperties(proprietes);
+                LOGGER.info("Configuration Hibernate de l'environnement '{}' appliquée.", environnement);
+            }
+        }
+
+        String hote = System.getenv("DB_HOST");
+        if (hote != null && !hote.isBlank()) {
+            String port = System.getenv().getOrDefault("DB_PORT", "3306");
+            String base = System.getenv().getOrDefault("DB_NAME", "testdb");
+            String url = configuration.getProperty("hibernate.connection.url");
+            configuration.setProperty("hibernate.connection.url",
+                    url.replaceFirst("^jdbc:mysql://[^/]+/[^?]*", "jdbc:mysql://" + hote + ":" + port + "/" + base));
+        }
+        String utilisateur = System.getenv("DB_USER");
+        if (utilisateur != null && !utilisateur.isBlank()) {
+            configuration.setProperty("hibernate.connection.username", utilisateur);
+        }
+        String motDePasse = System.getenv("DB_PASSWORD");
+        if (motDePasse != null) {
+            configuration.setProperty("hibernate.connection.password", motDePasse);
+        }
+
+        for (String nom : System.getProperties().stringPropertyNames()) {
+            if (nom.startsWith("hibernate.") || nom.startsWith("humanbooster.")) {
+                configuration.setProperty(nom, System.getProperty(nom));
+            }
+        }
+    }
+
     /**
      * Retourne l'instance unique et globalement accessible de la SessionFactory.
      * Les DAO utiliseront cette méthode pour obtenir la SessionFactory, puis appelleront
@@ -38,6 +124,130 @@ public class GestionnaireSessionFactory {
         return sessionFactory;
     }
 
+    /**
+     * Lit un paramètre de configuration de l'application. Les paramètres propres à l'application
+     * (préfixe {@code humanbooster.}) sont déclarés et surchargés exactement comme les propriétés
+     * Hibernate : hibernate.cfg.xml, fichier de l'environnement, propriétés système.
+     *
+     * @param nom             Le nom du paramètre.
+     * @param valeurParDefaut La valeur retournée si le paramètre n'est pas défini.
+     * @return La valeur configurée, ou {@code valeurParDefaut}.
+     */
+    public static String getParametre(String nom, String valeurParDefaut) {
+        Object valeur = sessionFactory.getProperties().get(nom);
+        return valeur != null ? valeur.toString().trim() : valeurParDefaut;
+    }
+
+    /**
+     * Lit un paramètre entier de configuration de l'application.
+     *
+     * @param nom             Le nom du paramètre.
+     * @param valeurParDefaut La valeur retournée si le paramètre n'est pas défini ou n'est pas un entier.
+     * @return La valeur configurée, ou {@code valeurParDefaut}.
+     * @see #getParametre(String, String)
+     */
+    public static int getParametreEntier(String nom, int valeurParDefaut) {
+        String valeur = getParametre(nom, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return valeurParDefaut;
+        }
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Paramètre {} invalide ({}), valeur par défaut utilisée : {}", nom, valeur, valeurParDefaut);
+            return valeurParDefaut;
+        }
+    }
+
+    /**
+     * Lit un paramètre décimal de configuration de l'application.
+     *
+     * @param nom             Le nom du paramètre.
+     * @param valeurParDefaut La valeur retournée si le paramètre n'est pas défini ou n'est pas un nombre.
+     * @return La valeur configurée, ou {@code valeurParDefaut}.
+     * @see #getParametre(String, String)
+     */
+    public static double getParametreDecimal(String nom, double valeurParDefaut) {
+        String valeur = getParametre(nom, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return valeurParDefaut;
+        }
+        try {
+            return Double.parseDouble(valeur);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Paramètre {} invalide ({}), valeur par défaut utilisée : {}", nom, valeur, valeurParDefaut);
+            return valeurParDefaut;
+        }
+    }
+
+    /**
+     * Retourne l'état courant du pool de connexions HikariCP : connexions actives, inactives,
+     * threads en attente et statistiques de temps d'acquisition.
+     * Si un autre fournisseur de connexions est configuré (par exemple le pool intégré
+     * d'Hibernate), seules les statistiques d'acquisition, nulles, sont renseignées.
+     *
+     * @return Un {@link StatistiquesPool} reflétant l'état du pool à l'instant de l'appel.
+     */
+    public static StatistiquesPool getStatistiquesPool() {
+        int actives = 0, inactives = 0, totales = 0, enAttente = 0;
+        ConnectionProvider fournisseur = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+        if (fournisseur != null && fournisseur.isUnwrappableAs(HikariDataSource.class)) {
+            HikariPoolMXBean pool = fournisseur.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            if (pool != null) {
+                actives = pool.getActiveConnections();
+                inactives = pool.getIdleConnections();
+                totales = pool.getTotalConnections();
+                enAttente = pool.getThreadsAwaitingConnection();
+            }
+        }
+        return new StatistiquesPool(actives, inactives, totales, enAttente,
+                SuiviAcquisitionConnexions.getNombreAcquisitions(),
+                SuiviAcquisitionConnexions.getDureeMoyenneAcquisitionMillis(),
+                SuiviAcquisitionConnexions.getDureeMaxAcquisitionMillis(),
+                SuiviAcquisitionConnexions.getNombreExpirations());
+    }
+
+    /**
+     * Retourne les compteurs de chaque région du cache de second niveau :
+     * succès, échecs et insertions (statistiques Hibernate), ainsi que les évictions
+     * publiées en JMX par le fournisseur JCache.
+     *
+     * @return Une {@link List} de {@link StatistiquesRegionCache}, une par région. Vide si le cache est désactivé.
+     */
+    public static List<StatistiquesRegionCache> getStatistiquesCache() {
+        List<StatistiquesRegionCache> resultat = new ArrayList<>();
+        Statistics statistiques = sessionFactory.getStatistics();
+        for (String region : statistiques.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistiques.getCacheRegionStatistics(region);
+            if (stats != null) {
+                resultat.add(new StatistiquesRegionCache(region, stats.getHitCount(), stats.getMissCount(),
+                        stats.getPutCount(), lireEvictionsJCache(region), stats.getElementCountInMemory()));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Lit le compteur d'évictions d'un cache JCache dans le serveur MBean de la plateforme.
+     *
+     * @param region Le nom du cache.
+     * @return Le nombre d'évictions, ou -1 si les statistiques JCache ne sont pas publiées.
+     */
+    private static long lireEvictionsJCache(String region) {
+        try {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> noms = serveur.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            if (!noms.isEmpty()) {
+                return ((Number) serveur.getAttribute(noms.iterator().next(), "CacheEvictions")).longValue();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Statistiques JCache indisponibles pour la région {} : {}", region, e.getMessage());
+        }
+        return -1;
+    }
+
     /**
      * Ferme la SessionFactory et libère toutes les ressources associées (pools de connexion, caches, etc.).
      * Cette méthode doit impérativement être appelée à la fin de l'application
@@ -45,8 +255,10 @@ public class GestionnaireSessionFactory {
      */
     public static void shutdown() {
         if (sessionFactory != null && !sessionFactory.isClosed()) {
+            // États de bornes encore en attente d'écriture différée : à écrire tant que la base est accessible
+            TamponEtatsBornes.fermerTous();
             getSessionFactory().close();
-            System.out.println("SessionFactory Hibernate a été fermée proprement.");
+            LOGGER.info("SessionFactory Hibernate a été fermée proprement.");
         }
     }
 
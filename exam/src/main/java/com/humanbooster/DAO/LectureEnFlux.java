@@ -0,0 +1,119 @@
+package com.humanbooster.DAO;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecture en flux des résultats d'une requête, partagée par les implémentations DAO.
+ * <p>
+ * Les lignes sont lues par un curseur {@link ScrollMode#FORWARD_ONLY} avec une taille de lecture
+ * bornée ({@code humanbooster.flux.taille_lecture}) : avec {@code useCursorFetch=true} dans l'URL
+ * de connexion, MySQL renvoie les lignes par paquets au lieu de tout le résultat d'un coup.
+ * La session est en lecture seule (pas de copie pour le dirty checking), n'alimente pas le cache
+ * de second niveau et son contexte de persistance est vidé à chaque paquet : la mémoire occupée
+ * ne dépend pas de la taille de la table.
+ * <p>
+ * Le {@link Stream} retourné garde une session et un curseur ouverts : il doit être fermé
+ * par l'appelant, idéalement avec un try-with-resources.
+ */
+final class LectureEnFlux {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LectureEnFlux.class);
+
+    /** Taille de lecture si {@code humanbooster.flux.taille_lecture} n'est pas renseignée. */
+    static final int TAILLE_LECTURE_PAR_DEFAUT = 500;
+
+    private LectureEnFlux() {
+    }
+
+    /**
+     * Ouvre un flux sur les résultats d'une requête HQL.
+     * Les entités fournies sont détachées au plus tard au paquet suivant : leurs associations
+     * paresseuses doivent être lues pendant le traitement de l'élément.
+     *
+     * @param sessionFactory La SessionFactory à utiliser.
+     * @param hql            La requête HQL.
+     * @param type           La classe des résultats.
+     * @param parametres     Les paramètres nommés de la requête.
+     * @param libelle        Libellé des éléments lus, utilisé dans les messages.
+     * @param <T>            Le type des résultats.
+     * @return Un flux séquentiel à fermer après usage, vide si la requête n'a pas pu être ouverte.
+     */
+    static <T> Stream<T> flux(SessionFactory sessionFactory, String hql, Class<T> type,
+                              Map<String, ?> parametres, String libelle) {
+        int tailleLecture = tailleLecture();
+        Session session = null;
+        ScrollableResults<T> resultats = null;
+        try {
+            session = sessionFactory.openSession();
+            session.setDefaultReadOnly(true);
+            session.setCacheMode(CacheMode.IGNORE);
+            Query<T> query = session.createQuery(hql, type);
+            parametres.forEach(query::setParameter);
+            query.setFetchSize(tailleLecture);
+            query.setReadOnly(true);
+            resultats = query.scroll(ScrollMode.FORWARD_ONLY);
+
+            Session sessionOuverte = session;
+            ScrollableResults<T> curseur = resultats;
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                private long lus;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (lus > 0 && lus % tailleLecture == 0) {
+                        sessionOuverte.clear();
+                    }
+                    if (!curseur.next()) {
+                        return false;
+                    }
+                    lus++;
+                    action.accept(curseur.get());
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> fermer(sessionOuverte, curseur, libelle));
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de l'ouverture du flux de {}", libelle, e);
+            EchecsDao.signaler();
+            fermer(session, resultats, libelle);
+            return Stream.empty();
+        }
+    }
+
+    private static void fermer(Session session, ScrollableResults<?> resultats, String libelle) {
+        try {
+            if (resultats != null) {
+                resultats.close();
+            }
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la fermeture du curseur de {} : {}", libelle, e.getMessage());
+        } finally {
+            if (session != null && session.isOpen()) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * @return La taille de lecture configurée, qui est aussi l'intervalle de vidage de la session.
+     */
+    static int tailleLecture() {
+        int configuree = GestionnaireSessionFactory.getParametreEntier("humanbooster.flux.taille_lecture", TAILLE_LECTURE_PAR_DEFAUT);
+        return configuree > 0 ? configuree : TAILLE_LECTURE_PAR_DEFAUT;
+    }
+}
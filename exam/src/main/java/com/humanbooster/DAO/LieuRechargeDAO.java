@@ -2,6 +2,7 @@ package com.humanbooster.DAO;
 
 
 import com.humanbooster.model.LieuRecharge;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,14 @@ public interface LieuRechargeDAO {
      */
     void saveOrUpdate(LieuRecharge lieuRecharge);
 
+    /**
+     * Sauvegarde ou met à jour un ensemble de lieux de recharge en une transaction, par lots JDBC.
+     * En cas d'erreur, aucun lieu n'est conservé.
+     *
+     * @param lieux Les lieux à sauvegarder ou à mettre à jour.
+     */
+    void saveAll(Collection<LieuRecharge> lieux);
+
     /**
      * Recherche un lieu de recharge par son identifiant unique (ID).
      *
@@ -48,18 +57,64 @@ public interface LieuRechargeDAO {
     List<LieuRecharge> findAll();
 
     /**
-     * Supprime un lieu de recharge de la base de données en utilisant son ID.
-     * La suppression peut entraîner la suppression en cascade des bornes associées
-     * si la relation est configurée ainsi (CascadeType.ALL et orphanRemoval=true).
+     * Récupère une page de lieux de recharge, triés par ID croissant (pagination par clé).
+     * Le coût d'une page ne dépend pas de sa profondeur, contrairement à un {@code OFFSET}.
+     * Pour parcourir toute la table, passer {@code null} puis l'ID du dernier élément de chaque page,
+     * jusqu'à obtenir une page vide.
+     * Contrairement à {@link #findAll()}, la collection {@code bornes} n'est pas chargée.
+     *
+     * @param apresId L'ID du dernier élément de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal d'éléments de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Une {@link List} d'au plus {@code limite} {@link LieuRecharge}s d'ID supérieur à {@code apresId}.
+     */
+    List<LieuRecharge> findPage(Long apresId, int limite);
+
+    /**
+     * Récupère une page de lieux de recharge avec leurs bornes, triés par ID croissant.
+     * Le chargement se fait en deux temps : les IDs de la page sont d'abord sélectionnés
+     * (pagination par clé, limitée en SQL), puis les lieux de ces IDs sont lus avec leurs bornes.
+     * Contrairement à une jointure {@code FETCH} paginée, la limite s'applique aux lieux et non
+     * aux lignes lieu × borne, et seules les bornes de la page sont chargées.
+     *
+     * @param apresId L'ID du dernier lieu de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal de lieux de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Une {@link List} d'au plus {@code limite} {@link LieuRecharge}s, collection {@code bornes} initialisée.
+     */
+    List<LieuRecharge> findPageAvecBornes(Long apresId, int limite);
+
+    /**
+     * Récupère tous les lieux de recharge sans charger leurs bornes, pour les listes de noms et d'adresses.
+     * Si la collection {@code bornes} est lue ensuite dans une session, elle est chargée par lots
+     * de plusieurs lieux (voir {@code @BatchSize} sur {@link LieuRecharge}) et non lieu par lieu.
+     *
+     * @return Une {@link List} de tous les {@link LieuRecharge}s, triés par ID. Peut être vide.
+     */
+    List<LieuRecharge> findAllSansBornes();
+
+    /**
+     * Supprime un lieu de recharge de la base de données en utilisant son ID, en une instruction
+     * ({@link #deleteByIds(Collection)}) : ses bornes et leurs réservations sont supprimées par la base
+     * ({@code ON DELETE CASCADE}), sans être chargées.
      *
      * @param id L'ID du lieu de recharge à supprimer.
      */
     void deleteById(Long id);
 
     /**
-     * Supprime un lieu de recharge donné de la base de données.
+     * Supprime un lieu de recharge donné de la base de données. Seul son ID est utilisé ; même traitement que
+     * {@link #deleteById(Long)}.
      *
      * @param lieuRecharge L'objet {@link LieuRecharge} à supprimer.
      */
     void delete(LieuRecharge lieuRecharge);
+
+    /**
+     * Supprime des lieux de recharge par ID sans les charger : une instruction {@code DELETE} par paquet
+     * d'au plus 1 000 IDs, dans une seule transaction. Bornes et réservations des lieux sont supprimées
+     * par la base ({@code ON DELETE CASCADE}) ; les caches des bornes et l'index de disponibilité sont mis à jour.
+     *
+     * @param ids Les IDs des lieux à supprimer ; les IDs inconnus sont ignorés.
+     * @return Le nombre de lieux supprimés, 0 en cas d'erreur (rien n'est alors supprimé).
+     */
+    int deleteByIds(Collection<Long> ids);
 }
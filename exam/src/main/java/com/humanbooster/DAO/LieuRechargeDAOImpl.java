@@ -7,8 +7,11 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query; // Pour les requêtes HQL typées
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,8 @@ import java.util.Optional;
  */
 public class LieuRechargeDAOImpl implements LieuRechargeDAO {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LieuRechargeDAOImpl.class);
+
     /** Référence à la SessionFactory, obtenue via HibernateFactoryManager. */
     private final SessionFactory sessionFactory = GestionnaireSessionFactory.getSessionFactory();
 
@@ -33,21 +38,28 @@ public class LieuRechargeDAOImpl implements LieuRechargeDAO {
             transaction = session.beginTransaction();
             session.saveOrUpdate(lieuRecharge); // Gère à la fois la création et la mise à jour
             transaction.commit();
-            System.out.println("Lieu de recharge sauvegardé/mis à jour : " + lieuRecharge.getNom());
+            LOGGER.debug("Lieu de recharge sauvegardé/mis à jour : {}", lieuRecharge.getNom());
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 try {
                     transaction.rollback();
-                    System.err.println("Transaction annulée pour lieu de recharge : " + lieuRecharge.getNom());
+                    LOGGER.warn("Transaction annulée pour lieu de recharge : {}", lieuRecharge.getNom());
                 } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction pour lieu : " + lieuRecharge.getNom() + " - " + rbEx.getMessage());
+                    LOGGER.error("Erreur lors du rollback de la transaction pour lieu : {} - {}", lieuRecharge.getNom(), rbEx.getMessage());
                 }
             }
-            System.err.println("Erreur lors de la sauvegarde/mise à jour du lieu de recharge : " + e.getMessage());
-            e.printStackTrace(); // Pour le débogage
+            LOGGER.error("Erreur lors de la sauvegarde/mise à jour du lieu de recharge", e); // Pour le débogage
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveAll(Collection<LieuRecharge> lieux) {
+        TraitementParLots.enregistrerTout(sessionFactory, lieux, "lieux de recharge");
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -57,8 +69,8 @@ public class LieuRechargeDAOImpl implements LieuRechargeDAO {
             LieuRecharge lieu = session.get(LieuRecharge.class, id);
             return Optional.ofNullable(lieu);
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche du lieu de recharge par ID " + id + " : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche du lieu de recharge par ID {}", id, e);
+            EchecsDao.signaler();
             return Optional.empty();
         }
     }
@@ -76,8 +88,8 @@ public class LieuRechargeDAOImpl implements LieuRechargeDAO {
             query.setParameter("nomParam", "%" + nom + "%"); // Recherche partielle (contient)
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des lieux de recharge par nom '" + nom + "' : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des lieux de recharge par nom '{}'", nom, e);
+            EchecsDao.signaler();
             return new ArrayList<>(); // Retourne une liste vide en cas d'erreur
         }
     }
@@ -88,28 +100,84 @@ public class LieuRechargeDAOImpl implements LieuRechargeDAO {
      * et éviter LazyInitializationException lors d'accès ultérieurs en dehors de la session.
      * L'utilisation de DISTINCT est importante pour éviter les doublons de LieuRecharge
      * si un lieu a plusieurs bornes.
+     * Charge toute la table : préférer {@link #findPageAvecBornes(Long, int)} ou
+     * {@link #findAllSansBornes()} sur de gros volumes.
      */
     @Override
     public List<LieuRecharge> findAll() {
         try (Session session = sessionFactory.openSession()) {
             return session.createQuery("SELECT DISTINCT l FROM LieuRecharge l LEFT JOIN FETCH l.bornes", LieuRecharge.class).list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la récupération de tous les lieux de recharge : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la récupération de tous les lieux de recharge", e);
+            EchecsDao.signaler();
             return new ArrayList<>(); // Retourne une liste vide en cas d'erreur
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<LieuRecharge> findPage(Long apresId, int limite) {
+        return PaginationParCle.page(sessionFactory, LieuRecharge.class, apresId, limite, "lieux de recharge");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Deux requêtes par page, quel que soit le nombre de bornes : sélection des IDs, puis
+     * {@code LEFT JOIN FETCH l.bornes} restreint à ces IDs.
+     */
+    @Override
+    public List<LieuRecharge> findPageAvecBornes(Long apresId, int limite) {
+        if (limite <= 0) {
+            LOGGER.warn("Taille de page invalide pour les lieux de recharge : {}", limite);
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Query<Long> requeteIds;
+            if (apresId == null) {
+                requeteIds = session.createQuery("SELECT l.id FROM LieuRecharge l ORDER BY l.id", Long.class);
+            } else {
+                requeteIds = session.createQuery("SELECT l.id FROM LieuRecharge l WHERE l.id > :apresId ORDER BY l.id", Long.class);
+                requeteIds.setParameter("apresId", apresId);
+            }
+            List<Long> ids = requeteIds.setMaxResults(Math.min(limite, PaginationParCle.limiteMax())).list();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return session.createQuery(
+                            "SELECT DISTINCT l FROM LieuRecharge l LEFT JOIN FETCH l.bornes WHERE l.id IN (:ids) ORDER BY l.id",
+                            LieuRecharge.class)
+                    .setParameterList("ids", ids)
+                    .list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la récupération d'une page de lieux de recharge avec bornes (après ID {})", apresId, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<LieuRecharge> findAllSansBornes() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM LieuRecharge l ORDER BY l.id", LieuRecharge.class).list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la récupération de tous les lieux de recharge (sans bornes)", e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void deleteById(Long id) {
-        Optional<LieuRecharge> lieuOpt = findById(id);
-        if (lieuOpt.isPresent()) {
-            delete(lieuOpt.get());
-        } else {
-            System.err.println("Tentative de suppression d'un lieu de recharge non trouvé avec ID : " + id);
+        if (id == null || deleteByIds(List.of(id)) == 0) {
+            LOGGER.warn("Tentative de suppression d'un lieu de recharge non trouvé avec ID : {}", id);
         }
     }
 
@@ -119,32 +187,26 @@ public class LieuRechargeDAOImpl implements LieuRechargeDAO {
     @Override
     public void delete(LieuRecharge lieuRecharge) {
         if (lieuRecharge == null || lieuRecharge.getId() == null) {
-            System.err.println("Impossible de supprimer un lieu de recharge null ou sans ID.");
+            LOGGER.warn("Impossible de supprimer un lieu de recharge null ou sans ID.");
             return;
         }
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            LieuRecharge lieuASupprimer = session.get(LieuRecharge.class, lieuRecharge.getId());
-            if (lieuASupprimer != null) {
-                session.delete(lieuASupprimer);
-                transaction.commit();
-                System.out.println("Lieu de recharge supprimé : " + lieuASupprimer.getNom());
-            } else {
-                if(transaction.isActive()) transaction.rollback();
-                System.err.println("Lieu de recharge non trouvé pour suppression (ID : " + lieuRecharge.getId() + ")");
-            }
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                try {
-                    transaction.rollback();
-                    System.err.println("Transaction annulée lors de la suppression du lieu : " + lieuRecharge.getNom());
-                } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction de suppression pour lieu : " + lieuRecharge.getNom() + " - " + rbEx.getMessage());
-                }
-            }
-            System.err.println("Erreur lors de la suppression du lieu de recharge : " + e.getMessage());
-            e.printStackTrace();
+        deleteById(lieuRecharge.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les IDs des bornes des lieux sont lus dans la même transaction, juste avant la suppression,
+     * pour les retirer de l'index de disponibilité.
+     */
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        OperationsEnMasse.Suppression suppression = OperationsEnMasse.supprimer(sessionFactory, LieuRecharge.class, ids,
+                "SELECT b.id FROM BorneRecharge b WHERE b.lieuRecharge.id IN :ids", "lieux de recharge");
+        if (suppression.supprimees() > 0) {
+            // Bornes supprimées en cascade par la base : Hibernate ne les évince pas de lui-même
+            BorneRechargeDAOImpl.evincerCaches(sessionFactory);
+            suppression.dependants().forEach(ReservationDAOImpl.indexDisponibilite()::supprimerBorne);
         }
+        return suppression.supprimees();
     }
 }
@@ -0,0 +1,254 @@
+package com.humanbooster.DAO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applique les migrations versionnées du schéma avant la construction de la SessionFactory.
+ * <p>
+ * Les scripts {@code V<n>__<description>.sql} du dossier {@code db/migration} du classpath, listés dans
+ * {@code db/migration/index.txt}, sont exécutés dans l'ordre de leur version. Chaque script appliqué est
+ * enregistré dans la table {@code schema_version} avec sa somme de contrôle : un script déjà appliqué puis
+ * modifié est refusé au démarrage. Une base créée auparavant par {@code hbm2ddl.auto=update} (tables présentes,
+ * table {@code schema_version} absente) est d'abord mise au niveau du schéma initial par {@code reprise_hbm2ddl.sql}
+ * (colonnes {@code version}, tables {@code *_seq} amorcées après le plus grand ID, index), puis enregistrée en version 1.
+ * <p>
+ * Hibernate se contente ensuite de valider le schéma ({@code hibernate.hbm2ddl.auto=validate}).
+ * Désactivable par {@code humanbooster.migration.active=false} (environnements H2 recréés par hbm2ddl).
+ */
+final class MigrationsSchema {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigrationsSchema.class);
+
+    private static final String DOSSIER = "/db/migration/";
+    private static final String TABLE_VERSIONS = "schema_version";
+    /** Table créée par le schéma initial, dont la présence signale une base gérée jusque-là par hbm2ddl. */
+    private static final String TABLE_TEMOIN = "reservations";
+    /** Script mettant une base créée par hbm2ddl au niveau de la version 1 ; rejouable. */
+    private static final String SCRIPT_REPRISE = "reprise_hbm2ddl.sql";
+    private static final Pattern NOM_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    /** Verrou MySQL empêchant deux instances de migrer la même base en même temps. */
+    private static final String VERROU_MYSQL = "humanbooster_migration";
+    private static final int ATTENTE_VERROU_SECONDES = 60;
+
+    private MigrationsSchema() {
+    }
+
+    /**
+     * Amène le schéma à la dernière version disponible.
+     *
+     * @param proprietes Les propriétés de connexion (configuration Hibernate après surcharges).
+     * @throws SQLException          si un script échoue (les scripts précédents restent appliqués), ou si le verrou
+     *                               de migration n'est pas obtenu à temps.
+     * @throws IOException           si un script ne peut être lu.
+     * @throws IllegalStateException si un script déjà appliqué a été modifié.
+     */
+    static void appliquer(Properties proprietes) throws SQLException, IOException {
+        if (!Boolean.parseBoolean(proprietes.getProperty("humanbooster.migration.active", "true").trim())) {
+            return;
+        }
+        long debut = System.nanoTime();
+        String url = proprietes.getProperty("hibernate.connection.url");
+        String pilote = proprietes.getProperty("hibernate.connection.driver_class");
+        if (pilote != null) {
+            try {
+                Class.forName(pilote);
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("Pilote JDBC introuvable : " + pilote, e);
+            }
+        }
+        boolean mysql = url.startsWith("jdbc:mysql:");
+        try (Connection connexion = DriverManager.getConnection(url,
+                proprietes.getProperty("hibernate.connection.username"),
+                proprietes.getProperty("hibernate.connection.password"))) {
+            if (mysql && lireEntier(connexion, "SELECT GET_LOCK('" + VERROU_MYSQL + "', " + ATTENTE_VERROU_SECONDES + ")") != 1) {
+                // 0 : délai dépassé, NULL : erreur ; migrer sans le verrou risquerait d'exécuter deux fois un script
+                throw new SQLException("Verrou de migration " + VERROU_MYSQL + " non obtenu en " + ATTENTE_VERROU_SECONDES
+                        + " s : une autre instance migre-t-elle la base ?");
+            }
+            try {
+                int appliques = migrer(connexion);
+                LOGGER.info("Schéma à jour : {} migration(s) appliquée(s) en {} ms.", appliques, (System.nanoTime() - debut) / 1_000_000);
+            } finally {
+                if (mysql) {
+                    lireEntier(connexion, "SELECT RELEASE_LOCK('" + VERROU_MYSQL + "')");
+                }
+            }
+        }
+    }
+
+    private static int migrer(Connection connexion) throws SQLException, IOException {
+        if (!tableExiste(connexion, TABLE_VERSIONS)) {
+            boolean baseExistante = tableExiste(connexion, TABLE_TEMOIN);
+            long debut = System.nanoTime();
+            if (baseExistante) {
+                // Avant la création de schema_version : après un échec, le prochain démarrage rejoue la reprise
+                executer(connexion, decouper(lireRessource(SCRIPT_REPRISE)));
+            }
+            try (Statement statement = connexion.createStatement()) {
+                statement.execute("CREATE TABLE " + TABLE_VERSIONS + " (version INT NOT NULL PRIMARY KEY, "
+                        + "description VARCHAR(200) NOT NULL, script VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, "
+                        + "installe_le TIMESTAMP NOT NULL, duree_ms BIGINT NOT NULL)");
+            }
+            if (baseExistante) {
+                Script initial = lireScripts().get(0);
+                long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+                enregistrer(connexion, initial, "reprise d'une base existante", dureeMillis);
+                LOGGER.info("Base existante mise au niveau de {} par {} en {} ms.", initial.nom(), SCRIPT_REPRISE, dureeMillis);
+            }
+        }
+
+        Map<Integer, Long> dejaAppliques = new HashMap<>();
+        try (Statement statement = connexion.createStatement();
+             ResultSet resultat = statement.executeQuery("SELECT version, checksum FROM " + TABLE_VERSIONS)) {
+            while (resultat.next()) {
+                dejaAppliques.put(resultat.getInt(1), resultat.getLong(2));
+            }
+        }
+
+        int appliques = 0;
+        for (Script script : lireScripts()) {
+            Long checksum = dejaAppliques.get(script.version());
+            if (checksum != null) {
+                if (checksum != script.checksum()) {
+                    throw new IllegalStateException("Le script de migration " + script.nom()
+                            + " a été modifié après avoir été appliqué : ajouter un nouveau script plutôt que de le modifier.");
+                }
+                continue;
+            }
+            long debut = System.nanoTime();
+            executer(connexion, script.instructions());
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            enregistrer(connexion, script, script.description(), dureeMillis);
+            LOGGER.info("Migration {} appliquée en {} ms.", script.nom(), dureeMillis);
+            appliques++;
+        }
+        return appliques;
+    }
+
+    private static void enregistrer(Connection connexion, Script script, String description, long dureeMillis) throws SQLException {
+        try (PreparedStatement insertion = connexion.prepareStatement("INSERT INTO " + TABLE_VERSIONS
+                + " (version, description, script, checksum, installe_le, duree_ms) VALUES (?, ?, ?, ?, ?, ?)")) {
+            insertion.setInt(1, script.version());
+            insertion.setString(2, description);
+            insertion.setString(3, script.nom());
+            insertion.setLong(4, script.checksum());
+            insertion.setTimestamp(5, Timestamp.from(Instant.now()));
+            insertion.setLong(6, dureeMillis);
+            insertion.executeUpdate();
+        }
+    }
+
+    private static boolean tableExiste(Connection connexion, String table) throws SQLException {
+        DatabaseMetaData metadonnees = connexion.getMetaData();
+        for (String nom : new String[]{table, table.toUpperCase()}) {
+            try (ResultSet tables = metadonnees.getTables(connexion.getCatalog(), null, nom, new String[]{"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void executer(Connection connexion, List<String> instructions) throws SQLException {
+        try (Statement statement = connexion.createStatement()) {
+            for (String instruction : instructions) {
+                statement.execute(instruction);
+            }
+        }
+    }
+
+    /**
+     * @return La première colonne de la première ligne, -1 si elle est NULL ou si la requête ne renvoie rien.
+     */
+    private static int lireEntier(Connection connexion, String sql) throws SQLException {
+        try (Statement statement = connexion.createStatement();
+             ResultSet resultat = statement.executeQuery(sql)) {
+            if (!resultat.next()) {
+                return -1;
+            }
+            int valeur = resultat.getInt(1);
+            return resultat.wasNull() ? -1 : valeur;
+        }
+    }
+
+    /**
+     * @return Les scripts listés dans {@code index.txt}, triés par version.
+     */
+    private static List<Script> lireScripts() throws IOException {
+        List<Script> scripts = new ArrayList<>();
+        for (String ligne : lireRessource("index.txt").split("\\R")) {
+            String nom = ligne.trim();
+            if (nom.isEmpty() || nom.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = NOM_SCRIPT.matcher(nom);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Nom de script de migration invalide : " + nom);
+            }
+            String contenu = lireRessource(nom);
+            CRC32 crc = new CRC32();
+            crc.update(contenu.getBytes(StandardCharsets.UTF_8));
+            scripts.add(new Script(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), nom,
+                    crc.getValue(), decouper(contenu)));
+        }
+        scripts.sort((a, b) -> Integer.compare(a.version(), b.version()));
+        return scripts;
+    }
+
+    private static String lireRessource(String nom) throws IOException {
+        try (InputStream in = MigrationsSchema.class.getResourceAsStream(DOSSIER + nom)) {
+            if (in == null) {
+                throw new IOException("Ressource de migration introuvable : " + DOSSIER + nom);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Découpe un script en instructions terminées par {@code ;} en fin de ligne, commentaires {@code --} retirés.
+     */
+    private static List<String> decouper(String contenu) {
+        List<String> instructions = new ArrayList<>();
+        StringBuilder courante = new StringBuilder();
+        for (String ligne : contenu.split("\\R")) {
+            String texte = ligne.strip();
+            if (texte.isEmpty() || texte.startsWith("--")) {
+                continue;
+            }
+            courante.append(texte).append('\n');
+            if (texte.endsWith(";")) {
+                instructions.add(courante.substring(0, courante.lastIndexOf(";")).trim());
+                courante.setLength(0);
+            }
+        }
+        if (!courante.toString().isBlank()) {
+            instructions.add(courante.toString().trim());
+        }
+        return instructions;
+    }
+
+    private record Script(int version, String description, String nom, long checksum, List<String> instructions) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.humanbooster.DAO;
+
+import jakarta.persistence.LockModeType;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Instructions DML de masse ({@code UPDATE}/{@code DELETE} HQL) partagées par les implémentations DAO.
+ * Les entités ne sont ni chargées ni supprimées une à une : les lignes dépendantes sont supprimées par la base
+ * ({@code ON DELETE CASCADE}, migration V3 et {@code @OnDelete} des entités). Les listes d'IDs sont découpées
+ * en paquets de {@value #TAILLE_PAQUET_IN} pour borner la taille des requêtes.
+ */
+final class OperationsEnMasse {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationsEnMasse.class);
+
+    /** Nombre maximal d'IDs par liste {@code IN}. */
+    static final int TAILLE_PAQUET_IN = 1000;
+
+    private OperationsEnMasse() {
+    }
+
+    /**
+     * Résultat d'une suppression de masse.
+     *
+     * @param supprimees Le nombre de lignes supprimées dans la table de l'entité (hors cascades de la base).
+     * @param dependants Les IDs lus par la requête des dépendants avant suppression, dans la même transaction.
+     */
+    record Suppression(int supprimees, List<Long> dependants) {
+        static final Suppression AUCUNE = new Suppression(0, List.of());
+    }
+
+    /**
+     * @return Les IDs non null et distincts de {@code ids}, dans leur ordre d'origine.
+     */
+    static List<Long> distincts(Collection<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Supprime des entités par ID, une instruction {@code DELETE} par paquet, dans une seule transaction.
+     *
+     * @param sessionFactory    La SessionFactory à utiliser.
+     * @param type              La classe de l'entité ; son nom HQL est celui de la classe.
+     * @param ids               Les IDs à supprimer ; les IDs inconnus sont ignorés.
+     * @param requeteDependants Requête HQL ({@code SELECT ... WHERE ... IN :ids}) des IDs des lignes que la base
+     *                          supprimera en cascade et que l'appelant doit oublier (index, caches), ou {@code null}.
+     *                          Les lignes à supprimer sont alors d'abord verrouillées ({@code SELECT ... FOR UPDATE}) :
+     *                          une ligne dépendante ne peut plus leur être rattachée (contrôle de la clé étrangère)
+     *                          entre la lecture des dépendants et la suppression, sans figurer dans le résultat.
+     * @param libelle           Libellé du type d'entité, utilisé dans les messages.
+     * @return Le résultat de la suppression, {@link Suppression#AUCUNE} en cas d'erreur (rien n'est alors supprimé).
+     */
+    static Suppression supprimer(SessionFactory sessionFactory, Class<?> type, Collection<Long> ids,
+                                 String requeteDependants, String libelle) {
+        if (ids == null) {
+            LOGGER.warn("IDs requis pour la suppression de masse des {}.", libelle);
+            return Suppression.AUCUNE;
+        }
+        List<Long> distincts = distincts(ids);
+        if (distincts.isEmpty()) {
+            return Suppression.AUCUNE;
+        }
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            int supprimees = 0;
+            List<Long> dependants = new ArrayList<>();
+            for (int debut = 0; debut < distincts.size(); debut += TAILLE_PAQUET_IN) {
+                List<Long> paquet = distincts.subList(debut, Math.min(debut + TAILLE_PAQUET_IN, distincts.size()));
+                if (requeteDependants != null) {
+                    session.createQuery("SELECT e.id FROM " + type.getSimpleName() + " e WHERE e.id IN :ids", Long.class)
+                            .setParameterList("ids", paquet)
+                            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                            .list();
+                    dependants.addAll(session.createQuery(requeteDependants, Long.class).setParameterList("ids", paquet).list());
+                }
+                supprimees += session.createMutationQuery("DELETE FROM " + type.getSimpleName() + " e WHERE e.id IN :ids")
+                        .setParameterList("ids", paquet)
+                        .executeUpdate();
+            }
+            transaction.commit();
+            LOGGER.debug("{} {} supprimé(e)s en masse", supprimees, libelle);
+            return new Suppression(supprimees, dependants);
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.error("Erreur lors de la suppression de masse de {} {}", distincts.size(), libelle, e);
+            EchecsDao.signaler();
+            return Suppression.AUCUNE;
+        }
+    }
+}
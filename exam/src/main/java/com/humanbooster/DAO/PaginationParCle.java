@@ -0,0 +1,72 @@
+package com.humanbooster.DAO;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pagination par clé (« keyset » / « seek ») partagée par les implémentations DAO.
+ * <p>
+ * Au lieu de {@code OFFSET n}, qui oblige la base à lire puis ignorer les {@code n} premières lignes,
+ * chaque page reprend après le dernier identifiant de la page précédente :
+ * {@code WHERE id > :apresId ORDER BY id LIMIT :limite}. La clé primaire sert à la fois de critère
+ * et d'ordre : la base descend directement dans l'index, et le coût d'une page est le même
+ * quelle que soit sa profondeur. L'ordre par identifiant est total, donc stable d'une page à l'autre,
+ * même si des lignes sont insérées entre deux appels.
+ */
+final class PaginationParCle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaginationParCle.class);
+
+    /** Taille de page maximale si {@code humanbooster.pagination.limite_max} n'est pas renseignée. */
+    static final int LIMITE_MAX_PAR_DEFAUT = 1000;
+
+    private PaginationParCle() {
+    }
+
+    /**
+     * Charge une page d'entités triées par identifiant croissant.
+     *
+     * @param sessionFactory La SessionFactory à utiliser.
+     * @param type           La classe de l'entité ; son nom HQL est celui de la classe.
+     * @param apresId        Identifiant de la dernière entité de la page précédente,
+     *                       ou {@code null} pour la première page.
+     * @param limite         Nombre maximal d'entités de la page, plafonné par {@code humanbooster.pagination.limite_max}.
+     * @param libelle        Libellé du type d'entité, utilisé dans les messages.
+     * @param <T>            Le type d'entité.
+     * @return Les entités de la page, vide s'il n'y en a plus ou en cas d'erreur.
+     */
+    static <T> List<T> page(SessionFactory sessionFactory, Class<T> type, Long apresId, int limite, String libelle) {
+        if (limite <= 0) {
+            LOGGER.warn("Taille de page invalide pour les {} : {}", libelle, limite);
+            return new ArrayList<>();
+        }
+        String entite = type.getSimpleName();
+        try (Session session = sessionFactory.openSession()) {
+            Query<T> query;
+            if (apresId == null) {
+                query = session.createQuery("FROM " + entite + " e ORDER BY e.id", type);
+            } else {
+                query = session.createQuery("FROM " + entite + " e WHERE e.id > :apresId ORDER BY e.id", type);
+                query.setParameter("apresId", apresId);
+            }
+            return query.setMaxResults(Math.min(limite, limiteMax())).list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la récupération d'une page de {} (après ID {})", libelle, apresId, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return La taille de page maximale configurée.
+     */
+    static int limiteMax() {
+        return GestionnaireSessionFactory.getParametreEntier("humanbooster.pagination.limite_max", LIMITE_MAX_PAR_DEFAUT);
+    }
+}
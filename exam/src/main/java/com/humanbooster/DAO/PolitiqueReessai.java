@@ -0,0 +1,193 @@
+package com.humanbooster.DAO;
+
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Politique de réessai des opérations en conflit de verrouillage optimiste ({@code @Version}).
+ * <p>
+ * Une opération qui échoue sur un conflit de version est rejouée jusqu'à {@code tentativesMax} fois,
+ * avec une attente exponentielle aléatoire (« full jitter ») entre deux tentatives pour que les
+ * écrivains concurrents ne se retrouvent pas à nouveau en collision. L'opération rejouée doit
+ * relire l'entité : réessayer avec la même copie périmée échouerait à l'identique.
+ * <p>
+ * Paramètres (préfixe {@code humanbooster.reessai.}) : {@code tentatives} (3), {@code delai_initial_ms} (20),
+ * {@code multiplicateur} (2), {@code delai_max_ms} (500). Chaque politique compte ses conflits ;
+ * {@link #toutes()} liste pour la supervision les politiques partagées, créées par {@link #depuisConfiguration(String)}.
+ */
+public final class PolitiqueReessai {
+
+    /** Politiques partagées des DAO ; celles créées directement (tests, usage ponctuel) n'y figurent pas. */
+    private static final List<PolitiqueReessai> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final String nom;
+    private final int tentativesMax;
+    private final long delaiInitialMillis;
+    private final double multiplicateur;
+    private final long delaiMaxMillis;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder conflits = new LongAdder();
+    private final LongAdder reessais = new LongAdder();
+    private final LongAdder abandons = new LongAdder();
+
+    /**
+     * @param nom                Nom de la politique (en général la table protégée), utilisé dans les métriques.
+     * @param tentativesMax      Nombre maximal de tentatives, première comprise (au moins 1).
+     * @param delaiInitialMillis Attente maximale avant la deuxième tentative.
+     * @param multiplicateur     Facteur d'augmentation de l'attente à chaque tentative.
+     * @param delaiMaxMillis     Plafond de l'attente entre deux tentatives.
+     */
+    public PolitiqueReessai(String nom, int tentativesMax, long delaiInitialMillis, double multiplicateur, long delaiMaxMillis) {
+        if (tentativesMax < 1) {
+            throw new IllegalArgumentException("tentativesMax doit être au moins 1 : " + tentativesMax);
+        }
+        this.nom = nom;
+        this.tentativesMax = tentativesMax;
+        this.delaiInitialMillis = Math.max(0, delaiInitialMillis);
+        this.multiplicateur = Math.max(1.0, multiplicateur);
+        this.delaiMaxMillis = Math.max(this.delaiInitialMillis, delaiMaxMillis);
+    }
+
+    /**
+     * Crée une politique à partir des paramètres {@code humanbooster.reessai.*} de la configuration,
+     * et l'inscrit parmi les politiques publiées pour la supervision.
+     *
+     * @param nom Nom de la politique.
+     * @return La politique configurée.
+     */
+    static PolitiqueReessai depuisConfiguration(String nom) {
+        PolitiqueReessai politique = new PolitiqueReessai(nom,
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.reessai.tentatives", 3),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.reessai.delai_initial_ms", 20),
+                GestionnaireSessionFactory.getParametreDecimal("humanbooster.reessai.multiplicateur", 2),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.reessai.delai_max_ms", 500));
+        INSTANCES.add(politique);
+        return politique;
+    }
+
+    /**
+     * @return Les politiques partagées, créées par {@link #depuisConfiguration(String)}, pour la supervision.
+     */
+    public static List<PolitiqueReessai> toutes() {
+        return List.copyOf(INSTANCES);
+    }
+
+    /**
+     * Exécute l'opération, en la rejouant si elle échoue sur un conflit de version.
+     * Les autres exceptions sont propagées immédiatement.
+     *
+     * @param operation L'opération, qui doit ouvrir sa propre session et relire les entités modifiées.
+     * @param <T>       Le type du résultat.
+     * @return Le résultat de la première tentative réussie.
+     * @throws RuntimeException l'exception de conflit de la dernière tentative si toutes ont échoué.
+     */
+    public <T> T executer(Supplier<T> operation) {
+        executions.increment();
+        for (int tentative = 1; ; tentative++) {
+            try {
+                return operation.get();
+            } catch (RuntimeException e) {
+                if (!estConflitOptimiste(e)) {
+                    throw e;
+                }
+                conflits.increment();
+                if (tentative >= tentativesMax) {
+                    abandons.increment();
+                    throw e;
+                }
+                reessais.increment();
+                attendre(plafondAttente(tentative));
+            }
+        }
+    }
+
+    /**
+     * @param tentative Le numéro de la tentative qui vient d'échouer (à partir de 1).
+     * @return L'attente maximale avant la tentative suivante : {@code delaiInitial × multiplicateur^(tentative-1)},
+     * plafonnée à {@code delaiMax}. L'attente réelle est tirée au hasard entre 0 et ce plafond.
+     */
+    long plafondAttente(int tentative) {
+        double delai = delaiInitialMillis * Math.pow(multiplicateur, tentative - 1);
+        return (long) Math.min(delaiMaxMillis, delai);
+    }
+
+    /**
+     * Comptabilise un conflit survenu hors de {@link #executer(Supplier)} (par exemple lors d'un
+     * {@code saveOrUpdate} d'une copie périmée, qui ne peut pas être rejoué).
+     */
+    void signalerConflit() {
+        executions.increment();
+        conflits.increment();
+        abandons.increment();
+    }
+
+    /**
+     * Indique si l'exception (ou l'une de ses causes) est un conflit de verrouillage optimiste.
+     *
+     * @param e L'exception à examiner.
+     * @return {@code true} en cas de conflit de version.
+     */
+    public static boolean estConflitOptimiste(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void attendre(long delaiMaxMillis) {
+        if (delaiMaxMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(delaiMaxMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réessai interrompu", e);
+        }
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    /** @return Le nombre d'opérations exécutées sous cette politique. */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /** @return Le nombre de conflits de version rencontrés (toutes tentatives confondues). */
+    public long getConflits() {
+        return conflits.sum();
+    }
+
+    /** @return Le nombre de tentatives rejouées. */
+    public long getReessais() {
+        return reessais.sum();
+    }
+
+    /** @return Le nombre d'opérations ayant échoué malgré les réessais. */
+    public long getAbandons() {
+        return abandons.sum();
+    }
+
+    /** @return Conflits par opération exécutée. */
+    public double getTauxConflit() {
+        long n = executions.sum();
+        return n == 0 ? 0.0 : (double) conflits.sum() / n;
+    }
+
+    @Override
+    public String toString() {
+        return "PolitiqueReessai [" + nom + ", exécutions=" + getExecutions() + ", conflits=" + getConflits()
+                + ", réessais=" + getReessais() + ", abandons=" + getAbandons() + "]";
+    }
+}
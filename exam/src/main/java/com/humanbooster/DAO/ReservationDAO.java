@@ -3,10 +3,14 @@ package com.humanbooster.DAO;
 import com.humanbooster.model.BorneRecharge;
 import com.humanbooster.model.Reservation;
 import com.humanbooster.model.Utilisateur;
+import com.humanbooster.dto.ReservationResume;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interface Data Access Object (DAO) pour l'entité {@link Reservation}.
@@ -24,6 +28,29 @@ public interface ReservationDAO {
      */
     void saveOrUpdate(Reservation reservation);
 
+    /**
+     * Sauvegarde ou met à jour un ensemble de réservations en une transaction, par lots JDBC, sans
+     * vérification de chevauchement (voir {@link #reserver}) : réservé aux imports et aux jeux de données.
+     * En cas d'erreur, aucune réservation n'est conservée.
+     *
+     * @param reservations Les réservations à sauvegarder ou à mettre à jour.
+     */
+    void saveAll(Collection<Reservation> reservations);
+
+    /**
+     * Applique une modification à une réservation sous verrouillage optimiste, avec réessais.
+     * L'entité est relue en base, modifiée par {@code modification} puis enregistrée dans une même
+     * transaction. Si une écriture concurrente a changé la version entre-temps, l'opération est rejouée
+     * (relecture comprise) selon la politique {@code humanbooster.reessai.*}.
+     * Exemple : {@code mettreAJour(id, r -> r.setStatut(StatutReservation.ACCEPTEE))}.
+     *
+     * @param id L'ID de l'entité à modifier.
+     * @param modification La modification à appliquer ; peut être exécutée plusieurs fois.
+     * @return L'entité telle qu'enregistrée, ou un {@code Optional} vide si elle n'existe pas
+     * ou si la modification a échoué malgré les réessais.
+     */
+    Optional<Reservation> mettreAJour(Long id, Consumer<Reservation> modification);
+
     /**
      * Recherche une réservation par son identifiant unique (ID).
      *
@@ -41,6 +68,18 @@ public interface ReservationDAO {
      */
     List<Reservation> findAll();
 
+    /**
+     * Récupère une page de réservations, triées par ID croissant (pagination par clé).
+     * Le coût d'une page ne dépend pas de sa profondeur, contrairement à un {@code OFFSET}.
+     * Pour parcourir toute la table, passer {@code null} puis l'ID du dernier élément de chaque page,
+     * jusqu'à obtenir une page vide.
+     *
+     * @param apresId L'ID du dernier élément de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal d'éléments de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Une {@link List} d'au plus {@code limite} {@link Reservation}s d'ID supérieur à {@code apresId}.
+     */
+    List<Reservation> findPage(Long apresId, int limite);
+
     /**
      * Récupère la liste de toutes les réservations effectuées par un utilisateur spécifique.
      * Les réservations associées (borne) seront chargées paresseusement par défaut.
@@ -51,6 +90,29 @@ public interface ReservationDAO {
      */
     List<Reservation> findByUtilisateur(Utilisateur utilisateur);
 
+    /**
+     * Récupère les réservations d'un utilisateur en chargeant leurs associations selon un graphe d'entités.
+     * Avec {@link Reservation#GRAPHE_BORNE_ET_LIEU} ou {@link Reservation#GRAPHE_COMPLET}, les réservations,
+     * leurs bornes et les lieux de ces bornes sont lus en une seule requête SQL, et restent accessibles
+     * après la fermeture de la session (pas de requête par ligne ni de LazyInitializationException).
+     *
+     * @param utilisateur L'{@link Utilisateur} dont on veut les réservations.
+     * @param graphe      Le nom d'un graphe d'entités de {@link Reservation}, ou {@code null} pour le chargement par défaut.
+     * @return Une {@link List} des {@link Reservation}s de l'utilisateur. Peut être vide.
+     */
+    List<Reservation> findByUtilisateur(Utilisateur utilisateur, String graphe);
+
+    /**
+     * Récupère les résumés des réservations d'un utilisateur, des plus récentes aux plus anciennes.
+     * Variante légère de {@link #findByUtilisateur(Utilisateur)} pour les écrans de liste :
+     * une seule requête lit les colonnes utiles (et l'email de l'utilisateur), sans entité gérée
+     * ni proxy de l'utilisateur ou de la borne.
+     *
+     * @param utilisateur L'{@link Utilisateur} dont on veut les réservations.
+     * @return Une {@link List} de {@link ReservationResume}s. Peut être vide.
+     */
+    List<ReservationResume> findResumesByUtilisateur(Utilisateur utilisateur);
+
     /**
      * Récupère la liste de toutes les réservations associées à une borne spécifique.
      * Les réservations associées (utilisateur) seront chargées paresseusement par défaut.
@@ -61,6 +123,40 @@ public interface ReservationDAO {
      */
     List<Reservation> findByBorne(BorneRecharge borne);
 
+    /**
+     * Récupère les réservations d'une borne en chargeant leurs associations selon un graphe d'entités.
+     *
+     * @param borne  La {@link BorneRecharge} pour laquelle rechercher les réservations.
+     * @param graphe Le nom d'un graphe d'entités de {@link Reservation}, ou {@code null} pour le chargement par défaut.
+     * @return Une {@link List} des {@link Reservation}s de cette borne. Peut être vide.
+     * @see #findByUtilisateur(Utilisateur, String)
+     */
+    List<Reservation> findByBorne(BorneRecharge borne, String graphe);
+
+    /**
+     * Parcourt toutes les réservations sans les charger en mémoire d'un seul coup.
+     * Les lignes sont lues par paquets ({@code humanbooster.flux.taille_lecture}) à l'aide d'un curseur
+     * côté serveur, et les réservations déjà traitées sont libérées au fil de la lecture : la mémoire
+     * utilisée reste constante quelle que soit la taille de la table.
+     * <p>
+     * Le flux garde une session ouverte et doit être fermé :
+     * {@code try (Stream<Reservation> reservations = dao.streamAll()) { ... }}.
+     * Les réservations sont en lecture seule ; leur utilisateur et leur borne (chargés paresseusement)
+     * doivent être lus pendant le traitement de l'élément.
+     *
+     * @return Un {@link Stream} des {@link Reservation}s, vide en cas d'erreur à l'ouverture.
+     */
+    Stream<Reservation> streamAll();
+
+    /**
+     * Variante en flux de {@link #findByBorne(BorneRecharge)}, pour les traitements de masse.
+     * Mêmes garanties et mêmes obligations que {@link #streamAll()}.
+     *
+     * @param borne La {@link BorneRecharge} pour laquelle parcourir les réservations.
+     * @return Un {@link Stream} des {@link Reservation}s de cette borne, à fermer après usage.
+     */
+    Stream<Reservation> streamByBorne(BorneRecharge borne);
+
     /**
      * Récupère la liste des réservations pour une borne donnée qui chevauchent
      * le créneau spécifié. Utile pour vérifier la disponibilité d'une borne.
@@ -74,16 +170,85 @@ public interface ReservationDAO {
     List<Reservation> findReservationsChevauchantesPourBorne(BorneRecharge borne, LocalDateTime debutInterval, LocalDateTime finInterval);
 
     /**
-     * Supprime une réservation de la base de données en utilisant son ID.
+     * Indique si la borne est libre sur le créneau spécifié, selon la même règle de chevauchement
+     * que {@link #findReservationsChevauchantesPourBorne(BorneRecharge, LocalDateTime, LocalDateTime)}.
+     * La réponse provient d'un index en mémoire (O(log n)) : la base n'est lue qu'au premier
+     * accès à une borne donnée. L'index n'est tenu à jour que par les écritures passant par les DAO.
+     *
+     * @param borne La {@link BorneRecharge} concernée.
+     * @param debutInterval La date et heure de début du créneau.
+     * @param finInterval La date et heure de fin du créneau.
+     * @return {@code true} si aucune réservation ne chevauche le créneau ; {@code false} sinon
+     * ou si les paramètres sont invalides.
+     */
+    boolean estDisponible(BorneRecharge borne, LocalDateTime debutInterval, LocalDateTime finInterval);
+
+    /**
+     * Filtre, parmi les bornes données (typiquement celles d'un lieu, obtenues par
+     * {@code BorneRechargeDAO.findByLieu}), celles qui sont dans l'état {@code DISPONIBLE} et libres
+     * sur tout le créneau. Remplace un appel à {@link #estDisponible} par borne : la réponse provient
+     * du calendrier de l'index en mémoire (un bitmap de créneaux par borne, testé mot par mot).
+     *
+     * @param bornes        Les bornes candidates.
+     * @param debutInterval La date et heure de début du créneau.
+     * @param finInterval   La date et heure de fin du créneau.
+     * @return Les bornes libres, dans l'ordre de {@code bornes} ; une liste vide si les paramètres sont invalides.
+     */
+    List<BorneRecharge> findBornesLibres(Collection<BorneRecharge> bornes, LocalDateTime debutInterval, LocalDateTime finInterval);
+
+    /**
+     * Réserve une borne de façon atomique : la vérification de chevauchement et la création
+     * de la réservation ont lieu dans une seule transaction, sous verrou exclusif
+     * ({@code PESSIMISTIC_WRITE}) de la ligne de la borne. Deux demandes concurrentes sur la
+     * même borne sont ainsi sérialisées et ne peuvent pas aboutir toutes deux à une double réservation.
+     * <p>
+     * L'attente du verrou est bornée (paramètre {@code humanbooster.reservation.delai_verrou_ms}) :
+     * au-delà, la tentative échoue avec l'issue {@code VERROU_INDISPONIBLE} au lieu de bloquer le thread.
+     * Un créneau que l'index de disponibilité donne pour pris est vérifié en base, sans verrou, avant de refuser
+     * la demande : l'index d'une instance ignore les suppressions faites par les autres.
+     *
+     * @param utilisateurId L'ID de l'utilisateur qui réserve.
+     * @param borneId L'ID de la borne à réserver.
+     * @param debut La date et heure de début du créneau.
+     * @param fin La date et heure de fin du créneau.
+     * @return Un {@link ResultatReservation} contenant l'issue et, en cas de succès, la réservation créée.
+     */
+    ResultatReservation reserver(Long utilisateurId, Long borneId, LocalDateTime debut, LocalDateTime fin);
+
+    /**
+     * Supprime une réservation de la base de données en utilisant son ID, en une instruction
+     * ({@link #deleteByIds(Collection)}).
      *
      * @param id L'ID de la réservation à supprimer.
      */
     void deleteById(Long id);
 
     /**
-     * Supprime une réservation donnée de la base de données.
+     * Supprime une réservation donnée de la base de données. Seul son ID est utilisé ; même traitement que
+     * {@link #deleteById(Long)}.
      *
      * @param reservation L'objet {@link Reservation} à supprimer.
      */
     void delete(Reservation reservation);
+
+    /**
+     * Supprime des réservations par ID sans les charger : une instruction {@code DELETE} par paquet
+     * d'au plus 1 000 IDs, dans une seule transaction. Les réservations sont retirées de l'index de disponibilité.
+     *
+     * @param ids Les IDs des réservations à supprimer ; les IDs inconnus sont ignorés.
+     * @return Le nombre de réservations supprimées, 0 en cas d'erreur (rien n'est alors supprimé).
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Purge les réservations terminées avant une date (ex : {@code purgerAvant(LocalDateTime.now().minusYears(1), 1000)}),
+     * par paquets : chaque paquet est lu puis supprimé dans sa propre transaction, de sorte que les verrous et le
+     * journal d'annulation restent bornés et que la purge d'une grosse table ne bloque pas les réservations en cours.
+     * En cas d'erreur, les paquets déjà validés restent supprimés ; la purge peut être relancée.
+     *
+     * @param limite       Les réservations dont la fin est strictement antérieure à cette date sont supprimées.
+     * @param taillePaquet Le nombre de réservations par paquet (plafonné à 1 000).
+     * @return Le nombre de réservations supprimées.
+     */
+    int purgerAvant(LocalDateTime limite, int taillePaquet);
 }
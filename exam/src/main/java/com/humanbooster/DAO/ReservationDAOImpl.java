@@ -2,18 +2,39 @@ package com.humanbooster.DAO;
 
 import com.humanbooster.DAO.ReservationDAO;
 import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
 import com.humanbooster.model.Reservation;
 import com.humanbooster.model.Utilisateur;
 import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.disponibilite.Creneau;
+import com.humanbooster.disponibilite.IndexDisponibilite;
+import com.humanbooster.dto.ReservationResume;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.CacheMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.LockAcquisitionException;
+import org.hibernate.jpa.SpecHints;
 import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.sql.Statement;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface {@link ReservationDAO} utilisant Hibernate
@@ -22,7 +43,71 @@ import java.util.Optional;
  */
 public class ReservationDAOImpl implements ReservationDAO {
 
-    private final SessionFactory sessionFactory = GestionnaireSessionFactory.getSessionFactory();
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationDAOImpl.class);
+
+    /**
+     * Index des créneaux réservés, partagé par toutes les instances du DAO (et par les autres DAO,
+     * dont les suppressions en cascade retirent des réservations). Chaque borne est lue en base
+     * au premier accès, puis tenue à jour après chaque écriture validée. Son calendrier (bitmaps de
+     * créneaux, {@code humanbooster.disponibilite.*}) répond à {@link #findBornesLibres}.
+     */
+    private static final IndexDisponibilite INDEX_DISPONIBILITE = new IndexDisponibilite(ReservationDAOImpl::chargerCreneaux,
+            GestionnaireSessionFactory.getParametreEntier("humanbooster.disponibilite.pas_minutes", 15),
+            GestionnaireSessionFactory.getParametreEntier("humanbooster.disponibilite.horizon_jours", 14),
+            Clock.systemDefaultZone());
+
+    /** Réessais des changements de statut en conflit de version (voir {@link PolitiqueReessai}). */
+    private static final PolitiqueReessai POLITIQUE_REESSAI = PolitiqueReessai.depuisConfiguration("reservations");
+
+    /**
+     * MySQL ignore le délai de verrou de JPA pour {@code SELECT ... FOR UPDATE} : l'attente y est bornée par
+     * {@code innodb_lock_wait_timeout}, fixé par {@link #reserver} sur sa seule connexion.
+     */
+    private static final boolean MYSQL = GestionnaireSessionFactory.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof MySQLDialect;
+
+    private final SessionFactory sessionFactory;
+
+    public ReservationDAOImpl() {
+        this(GestionnaireSessionFactory.getSessionFactory());
+    }
+
+    /**
+     * @param sessionFactory La SessionFactory à utiliser (les tests y simulent une panne de la base).
+     */
+    ReservationDAOImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * @return L'index de disponibilité partagé, pour que les autres DAO puissent le tenir à jour.
+     */
+    static IndexDisponibilite indexDisponibilite() {
+        return INDEX_DISPONIBILITE;
+    }
+
+    /**
+     * Lit en base les créneaux de toutes les réservations d'une borne (projection, sans entités).
+     */
+    private static List<Creneau> chargerCreneaux(Long borneId) {
+        try (Session session = GestionnaireSessionFactory.getSessionFactory().openSession()) {
+            return session.createQuery(
+                    "SELECT new com.humanbooster.disponibilite.Creneau(r.id, r.dateDebut, r.dateFin) FROM Reservation r WHERE r.borne.id = :borneId",
+                    Creneau.class)
+                    .setParameter("borneId", borneId)
+                    .list();
+        }
+    }
+
+    /**
+     * Reporte dans l'index une réservation dont l'écriture vient d'être validée.
+     */
+    private static void indexer(Reservation reservation) {
+        if (reservation.getId() != null && reservation.getBorne() != null && reservation.getBorne().getId() != null) {
+            INDEX_DISPONIBILITE.enregistrer(reservation.getBorne().getId(),
+                    new Creneau(reservation.getId(), reservation.getDateDebut(), reservation.getDateFin()));
+        }
+    }
 
     @Override
     public void saveOrUpdate(Reservation reservation) {
@@ -31,13 +116,60 @@ public class ReservationDAOImpl implements ReservationDAO {
             transaction = session.beginTransaction();
             session.saveOrUpdate(reservation);
             transaction.commit();
-            System.out.println("Réservation (ID: " + reservation.getId() + ") sauvegardée/mise à jour.");
+            indexer(reservation);
+            LOGGER.debug("Réservation (ID: {}) sauvegardée/mise à jour.", reservation.getId());
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            System.err.println("Erreur lors de la sauvegarde/mise à jour de la réservation ID " + (reservation != null ? reservation.getId() : "null") + ": " + e.getMessage());
-            e.printStackTrace();
+            if (PolitiqueReessai.estConflitOptimiste(e)) {
+                POLITIQUE_REESSAI.signalerConflit();
+            }
+            LOGGER.error("Erreur lors de la sauvegarde/mise à jour de la réservation ID {}", (reservation != null ? reservation.getId() : "null"), e);
+            EchecsDao.signaler();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Reservation> reservations) {
+        if (TraitementParLots.enregistrerTout(sessionFactory, reservations, "réservations")) {
+            reservations.forEach(ReservationDAOImpl::indexer);
+        }
+    }
+
+    // Chaque tentative relit la réservation en base (CacheMode.REFRESH) avant d'appliquer la modification.
+    @Override
+    public Optional<Reservation> mettreAJour(Long id, Consumer<Reservation> modification) {
+        if (id == null || modification == null) {
+            LOGGER.warn("ID et modification requis pour mettre à jour la réservation.");
+            return Optional.empty();
+        }
+        try {
+            return POLITIQUE_REESSAI.executer(() -> {
+                Transaction transaction = null;
+                try (Session session = sessionFactory.openSession()) {
+                    session.setCacheMode(CacheMode.REFRESH);
+                    transaction = session.beginTransaction();
+                    Reservation reservation = session.get(Reservation.class, id);
+                    if (reservation == null) {
+                        transaction.rollback();
+                        return Optional.<Reservation>empty();
+                    }
+                    modification.accept(reservation);
+                    transaction.commit();
+                    indexer(reservation);
+                    return Optional.of(reservation);
+                } catch (RuntimeException e) {
+                    if (transaction != null && transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw e;
+                }
+            });
+        } catch (Exception e) {
+            LOGGER.error("Échec de la mise à jour de la réservation ID {}", id, e);
+            EchecsDao.signaler();
+            return Optional.empty();
         }
     }
 
@@ -47,8 +179,8 @@ public class ReservationDAOImpl implements ReservationDAO {
             Reservation reservation = session.get(Reservation.class, id);
             return Optional.ofNullable(reservation);
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche de la réservation par ID " + id + ": " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche de la réservation par ID {}", id, e);
+            EchecsDao.signaler();
             return Optional.empty();
         }
     }
@@ -58,26 +190,69 @@ public class ReservationDAOImpl implements ReservationDAO {
         try (Session session = sessionFactory.openSession()) {
             return session.createQuery("FROM Reservation", Reservation.class).list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la récupération de toutes les réservations: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la récupération de toutes les réservations", e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public List<Reservation> findPage(Long apresId, int limite) {
+        return PaginationParCle.page(sessionFactory, Reservation.class, apresId, limite, "réservations");
+    }
+
     @Override
     public List<Reservation> findByUtilisateur(Utilisateur utilisateur) {
         if (utilisateur == null || utilisateur.getId() == null) {
-            System.err.println("Utilisateur ou ID utilisateur null pour findByUtilisateur.");
+            LOGGER.warn("Utilisateur ou ID utilisateur null pour findByUtilisateur.");
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Query<Reservation> query = session.createQuery(
+                    "FROM Reservation r WHERE r.utilisateur.id = :utilisateurId", Reservation.class);
+            query.setParameter("utilisateurId", utilisateur.getId());
+            return query.list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des réservations pour l'utilisateur ID {}", utilisateur.getId(), e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<Reservation> findByUtilisateur(Utilisateur utilisateur, String graphe) {
+        if (utilisateur == null || utilisateur.getId() == null) {
+            LOGGER.warn("Utilisateur ou ID utilisateur null pour findByUtilisateur.");
             return new ArrayList<>();
         }
         try (Session session = sessionFactory.openSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation r WHERE r.utilisateur.id = :utilisateurId", Reservation.class);
             query.setParameter("utilisateurId", utilisateur.getId());
+            appliquerGraphe(session, query, graphe);
+            return query.list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des réservations (graphe {}) pour l'utilisateur ID {}", graphe, utilisateur.getId(), e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<ReservationResume> findResumesByUtilisateur(Utilisateur utilisateur) {
+        if (utilisateur == null || utilisateur.getId() == null) {
+            LOGGER.warn("Utilisateur ou ID utilisateur null pour findResumesByUtilisateur.");
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Query<ReservationResume> query = session.createQuery(
+                    "SELECT new com.humanbooster.dto.ReservationResume(r.id, r.dateDebut, r.dateFin, r.statut, u.id, u.email, r.borne.id) " +
+                    "FROM Reservation r JOIN r.utilisateur u WHERE u.id = :utilisateurId ORDER BY r.dateDebut DESC", ReservationResume.class);
+            query.setParameter("utilisateurId", utilisateur.getId());
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des réservations pour l'utilisateur ID " + utilisateur.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des résumés de réservations pour l'utilisateur ID {}", utilisateur.getId(), e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
@@ -85,7 +260,7 @@ public class ReservationDAOImpl implements ReservationDAO {
     @Override
     public List<Reservation> findByBorne(BorneRecharge borne) {
         if (borne == null || borne.getId() == null) {
-            System.err.println("Borne ou ID borne null pour findByBorne.");
+            LOGGER.warn("Borne ou ID borne null pour findByBorne.");
             return new ArrayList<>();
         }
         try (Session session = sessionFactory.openSession()) {
@@ -94,16 +269,57 @@ public class ReservationDAOImpl implements ReservationDAO {
             query.setParameter("borneId", borne.getId());
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des réservations pour la borne ID " + borne.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des réservations pour la borne ID {}", borne.getId(), e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public List<Reservation> findByBorne(BorneRecharge borne, String graphe) {
+        if (borne == null || borne.getId() == null) {
+            LOGGER.warn("Borne ou ID borne null pour findByBorne.");
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Query<Reservation> query = session.createQuery(
+                    "FROM Reservation r WHERE r.borne.id = :borneId", Reservation.class);
+            query.setParameter("borneId", borne.getId());
+            appliquerGraphe(session, query, graphe);
+            return query.list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des réservations (graphe {}) pour la borne ID {}", graphe, borne.getId(), e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    // Graphe de chargement (fetch graph) : les attributs du graphe sont joints dans la requête elle-même.
+    private static void appliquerGraphe(Session session, Query<Reservation> query, String graphe) {
+        if (graphe != null) {
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(graphe));
+        }
+    }
+
+    @Override
+    public Stream<Reservation> streamAll() {
+        return LectureEnFlux.flux(sessionFactory, "FROM Reservation", Reservation.class, Map.of(), "réservations");
+    }
+
+    @Override
+    public Stream<Reservation> streamByBorne(BorneRecharge borne) {
+        if (borne == null || borne.getId() == null) {
+            LOGGER.warn("Borne ou ID borne null pour streamByBorne.");
+            return Stream.empty();
+        }
+        return LectureEnFlux.flux(sessionFactory, "FROM Reservation r WHERE r.borne.id = :borneId",
+                Reservation.class, Map.of("borneId", borne.getId()), "réservations");
+    }
+
     @Override
     public List<Reservation> findReservationsChevauchantesPourBorne(BorneRecharge borne, LocalDateTime debutInterval, LocalDateTime finInterval) {
         if (borne == null || borne.getId() == null || debutInterval == null || finInterval == null || !finInterval.isAfter(debutInterval)) {
-            System.err.println("Paramètres invalides pour findReservationsChevauchantesPourBorne.");
+            LOGGER.warn("Paramètres invalides pour findReservationsChevauchantesPourBorne.");
             return new ArrayList<>();
         }
         try (Session session = sessionFactory.openSession()) {
@@ -116,49 +332,247 @@ public class ReservationDAOImpl implements ReservationDAO {
             query.setParameter("debutInterval", debutInterval);
             return query.list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche des réservations chevauchantes pour la borne ID " + borne.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche des réservations chevauchantes pour la borne ID {}", borne.getId(), e);
+            EchecsDao.signaler();
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public boolean estDisponible(BorneRecharge borne, LocalDateTime debutInterval, LocalDateTime finInterval) {
+        if (borne == null || borne.getId() == null || debutInterval == null || finInterval == null || !finInterval.isAfter(debutInterval)) {
+            LOGGER.warn("Paramètres invalides pour estDisponible.");
+            return false;
+        }
+        try {
+            return INDEX_DISPONIBILITE.estLibre(borne.getId(), debutInterval, finInterval);
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la vérification de disponibilité de la borne ID {}", borne.getId(), e);
+            EchecsDao.signaler();
+            return false;
+        }
+    }
 
+    @Override
+    public List<BorneRecharge> findBornesLibres(Collection<BorneRecharge> bornes, LocalDateTime debutInterval, LocalDateTime finInterval) {
+        if (bornes == null || debutInterval == null || finInterval == null || !finInterval.isAfter(debutInterval)) {
+            LOGGER.warn("Paramètres invalides pour findBornesLibres.");
+            return new ArrayList<>();
+        }
+        try {
+            Map<Long, BorneRecharge> candidates = new LinkedHashMap<>();
+            for (BorneRecharge borne : bornes) {
+                if (borne != null && borne.getId() != null && borne.getEtatBorne() == EtatBorne.DISPONIBLE) {
+                    candidates.put(borne.getId(), borne);
+                }
+            }
+            List<BorneRecharge> libres = new ArrayList<>();
+            for (Long borneId : INDEX_DISPONIBILITE.bornesLibres(candidates.keySet(), debutInterval, finInterval)) {
+                libres.add(candidates.get(borneId));
+            }
+            return libres;
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la recherche des bornes libres du {} au {}", debutInterval, finInterval, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
 
+    @Override
+    public ResultatReservation reserver(Long utilisateurId, Long borneId, LocalDateTime debut, LocalDateTime fin) {
+        if (utilisateurId == null || borneId == null || debut == null || fin == null || !fin.isAfter(debut)) {
+            LOGGER.warn("Paramètres invalides pour reserver.");
+            return ResultatReservation.echec(ResultatReservation.Issue.INVALIDE);
+        }
+        // Pré-contrôle sans verrou : l'index n'est qu'une indication, un conflit y est confirmé en base
+        boolean libreSelonIndex = INDEX_DISPONIBILITE.estLibre(borneId, debut, fin);
+        int delaiVerrouMillis = GestionnaireSessionFactory.getParametreEntier("humanbooster.reservation.delai_verrou_ms", 3000);
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            if (!libreSelonIndex) {
+                if (compterChevauchements(session, borneId, debut, fin) > 0) {
+                    transaction.rollback();
+                    return ResultatReservation.echec(ResultatReservation.Issue.CONFLIT);
+                }
+                // Réservation supprimée hors de l'index (autre instance, purge) : la borne sera relue en base
+                INDEX_DISPONIBILITE.invaliderBorne(borneId);
+            }
+            fixerAttenteVerrouMysql(session, String.valueOf(Math.max(1, (delaiVerrouMillis + 999) / 1000)));
+            try {
+                BorneRecharge borne = session.find(BorneRecharge.class, borneId, LockModeType.PESSIMISTIC_WRITE,
+                        Map.of("jakarta.persistence.lock.timeout", delaiVerrouMillis));
+                Utilisateur utilisateur = borne != null ? session.find(Utilisateur.class, utilisateurId) : null;
+                if (borne == null || utilisateur == null) {
+                    annuler(session, transaction);
+                    return ResultatReservation.echec(ResultatReservation.Issue.INTROUVABLE);
+                }
+                if (borne.getEtatBorne() != EtatBorne.DISPONIBLE) {
+                    annuler(session, transaction);
+                    return ResultatReservation.echec(ResultatReservation.Issue.BORNE_INDISPONIBLE);
+                }
+                if (compterChevauchements(session, borneId, debut, fin) > 0) {
+                    annuler(session, transaction);
+                    if (libreSelonIndex) {
+                        // Réservation créée hors de l'index (autre instance) : la borne sera relue en base
+                        INDEX_DISPONIBILITE.invaliderBorne(borneId);
+                    }
+                    return ResultatReservation.echec(ResultatReservation.Issue.CONFLIT);
+                }
+                Reservation reservation = new Reservation(debut, fin, utilisateur, borne);
+                session.persist(reservation);
+                session.flush();
+                // Délai par défaut rétabli sur la connexion de la transaction, avant qu'elle ne soit rendue au pool
+                fixerAttenteVerrouMysql(session, "DEFAULT");
+                transaction.commit();
+                indexer(reservation);
+                LOGGER.debug("Réservation (ID: {}) créée pour la borne ID {}.", reservation.getId(), borneId);
+                return ResultatReservation.reservee(reservation);
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    annuler(session, transaction);
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (estEchecVerrou(e)) {
+                LOGGER.warn("Verrou de la borne ID {} non obtenu dans le délai de {} ms.", borneId, delaiVerrouMillis);
+                return ResultatReservation.echec(ResultatReservation.Issue.VERROU_INDISPONIBLE);
+            }
+            LOGGER.error("Erreur lors de la réservation de la borne ID {}", borneId, e);
+            EchecsDao.signaler();
+            return ResultatReservation.echec(ResultatReservation.Issue.ERREUR);
+        }
+    }
+
+    /**
+     * Compte en base les réservations de la borne qui chevauchent {@code [debut, fin[}.
+     */
+    private static long compterChevauchements(Session session, Long borneId, LocalDateTime debut, LocalDateTime fin) {
+        return session.createQuery(
+                "SELECT count(r) FROM Reservation r WHERE r.borne.id = :borneId AND r.dateDebut < :finInterval AND r.dateFin > :debutInterval",
+                Long.class)
+                .setParameter("borneId", borneId)
+                .setParameter("finInterval", fin)
+                .setParameter("debutInterval", debut)
+                .uniqueResult();
+    }
+
+    /**
+     * Rétablit le délai de verrou par défaut puis annule la transaction : la connexion, encore celle de la
+     * transaction, est rendue au pool sans le délai court de {@link #reserver}.
+     */
+    private static void annuler(Session session, Transaction transaction) {
+        fixerAttenteVerrouMysql(session, "DEFAULT");
+        transaction.rollback();
+    }
+
+    /**
+     * Fixe {@code innodb_lock_wait_timeout} (en secondes, ou {@code DEFAULT}) sur la connexion de la session.
+     * Sans effet hors MySQL ; un échec est journalisé sans interrompre la réservation.
+     */
+    private static void fixerAttenteVerrouMysql(Session session, String valeur) {
+        if (!MYSQL) {
+            return;
+        }
+        try {
+            session.doWork(connexion -> {
+                try (Statement statement = connexion.createStatement()) {
+                    statement.execute("SET SESSION innodb_lock_wait_timeout = " + valeur);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("innodb_lock_wait_timeout non fixé à {} : {}", valeur, e.getMessage());
+        }
+    }
+
+    /**
+     * Indique si l'exception (ou l'une de ses causes) signale un verrou non obtenu à temps.
+     */
+    private static boolean estEchecVerrou(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LockTimeoutException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof org.hibernate.PessimisticLockException
+                    || cause instanceof LockAcquisitionException) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     public void deleteById(Long id) {
-        Optional<Reservation> reservationOpt = findById(id);
-        if (reservationOpt.isPresent()) {
-            delete(reservationOpt.get());
-        } else {
-            System.err.println("Réservation non trouvée pour suppression (ID : " + id + ")");
+        if (id == null || deleteByIds(List.of(id)) == 0) {
+            LOGGER.warn("Réservation non trouvée pour suppression (ID : {})", id);
         }
     }
 
     @Override
     public void delete(Reservation reservation) {
         if (reservation == null || reservation.getId() == null) {
-            System.err.println("Impossible de supprimer une réservation null ou sans ID.");
+            LOGGER.warn("Impossible de supprimer une réservation null ou sans ID.");
             return;
         }
+        deleteById(reservation.getId());
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        OperationsEnMasse.Suppression suppression = OperationsEnMasse.supprimer(sessionFactory, Reservation.class, ids, null, "réservations");
+        if (suppression.supprimees() > 0) {
+            OperationsEnMasse.distincts(ids).forEach(INDEX_DISPONIBILITE::retirer);
+        }
+        return suppression.supprimees();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les paquets sont repérés par clé ({@code r.id > dernier ID du paquet précédent}) : la table n'est parcourue
+     * qu'une fois dans l'ordre de la clé primaire, quel que soit le nombre de paquets.
+     */
+    @Override
+    public int purgerAvant(LocalDateTime limite, int taillePaquet) {
+        if (limite == null || taillePaquet <= 0) {
+            LOGGER.warn("Paramètres invalides pour purgerAvant : limite={}, taillePaquet={}", limite, taillePaquet);
+            return 0;
+        }
+        int paquet = Math.min(taillePaquet, OperationsEnMasse.TAILLE_PAQUET_IN);
+        int supprimees = 0;
+        long dernierId = Long.MIN_VALUE;
         Transaction transaction = null;
         try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            Reservation reservationASupprimer = session.get(Reservation.class, reservation.getId());
-            if (reservationASupprimer != null) {
-                session.delete(reservationASupprimer);
+            while (true) {
+                transaction = session.beginTransaction();
+                List<Long> ids = session.createQuery(
+                        "SELECT r.id FROM Reservation r WHERE r.id > :dernierId AND r.dateFin < :limite ORDER BY r.id", Long.class)
+                        .setParameter("dernierId", dernierId)
+                        .setParameter("limite", limite)
+                        .setMaxResults(paquet)
+                        .list();
+                if (ids.isEmpty()) {
+                    transaction.commit();
+                    break;
+                }
+                supprimees += session.createMutationQuery("DELETE FROM Reservation r WHERE r.id IN :ids")
+                        .setParameterList("ids", ids)
+                        .executeUpdate();
                 transaction.commit();
-                System.out.println("Réservation (ID: " + reservationASupprimer.getId() + ") supprimée.");
-            } else {
-                if(transaction.isActive()) transaction.rollback();
-                System.err.println("Réservation non trouvée pour suppression (ID : " + reservation.getId() + ")");
+                ids.forEach(INDEX_DISPONIBILITE::retirer);
+                dernierId = ids.get(ids.size() - 1);
             }
+            LOGGER.info("{} réservation(s) terminée(s) avant le {} purgée(s)", supprimees, limite);
+            return supprimees;
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            System.err.println("Erreur lors de la suppression de la réservation ID " + reservation.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Purge des réservations terminées avant le {} interrompue après {} suppression(s)", limite, supprimees, e);
+            EchecsDao.signaler();
+            return supprimees;
         }
     }
 }
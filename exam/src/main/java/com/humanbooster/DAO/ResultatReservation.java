@@ -0,0 +1,47 @@
+package com.humanbooster.DAO;
+
+import com.humanbooster.model.Reservation;
+
+/**
+ * Résultat d'une tentative de réservation atomique ({@link ReservationDAO#reserver}).
+ *
+ * @param issue       L'issue de la tentative.
+ * @param reservation La réservation créée si {@code issue == RESERVEE}, {@code null} sinon.
+ */
+public record ResultatReservation(Issue issue, Reservation reservation) {
+
+    /**
+     * Issues possibles d'une tentative de réservation.
+     */
+    public enum Issue {
+        /** Le créneau était libre : la réservation a été créée (statut EN_ATTENTE). */
+        RESERVEE,
+        /** Une réservation existante chevauche le créneau demandé. */
+        CONFLIT,
+        /** La borne n'est pas dans l'état DISPONIBLE. */
+        BORNE_INDISPONIBLE,
+        /** L'utilisateur ou la borne n'existe pas. */
+        INTROUVABLE,
+        /** Le verrou de la borne n'a pas pu être obtenu dans le délai imparti (borne très sollicitée). */
+        VERROU_INDISPONIBLE,
+        /** Paramètres manquants ou créneau vide. */
+        INVALIDE,
+        /** Erreur technique inattendue. */
+        ERREUR
+    }
+
+    static ResultatReservation reservee(Reservation reservation) {
+        return new ResultatReservation(Issue.RESERVEE, reservation);
+    }
+
+    static ResultatReservation echec(Issue issue) {
+        return new ResultatReservation(issue, null);
+    }
+
+    /**
+     * @return {@code true} si la réservation a été créée.
+     */
+    public boolean estReservee() {
+        return issue == Issue.RESERVEE;
+    }
+}
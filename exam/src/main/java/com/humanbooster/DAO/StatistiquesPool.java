@@ -0,0 +1,34 @@
+package com.humanbooster.DAO;
+
+import java.util.Locale;
+
+/**
+ * Photographie instantanée de l'état du pool de connexions.
+ * Obtenue via {@link GestionnaireSessionFactory#getStatistiquesPool()}.
+ *
+ * @param connexionsActives        Connexions actuellement empruntées par une session.
+ * @param connexionsInactives      Connexions ouvertes et disponibles dans le pool.
+ * @param connexionsTotales        Nombre total de connexions ouvertes.
+ * @param threadsEnAttente         Threads bloqués en attente d'une connexion.
+ * @param nombreAcquisitions       Nombre de connexions obtenues depuis le démarrage.
+ * @param acquisitionMoyenneMillis Temps moyen d'attente d'une connexion (ms).
+ * @param acquisitionMaxMillis     Temps d'attente maximal observé (ms).
+ * @param nombreExpirations        Demandes ayant échoué faute de connexion dans le délai imparti.
+ */
+public record StatistiquesPool(int connexionsActives,
+                               int connexionsInactives,
+                               int connexionsTotales,
+                               int threadsEnAttente,
+                               long nombreAcquisitions,
+                               double acquisitionMoyenneMillis,
+                               double acquisitionMaxMillis,
+                               long nombreExpirations) {
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Pool [actives=%d, inactives=%d, totales=%d, en attente=%d, acquisitions=%d, attente moy.=%.3f ms, attente max=%.3f ms, expirations=%d]",
+                connexionsActives, connexionsInactives, connexionsTotales, threadsEnAttente,
+                nombreAcquisitions, acquisitionMoyenneMillis, acquisitionMaxMillis, nombreExpirations);
+    }
+}
@@ -0,0 +1,28 @@
+package com.humanbooster.DAO;
+
+/**
+ * Compteurs d'une région du cache de second niveau.
+ * Obtenus via {@link GestionnaireSessionFactory#getStatistiquesCache()}.
+ *
+ * @param region            Nom de la région (voir hibernate.cfg.xml et ehcache.xml).
+ * @param succes            Lectures servies par le cache.
+ * @param echecs            Lectures absentes du cache, donc faites en base.
+ * @param insertions        Entrées ajoutées au cache.
+ * @param evictions         Entrées évincées par Ehcache (taille maximale atteinte), -1 si inconnu.
+ * @param elementsEnMemoire Nombre d'entrées actuellement en mémoire, -1 si inconnu.
+ */
+public record StatistiquesRegionCache(String region,
+                                      long succes,
+                                      long echecs,
+                                      long insertions,
+                                      long evictions,
+                                      long elementsEnMemoire) {
+
+    /**
+     * @return La proportion de lectures servies par le cache, entre 0 et 1.
+     */
+    public double tauxSucces() {
+        long total = succes + echecs;
+        return total == 0 ? 0.0 : (double) succes / total;
+    }
+}
@@ -0,0 +1,91 @@
+package com.humanbooster.DAO;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collecteur des temps d'acquisition de connexions du pool HikariCP.
+ * HikariCP instancie cette classe à partir de son nom (propriété
+ * {@code hibernate.hikari.metricsTrackerFactory} de hibernate.cfg.xml) ;
+ * les compteurs sont donc statiques et partagés par tous les pools de la JVM.
+ * Les compteurs reposent sur {@link LongAdder} pour ne pas créer de contention
+ * sur le chemin critique d'obtention d'une connexion.
+ */
+public class SuiviAcquisitionConnexions implements MetricsTrackerFactory {
+
+    private static final LongAdder nombreAcquisitions = new LongAdder();
+    private static final LongAdder dureeTotaleAcquisitionNanos = new LongAdder();
+    private static final LongAccumulator dureeMaxAcquisitionNanos = new LongAccumulator(Math::max, 0L);
+    private static final LongAdder nombreUtilisations = new LongAdder();
+    private static final LongAdder dureeTotaleUtilisationMillis = new LongAdder();
+    private static final LongAdder nombreExpirations = new LongAdder();
+
+    /**
+     * Constructeur public sans argument requis par HikariCP.
+     */
+    public SuiviAcquisitionConnexions() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                nombreAcquisitions.increment();
+                dureeTotaleAcquisitionNanos.add(elapsedAcquiredNanos);
+                dureeMaxAcquisitionNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                nombreUtilisations.increment();
+                dureeTotaleUtilisationMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                nombreExpirations.increment();
+            }
+        };
+    }
+
+    /** @return Le nombre de connexions obtenues depuis le démarrage. */
+    public static long getNombreAcquisitions() {
+        return nombreAcquisitions.sum();
+    }
+
+    /** @return Le temps moyen d'attente d'une connexion, en millisecondes. */
+    public static double getDureeMoyenneAcquisitionMillis() {
+        long nombre = nombreAcquisitions.sum();
+        return nombre == 0 ? 0.0 : (double) dureeTotaleAcquisitionNanos.sum() / nombre / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return Le temps d'attente le plus long observé pour obtenir une connexion, en millisecondes. */
+    public static double getDureeMaxAcquisitionMillis() {
+        return (double) dureeMaxAcquisitionNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return Le temps total passé à attendre des connexions, en millisecondes. */
+    public static double getDureeTotaleAcquisitionMillis() {
+        return (double) dureeTotaleAcquisitionNanos.sum() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return La durée moyenne pendant laquelle une connexion reste empruntée, en millisecondes. */
+    public static double getDureeMoyenneUtilisationMillis() {
+        long nombre = nombreUtilisations.sum();
+        return nombre == 0 ? 0.0 : (double) dureeTotaleUtilisationMillis.sum() / nombre;
+    }
+
+    /** @return Le nombre de demandes de connexion ayant dépassé {@code connectionTimeout}. */
+    public static long getNombreExpirations() {
+        return nombreExpirations.sum();
+    }
+}
@@ -0,0 +1,424 @@
+package com.humanbooster.DAO;
+
+import com.humanbooster.model.EtatBorne;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Tampon d'écriture différée des états de bornes, pour les signalements fréquents des bornes physiques
+ * (un état toutes les quelques secondes par borne).
+ * <p>
+ * {@link #signaler(Long, EtatBorne)} ne touche pas la base : seul le dernier état de chaque borne est conservé,
+ * un signalement remplaçant celui qui n'a pas encore été écrit (coalescence). Un thread dédié vide le tampon
+ * toutes les {@code intervalleMillis}, ou dès que {@code seuil} bornes sont en attente, par des
+ * {@link BorneRechargeDAO#updateEtat(java.util.Collection, EtatBorne)} groupés par état : quelques {@code UPDATE}
+ * par vidage quel que soit le nombre de signalements, et seules les bornes dont l'état change sont modifiées.
+ * Le dernier état écrit de chaque borne est retenu pendant {@code validiteMillis} : un signalement identique
+ * (battement de cœur d'une borne dont l'état n'a pas changé) n'est pas mis en attente. Un vidage sans changement
+ * n'envoie donc aucun {@code UPDATE} et n'invalide aucun cache ; passé ce délai, l'état est réécrit au signalement
+ * suivant, ce qui corrige une modification faite entre-temps par un autre chemin.
+ * <p>
+ * Contre-pression : au plus {@code capacite} bornes distinctes sont en attente. Au-delà, {@code signaler} déclenche
+ * un vidage et attend une place au plus {@code attenteMaxMillis}, puis rejette le signalement (la borne renverra
+ * son état au signalement suivant). Les états d'une écriture en échec sont remis en attente, sauf pour les bornes
+ * signalées depuis (le signalement le plus récent l'emporte), et réécrits au vidage suivant. Le tampon est vidé à l'arrêt ({@link GestionnaireSessionFactory#shutdown()}).
+ * <p>
+ * Paramètres (préfixe {@code humanbooster.tampon_etats.}) : {@code intervalle_ms} (1000), {@code seuil} (500),
+ * {@code capacite} (10000), {@code attente_max_ms} (100), {@code validite_ms} (60000). Les compteurs sont publiés en JMX et sur {@code /metrics} ;
+ * {@link #tous()} liste les tampons pour la supervision.
+ */
+public final class TamponEtatsBornes implements TamponEtatsBornesMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TamponEtatsBornes.class);
+
+    private static final List<TamponEtatsBornes> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final String nom;
+    private final BorneRechargeDAO borneRechargeDao;
+    private final int seuil;
+    private final long attenteMaxMillis;
+    private final long validiteNanos;
+
+    /** Dernier état signalé de chaque borne, pas encore écrit. */
+    private final Map<Long, EtatBorne> enAttente = new ConcurrentHashMap<>();
+    /** Dernier état écrit de chaque borne, avec l'instant de l'écriture ({@link System#nanoTime()}). */
+    private final Map<Long, EtatEcrit> derniersEcrits = new ConcurrentHashMap<>();
+    /** Places libres du tampon : une par borne distincte en attente. */
+    private final Semaphore places;
+    private final ScheduledExecutorService executeur;
+    private final AtomicBoolean vidageDemande = new AtomicBoolean();
+    private volatile boolean ferme;
+
+    private final LongAdder recus = new LongAdder();
+    private final LongAdder coalesces = new LongAdder();
+    private final LongAdder rejetes = new LongAdder();
+    private final LongAdder envoyes = new LongAdder();
+    private final LongAdder modifies = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder vidages = new LongAdder();
+
+    private record EtatEcrit(EtatBorne etat, long instant) {
+    }
+
+    /**
+     * Crée le tampon et démarre son thread de vidage.
+     *
+     * @param nom              Nom du tampon, utilisé dans les métriques.
+     * @param borneRechargeDao Le DAO qui écrit les états.
+     * @param intervalleMillis Délai entre deux vidages périodiques.
+     * @param seuil            Nombre de bornes en attente qui déclenche un vidage immédiat.
+     * @param capacite         Nombre maximal de bornes distinctes en attente.
+     * @param attenteMaxMillis Attente maximale d'une place quand le tampon est plein, 0 pour rejeter aussitôt.
+     */
+    public TamponEtatsBornes(String nom, BorneRechargeDAO borneRechargeDao, long intervalleMillis, int seuil, int capacite, long attenteMaxMillis) {
+        this(nom, borneRechargeDao, intervalleMillis, seuil, capacite, attenteMaxMillis, 60_000);
+    }
+
+    /**
+     * Crée le tampon et démarre son thread de vidage.
+     *
+     * @param nom              Nom du tampon, utilisé dans les métriques.
+     * @param borneRechargeDao Le DAO qui écrit les états.
+     * @param intervalleMillis Délai entre deux vidages périodiques.
+     * @param seuil            Nombre de bornes en attente qui déclenche un vidage immédiat.
+     * @param capacite         Nombre maximal de bornes distinctes en attente.
+     * @param attenteMaxMillis Attente maximale d'une place quand le tampon est plein, 0 pour rejeter aussitôt.
+     * @param validiteMillis   Durée pendant laquelle un signalement identique au dernier état écrit est ignoré,
+     *                         0 pour tout écrire.
+     */
+    public TamponEtatsBornes(String nom, BorneRechargeDAO borneRechargeDao, long intervalleMillis, int seuil, int capacite,
+                             long attenteMaxMillis, long validiteMillis) {
+        if (intervalleMillis <= 0 || seuil < 1 || capacite < 1) {
+            throw new IllegalArgumentException("Tampon d'états invalide : intervalle=" + intervalleMillis
+                    + " ms, seuil=" + seuil + ", capacité=" + capacite);
+        }
+        this.nom = nom;
+        this.borneRechargeDao = borneRechargeDao;
+        this.seuil = Math.min(seuil, capacite);
+        this.attenteMaxMillis = Math.max(0, attenteMaxMillis);
+        this.validiteNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, validiteMillis));
+        this.places = new Semaphore(capacite);
+        this.executeur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "tampon-etats-" + nom);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executeur.scheduleWithFixedDelay(this::viderSansErreur, intervalleMillis, intervalleMillis, TimeUnit.MILLISECONDS);
+        INSTANCES.add(this);
+        publierJmx();
+    }
+
+    /**
+     * Crée un tampon à partir des paramètres {@code humanbooster.tampon_etats.*} de la configuration.
+     *
+     * @param nom              Nom du tampon.
+     * @param borneRechargeDao Le DAO qui écrit les états.
+     * @return Le tampon démarré.
+     */
+    public static TamponEtatsBornes depuisConfiguration(String nom, BorneRechargeDAO borneRechargeDao) {
+        return new TamponEtatsBornes(nom, borneRechargeDao,
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.tampon_etats.intervalle_ms", 1000),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.tampon_etats.seuil", 500),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.tampon_etats.capacite", 10_000),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.tampon_etats.attente_max_ms", 100),
+                GestionnaireSessionFactory.getParametreEntier("humanbooster.tampon_etats.validite_ms", 60_000));
+    }
+
+    /**
+     * @return Tous les tampons créés, pour la supervision.
+     */
+    public static List<TamponEtatsBornes> tous() {
+        return List.copyOf(INSTANCES);
+    }
+
+    /**
+     * Ferme tous les tampons en écrivant les états en attente. Appelé par {@link GestionnaireSessionFactory#shutdown()}.
+     */
+    static void fermerTous() {
+        for (TamponEtatsBornes tampon : INSTANCES) {
+            tampon.fermer();
+        }
+    }
+
+    /**
+     * Enregistre le dernier état signalé par une borne, sans attendre son écriture.
+     *
+     * @param borneId L'ID de la borne.
+     * @param etat    L'état signalé.
+     * @return {@code true} si l'état sera écrit ou l'est déjà, {@code false} s'il est rejeté (tampon plein ou fermé, paramètre null).
+     */
+    public boolean signaler(Long borneId, EtatBorne etat) {
+        recus.increment();
+        if (borneId == null || etat == null || ferme) {
+            rejetes.increment();
+            return false;
+        }
+        if (enAttente.replace(borneId, etat) != null || dejaEcrit(borneId, etat)) {
+            coalesces.increment();
+            return true;
+        }
+        if (!places.tryAcquire()) {
+            demanderVidage();
+            try {
+                if (!places.tryAcquire(attenteMaxMillis, TimeUnit.MILLISECONDS)) {
+                    rejetes.increment();
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejetes.increment();
+                return false;
+            }
+        }
+        if (enAttente.put(borneId, etat) != null) {
+            // Autre signalement de la même borne arrivé entre-temps : une seule place est nécessaire
+            places.release();
+            coalesces.increment();
+        }
+        if (enAttente.size() >= seuil) {
+            demanderVidage();
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} si {@code etat} est le dernier état écrit de la borne, écrit depuis moins de {@code validiteMillis}.
+     */
+    private boolean dejaEcrit(Long borneId, EtatBorne etat) {
+        EtatEcrit ecrit = derniersEcrits.get(borneId);
+        return ecrit != null && ecrit.etat() == etat && System.nanoTime() - ecrit.instant() < validiteNanos;
+    }
+
+    /**
+     * Écrit immédiatement les états en attente, groupés par état.
+     *
+     * @return Le nombre de bornes dont l'état a réellement changé en base.
+     */
+    public synchronized int vider() {
+        vidageDemande.set(false);
+        Map<EtatBorne, List<Long>> parEtat = new EnumMap<>(EtatBorne.class);
+        for (Long borneId : List.copyOf(enAttente.keySet())) {
+            EtatBorne etat = enAttente.remove(borneId);
+            if (etat != null) {
+                places.release();
+                // Écriture en cours : les signalements reçus d'ici là ne sont pas comparés à l'état précédent
+                derniersEcrits.remove(borneId);
+                parEtat.computeIfAbsent(etat, e -> new ArrayList<>()).add(borneId);
+            }
+        }
+        if (parEtat.isEmpty()) {
+            return 0;
+        }
+        int modifiees = 0;
+        int envoyesVidage = 0;
+        for (Map.Entry<EtatBorne, List<Long>> groupe : parEtat.entrySet()) {
+            int resultat = ecrire(groupe.getValue(), groupe.getKey());
+            if (resultat < 0) {
+                echecs.add(groupe.getValue().size());
+                remettreEnAttente(groupe.getValue(), groupe.getKey());
+                continue;
+            }
+            modifiees += resultat;
+            envoyesVidage += groupe.getValue().size();
+            envoyes.add(groupe.getValue().size());
+            if (validiteNanos > 0) {
+                EtatEcrit ecrit = new EtatEcrit(groupe.getKey(), System.nanoTime());
+                groupe.getValue().forEach(borneId -> derniersEcrits.put(borneId, ecrit));
+            }
+        }
+        modifies.add(modifiees);
+        vidages.increment();
+        LOGGER.debug("Tampon {} vidé : {} état(s) envoyé(s), {} borne(s) modifiée(s)", nom, envoyesVidage, modifiees);
+        return modifiees;
+    }
+
+    /**
+     * @return Le résultat de {@link BorneRechargeDAO#updateEtat(java.util.Collection, EtatBorne)}, -1 en cas d'erreur.
+     */
+    private int ecrire(List<Long> ids, EtatBorne etat) {
+        try {
+            return borneRechargeDao.updateEtat(ids, etat);
+        } catch (RuntimeException e) {
+            LOGGER.error("Erreur lors de l'écriture de {} état(s) {} par le tampon {}", ids.size(), etat, nom, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Remet en attente les états d'une écriture en échec. Une borne signalée depuis garde son état plus récent ;
+     * sans place libre, l'état est rejeté (la borne le renverra au signalement suivant).
+     */
+    private void remettreEnAttente(List<Long> ids, EtatBorne etat) {
+        int perdus = 0;
+        for (Long borneId : ids) {
+            if (enAttente.containsKey(borneId)) {
+                continue;
+            }
+            if (!places.tryAcquire()) {
+                perdus++;
+                continue;
+            }
+            if (enAttente.putIfAbsent(borneId, etat) != null) {
+                places.release();
+            }
+        }
+        rejetes.add(perdus);
+        LOGGER.warn("Échec de l'écriture de {} état(s) {} par le tampon {} : remis en attente, {} rejeté(s) faute de place",
+                ids.size(), etat, nom, perdus);
+    }
+
+    /**
+     * Refuse les nouveaux signalements, arrête le thread de vidage et écrit les états en attente.
+     * Sans effet si le tampon est déjà fermé.
+     */
+    public void fermer() {
+        synchronized (this) {
+            if (ferme) {
+                return;
+            }
+            ferme = true;
+        }
+        executeur.shutdown();
+        try {
+            executeur.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        vider();
+        if (!enAttente.isEmpty()) {
+            LOGGER.warn("Tampon {} fermé avec {} état(s) non écrit(s)", nom, enAttente.size());
+        }
+        INSTANCES.remove(this);
+        retirerJmx();
+        LOGGER.info("Tampon {} fermé : {}", nom, this);
+    }
+
+    private void demanderVidage() {
+        if (!ferme && vidageDemande.compareAndSet(false, true)) {
+            try {
+                executeur.execute(this::viderSansErreur);
+            } catch (RuntimeException e) {
+                vidageDemande.set(false);
+            }
+        }
+    }
+
+    private void viderSansErreur() {
+        try {
+            vider();
+        } catch (RuntimeException e) {
+            LOGGER.error("Erreur lors du vidage du tampon {}", nom, e);
+        }
+    }
+
+    private ObjectName nomJmx() throws MalformedObjectNameException {
+        return new ObjectName("com.humanbooster:type=TamponEtatsBornes,nom=" + ObjectName.quote(nom));
+    }
+
+    private void publierJmx() {
+        try {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nomJmx = nomJmx();
+            if (!serveur.isRegistered(nomJmx)) {
+                serveur.registerMBean(this, nomJmx);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Publication JMX impossible pour le tampon {} : {}", nom, e.getMessage());
+        }
+    }
+
+    /** Retire le MBean du tampon fermé, pour qu'un nouveau tampon du même nom puisse être publié. */
+    private void retirerJmx() {
+        try {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nomJmx = nomJmx();
+            if (serveur.isRegistered(nomJmx)) {
+                serveur.unregisterMBean(nomJmx);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Retrait JMX impossible pour le tampon {} : {}", nom, e.getMessage());
+        }
+    }
+
+    @Override
+    public String getNom() {
+        return nom;
+    }
+
+    /** @return Les signalements reçus, rejetés compris. */
+    @Override
+    public long getRecus() {
+        return recus.sum();
+    }
+
+    /** @return Les signalements remplacés par un signalement plus récent avant d'être écrits, ou identiques au dernier état écrit. */
+    @Override
+    public long getCoalesces() {
+        return coalesces.sum();
+    }
+
+    /** @return Les signalements rejetés (tampon plein ou fermé). */
+    @Override
+    public long getRejetes() {
+        return rejetes.sum();
+    }
+
+    /** @return Les états écrits en base par les vidages, écritures en échec exclues. */
+    @Override
+    public long getEnvoyes() {
+        return envoyes.sum();
+    }
+
+    /** @return Les bornes dont l'état a réellement changé en base. */
+    @Override
+    public long getModifies() {
+        return modifies.sum();
+    }
+
+    /** @return Les états dont l'écriture a échoué, remis en attente ou rejetés. */
+    @Override
+    public long getEchecs() {
+        return echecs.sum();
+    }
+
+    @Override
+    public long getVidages() {
+        return vidages.sum();
+    }
+
+    @Override
+    public int getEnAttente() {
+        return enAttente.size();
+    }
+
+    /** @return La part des signalements reçus qui n'a pas eu besoin d'être écrite. */
+    @Override
+    public double getTauxCoalescence() {
+        long total = recus.sum();
+        return total == 0 ? 0.0 : (double) coalesces.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s : %d reçus, %d coalescés (%.1f %%), %d rejetés, %d envoyés, %d modifiés, %d en échec en %d vidage(s)",
+                nom, getRecus(), getCoalesces(), getTauxCoalescence() * 100, getRejetes(), getEnvoyes(), getModifies(), getEchecs(), getVidages());
+    }
+}
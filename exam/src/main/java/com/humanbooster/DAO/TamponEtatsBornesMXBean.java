@@ -0,0 +1,27 @@
+package com.humanbooster.DAO;
+
+/**
+ * Vue JMX d'un {@link TamponEtatsBornes}, publiée sous {@code com.humanbooster:type=TamponEtatsBornes,nom=<nom>}.
+ */
+public interface TamponEtatsBornesMXBean {
+
+    String getNom();
+
+    long getRecus();
+
+    long getCoalesces();
+
+    long getRejetes();
+
+    long getEnvoyes();
+
+    long getModifies();
+
+    long getEchecs();
+
+    long getVidages();
+
+    int getEnAttente();
+
+    double getTauxCoalescence();
+}
@@ -0,0 +1,83 @@
+package com.humanbooster.DAO;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+
+/**
+ * Opérations d'écriture en masse partagées par les implémentations DAO.
+ * Toutes les entités sont écrites dans une seule session et une seule transaction ;
+ * le contexte de persistance est vidé ({@code flush} + {@code clear}) à chaque lot
+ * afin que la mémoire reste bornée et que les INSERT/UPDATE partent en batch JDBC
+ * (voir {@code hibernate.jdbc.batch_size} dans hibernate.cfg.xml).
+ */
+final class TraitementParLots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraitementParLots.class);
+
+    /** Taille de lot utilisée si {@code hibernate.jdbc.batch_size} n'est pas renseignée. */
+    static final int TAILLE_LOT_PAR_DEFAUT = 50;
+
+    private TraitementParLots() {
+    }
+
+    /**
+     * Sauvegarde ou met à jour toutes les entités de la collection dans une transaction unique.
+     * En cas d'erreur, la transaction entière est annulée : aucune entité n'est écrite.
+     *
+     * @param sessionFactory La SessionFactory à utiliser.
+     * @param entites        Les entités à sauvegarder. Une collection null ou vide est ignorée.
+     * @param libelle        Libellé du type d'entité, utilisé dans les messages.
+     * @param <T>            Le type d'entité.
+     * @return {@code true} si la transaction a été validée, {@code false} en cas d'erreur.
+     */
+    static <T> boolean enregistrerTout(SessionFactory sessionFactory, Collection<T> entites, String libelle) {
+        if (entites == null || entites.isEmpty()) {
+            return true;
+        }
+        int tailleLot = tailleLot(sessionFactory);
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(tailleLot);
+            transaction = session.beginTransaction();
+            int compteur = 0;
+            for (T entite : entites) {
+                session.saveOrUpdate(entite);
+                if (++compteur % tailleLot == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+            LOGGER.info("{} {} sauvegardé(e)s/mis(es) à jour par lots de {}.", compteur, libelle, tailleLot);
+            return true;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                try {
+                    transaction.rollback();
+                    LOGGER.warn("Transaction annulée pour l'enregistrement en lot de {} {}.", entites.size(), libelle);
+                } catch (Exception rbEx) {
+                    LOGGER.error("Erreur lors du rollback de l'enregistrement en lot ({}) : {}", libelle, rbEx.getMessage());
+                }
+            }
+            LOGGER.error("Erreur lors de l'enregistrement en lot ({})", libelle, e);
+            EchecsDao.signaler();
+            return false;
+        }
+    }
+
+    /**
+     * @param sessionFactory La SessionFactory configurée.
+     * @return La taille de lot JDBC configurée, ou {@link #TAILLE_LOT_PAR_DEFAUT} si aucune.
+     */
+    static int tailleLot(SessionFactory sessionFactory) {
+        int configuree = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcBatchSize();
+        return configuree > 0 ? configuree : TAILLE_LOT_PAR_DEFAUT;
+    }
+}
@@ -1,7 +1,10 @@
 package com.humanbooster.DAO;
  // Package pour les interfaces DAO
 
+import com.humanbooster.dto.UtilisateurResume;
 import com.humanbooster.model.Utilisateur;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,14 @@ public interface UtilisateurDAO {
      */
     void saveOrUpdate(Utilisateur utilisateur);
 
+    /**
+     * Sauvegarde ou met à jour un ensemble d'utilisateurs dans une seule transaction, par lots JDBC.
+     * Si l'un des utilisateurs ne peut être écrit (email déjà utilisé par exemple), aucun n'est conservé.
+     *
+     * @param utilisateurs Les utilisateurs à sauvegarder ou à mettre à jour.
+     */
+    void saveAll(Collection<Utilisateur> utilisateurs);
+
     /**
      * Recherche un utilisateur par son identifiant unique (ID).
      *
@@ -50,7 +61,31 @@ public interface UtilisateurDAO {
     List<Utilisateur> findAll();
 
     /**
-     * Supprime un utilisateur de la base de données en utilisant son ID.
+     * Récupère une page d'utilisateurs, triés par ID croissant (pagination par clé).
+     * Le coût d'une page ne dépend pas de sa profondeur, contrairement à un {@code OFFSET}.
+     * Pour parcourir toute la table, passer {@code null} puis l'ID du dernier élément de chaque page,
+     * jusqu'à obtenir une page vide.
+     *
+     * @param apresId L'ID du dernier élément de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal d'éléments de la page (plafonné par {@code humanbooster.pagination.limite_max}).
+     * @return Une {@link List} d'au plus {@code limite} {@link Utilisateur}s d'ID supérieur à {@code apresId}.
+     */
+    List<Utilisateur> findPage(Long apresId, int limite);
+
+    /**
+     * Récupère une page de résumés d'utilisateurs (ID, email, rôle, validation), triés par ID croissant.
+     * Variante légère de {@link #findPage(Long, int)} pour les écrans de liste : seules ces colonnes sont lues
+     * (le mot de passe n'est jamais chargé) et aucune entité gérée n'est créée.
+     *
+     * @param apresId L'ID du dernier élément de la page précédente, ou {@code null} pour la première page.
+     * @param limite  Le nombre maximal d'éléments de la page.
+     * @return Une {@link List} d'au plus {@code limite} {@link UtilisateurResume}s.
+     */
+    List<UtilisateurResume> findResumes(Long apresId, int limite);
+
+    /**
+     * Supprime un utilisateur de la base de données en utilisant son ID, en une instruction
+     * ({@link #deleteByIds(Collection)}) : ses réservations sont supprimées par la base ({@code ON DELETE CASCADE}).
      * Si aucun utilisateur avec cet ID n'est trouvé, l'opération n'a aucun effet.
      *
      * @param id L'ID de l'utilisateur à supprimer.
@@ -58,10 +93,20 @@ public interface UtilisateurDAO {
     void deleteById(Long id);
 
     /**
-     * Supprime un utilisateur donné de la base de données.
-     * L'utilisateur doit être une entité gérée ou avoir un ID correspondant à une entité existante.
+     * Supprime un utilisateur donné de la base de données. Seul son ID est utilisé ; même traitement que
+     * {@link #deleteById(Long)}.
      *
      * @param utilisateur L'objet {@link Utilisateur} à supprimer.
      */
     void delete(Utilisateur utilisateur);
+
+    /**
+     * Supprime des utilisateurs par ID sans les charger : une instruction {@code DELETE} par paquet
+     * d'au plus 1 000 IDs, dans une seule transaction. Leurs réservations sont supprimées par la base
+     * ({@code ON DELETE CASCADE}) et retirées de l'index de disponibilité.
+     *
+     * @param ids Les IDs des utilisateurs à supprimer ; les IDs inconnus sont ignorés.
+     * @return Le nombre d'utilisateurs supprimés, 0 en cas d'erreur (rien n'est alors supprimé).
+     */
+    int deleteByIds(Collection<Long> ids);
 }
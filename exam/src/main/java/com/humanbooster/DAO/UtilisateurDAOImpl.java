@@ -4,12 +4,16 @@ package com.humanbooster.DAO;
 import com.humanbooster.DAO.UtilisateurDAO;
 import com.humanbooster.model.Utilisateur;
 import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.dto.UtilisateurResume;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
-import org.hibernate.query.Query; // Pour les requêtes HQL typées
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +24,8 @@ import java.util.Optional;
  */
 public class UtilisateurDAOImpl implements UtilisateurDAO {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(UtilisateurDAOImpl.class);
+
     /** Référence à la SessionFactory, obtenue via HibernateFactoryManager. */
     private final SessionFactory sessionFactory = GestionnaireSessionFactory.getSessionFactory();
 
@@ -35,22 +41,29 @@ public class UtilisateurDAOImpl implements UtilisateurDAO {
             transaction = session.beginTransaction();
             session.saveOrUpdate(utilisateur); // Gère à la fois la création et la mise à jour
             transaction.commit();
-            System.out.println("Utilisateur sauvegardé/mis à jour : " + utilisateur.getEmail());
+            LOGGER.debug("Utilisateur sauvegardé/mis à jour : {}", utilisateur.getEmail());
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 try {
                     transaction.rollback();
-                    System.err.println("Transaction annulée pour utilisateur : " + utilisateur.getEmail());
+                    LOGGER.warn("Transaction annulée pour utilisateur : {}", utilisateur.getEmail());
                 } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction pour utilisateur : " + utilisateur.getEmail() + " - " + rbEx.getMessage());
+                    LOGGER.error("Erreur lors du rollback de la transaction pour utilisateur : {} - {}", utilisateur.getEmail(), rbEx.getMessage());
                 }
             }
-            System.err.println("Erreur lors de la sauvegarde/mise à jour de l'utilisateur : " + e.getMessage());
-            e.printStackTrace(); // Pour le débogage
+            LOGGER.error("Erreur lors de la sauvegarde/mise à jour de l'utilisateur", e); // Pour le débogage
 
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveAll(Collection<Utilisateur> utilisateurs) {
+        TraitementParLots.enregistrerTout(sessionFactory, utilisateurs, "utilisateurs");
+    }
+
     /**
      * {@inheritDoc}
      * Ouvre une session et récupère l'utilisateur par son ID.
@@ -62,25 +75,30 @@ public class UtilisateurDAOImpl implements UtilisateurDAO {
             Utilisateur utilisateur = session.get(Utilisateur.class, id);
             return Optional.ofNullable(utilisateur);
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche de l'utilisateur par ID " + id + " : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche de l'utilisateur par ID {}", id, e);
+            EchecsDao.signaler();
             return Optional.empty();
         }
     }
 
     /**
      * {@inheritDoc}
-     * Ouvre une session et exécute une requête HQL pour trouver l'utilisateur par email.
+     * L'email étant l'identifiant naturel de l'entité, la recherche passe par la résolution
+     * d'identifiant naturel d'Hibernate : l'ID est d'abord cherché dans le cache
+     * "utilisateurs.email", puis l'entité dans le cache "utilisateurs". Une requête n'est
+     * exécutée qu'en cas d'absence dans l'un de ces caches.
      */
     @Override
     public Optional<Utilisateur> findByEmail(String email) {
+        if (email == null) {
+            LOGGER.warn("L'email ne peut être null pour la recherche d'un utilisateur.");
+            return Optional.empty();
+        }
         try (Session session = sessionFactory.openSession()) {
-            Query<Utilisateur> query = session.createQuery("FROM Utilisateur u WHERE u.email = :emailParam", Utilisateur.class);
-            query.setParameter("emailParam", email);
-            return query.uniqueResultOptional();
+            return session.bySimpleNaturalId(Utilisateur.class).loadOptional(email);
         } catch (Exception e) {
-            System.err.println("Erreur lors de la recherche de l'utilisateur par email " + email + " : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la recherche de l'utilisateur par email {}", email, e);
+            EchecsDao.signaler();
             return Optional.empty();
         }
     }
@@ -95,64 +113,79 @@ public class UtilisateurDAOImpl implements UtilisateurDAO {
         try (Session session = sessionFactory.openSession()) {
             return session.createQuery("FROM Utilisateur", Utilisateur.class).list();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la récupération de tous les utilisateurs : " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Erreur lors de la récupération de tous les utilisateurs", e);
+            EchecsDao.signaler();
             return new ArrayList<>(); // Retourne une liste vide en cas d'erreur
         }
     }
 
     /**
      * {@inheritDoc}
-     * Tente d'abord de trouver l'utilisateur par ID. S'il est trouvé,
-     * il est ensuite passé à la méthode {@link #delete(Utilisateur)}.
+     */
+    @Override
+    public List<Utilisateur> findPage(Long apresId, int limite) {
+        return PaginationParCle.page(sessionFactory, Utilisateur.class, apresId, limite, "utilisateurs");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UtilisateurResume> findResumes(Long apresId, int limite) {
+        if (limite <= 0) {
+            LOGGER.warn("Taille de page invalide pour les résumés d'utilisateurs : {}", limite);
+            return new ArrayList<>();
+        }
+        try (Session session = sessionFactory.openSession()) {
+            String select = "SELECT new com.humanbooster.dto.UtilisateurResume(u.id, u.email, u.role, u.valide) FROM Utilisateur u ";
+            Query<UtilisateurResume> query;
+            if (apresId == null) {
+                query = session.createQuery(select + "ORDER BY u.id", UtilisateurResume.class);
+            } else {
+                query = session.createQuery(select + "WHERE u.id > :apresId ORDER BY u.id", UtilisateurResume.class);
+                query.setParameter("apresId", apresId);
+            }
+            query.setMaxResults(Math.min(limite, PaginationParCle.limiteMax()));
+            return query.list();
+        } catch (Exception e) {
+            LOGGER.error("Erreur lors de la récupération des résumés d'utilisateurs (après ID {})", apresId, e);
+            EchecsDao.signaler();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
      */
     @Override
     public void deleteById(Long id) {
-        Optional<Utilisateur> utilisateurOpt = findById(id);
-        if (utilisateurOpt.isPresent()) {
-            delete(utilisateurOpt.get());
-        } else {
-            System.err.println("Tentative de suppression d'un utilisateur non trouvé avec ID : " + id);
+        if (id == null || deleteByIds(List.of(id)) == 0) {
+            LOGGER.warn("Tentative de suppression d'un utilisateur non trouvé avec ID : {}", id);
         }
     }
 
     /**
      * {@inheritDoc}
-     * Ouvre une session, commence une transaction, supprime l'entité,
-     * puis commite la transaction. Un rollback est effectué en cas d'erreur.
-     * L'objet utilisateur doit être dans un état persistant ou détaché avec un ID valide.
      */
     @Override
     public void delete(Utilisateur utilisateur) {
         if (utilisateur == null || utilisateur.getId() == null) {
-            System.err.println("Impossible de supprimer un utilisateur null ou sans ID.");
+            LOGGER.warn("Impossible de supprimer un utilisateur null ou sans ID.");
             return;
         }
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-
-            Utilisateur utilisateurASupprimer = session.get(Utilisateur.class, utilisateur.getId());
-            if (utilisateurASupprimer != null) {
-                session.delete(utilisateurASupprimer);
-                transaction.commit();
-                System.out.println("Utilisateur supprimé : " + utilisateurASupprimer.getEmail());
-            } else {
-                if(transaction.isActive()) transaction.rollback(); // Annuler la transaction si l'utilisateur n'est pas trouvé
-                System.err.println("Utilisateur non trouvé pour suppression (ID : " + utilisateur.getId() + ")");
-            }
+        deleteById(utilisateur.getId());
+    }
 
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                try {
-                    transaction.rollback();
-                    System.err.println("Transaction annulée lors de la suppression de l'utilisateur : " + utilisateur.getEmail());
-                } catch (Exception rbEx) {
-                    System.err.println("Erreur lors du rollback de la transaction de suppression pour utilisateur : " + utilisateur.getEmail() + " - " + rbEx.getMessage());
-                }
-            }
-            System.err.println("Erreur lors de la suppression de l'utilisateur : " + e.getMessage());
-            e.printStackTrace();
-        }
+    /**
+     * {@inheritDoc}
+     * Hibernate évince lui-même les régions {@code utilisateurs} et {@code utilisateurs.email} après une suppression HQL.
+     */
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        OperationsEnMasse.Suppression suppression = OperationsEnMasse.supprimer(sessionFactory, Utilisateur.class, ids,
+                "SELECT r.id FROM Reservation r WHERE r.utilisateur.id IN :ids", "utilisateurs");
+        // Réservations supprimées en cascade par la base : à retirer de l'index de disponibilité
+        suppression.dependants().forEach(ReservationDAOImpl.indexDisponibilite()::retirer);
+        return suppression.supprimees();
     }
 }
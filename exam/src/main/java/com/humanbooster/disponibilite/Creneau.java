@@ -0,0 +1,25 @@
+package com.humanbooster.disponibilite;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalle de temps occupé par une réservation sur une borne.
+ * L'intervalle est semi-ouvert : {@code [debut, fin[}, de sorte que deux réservations
+ * consécutives (la seconde commence à la fin de la première) ne se chevauchent pas.
+ *
+ * @param reservationId L'ID de la réservation à l'origine du créneau.
+ * @param debut         Début du créneau (inclus).
+ * @param fin           Fin du créneau (exclue).
+ */
+public record Creneau(Long reservationId, LocalDateTime debut, LocalDateTime fin) {
+
+    /**
+     * @param debutInterval Début de l'intervalle à tester.
+     * @param finInterval   Fin de l'intervalle à tester.
+     * @return {@code true} si ce créneau chevauche l'intervalle, selon la même règle que
+     * {@code ReservationDAO.findReservationsChevauchantesPourBorne} : debut &lt; finInterval ET fin &gt; debutInterval.
+     */
+    public boolean chevauche(LocalDateTime debutInterval, LocalDateTime finInterval) {
+        return debut.isBefore(finInterval) && fin.isAfter(debutInterval);
+    }
+}
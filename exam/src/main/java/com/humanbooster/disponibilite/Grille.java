@@ -0,0 +1,58 @@
+package com.humanbooster.disponibilite;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Découpage du temps en créneaux de durée fixe, numérotés depuis l'époque, et horizon glissant du calendrier
+ * de disponibilité : de minuit aujourd'hui (selon l'horloge) à {@code horizonJours} jours plus tard.
+ *
+ * @param pasMinutes   Durée d'un créneau ; doit diviser une journée.
+ * @param horizonJours Nombre de jours couverts par le calendrier.
+ * @param horloge      Horloge donnant le jour courant.
+ */
+record Grille(int pasMinutes, int horizonJours, Clock horloge) {
+
+    Grille {
+        if (pasMinutes < 1 || 1440 % pasMinutes != 0 || horizonJours < 1) {
+            throw new IllegalArgumentException("Grille de disponibilité invalide : pas=" + pasMinutes + " min, horizon=" + horizonJours + " j");
+        }
+    }
+
+    private long pasSecondes() {
+        return pasMinutes * 60L;
+    }
+
+    /** @return Le numéro du créneau contenant {@code date}. */
+    long indice(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), pasSecondes());
+    }
+
+    /** @return Le numéro du premier créneau commençant à {@code date} ou après. */
+    long indiceSuperieur(LocalDateTime date) {
+        long secondes = date.toEpochSecond(ZoneOffset.UTC);
+        return -Math.floorDiv(-secondes, pasSecondes()) + (date.getNano() > 0 && secondes % pasSecondes() == 0 ? 1 : 0);
+    }
+
+    /** @return {@code true} si {@code date} tombe exactement sur une limite de créneau. */
+    boolean estAlignee(LocalDateTime date) {
+        return date.getNano() == 0 && Math.floorMod(date.toEpochSecond(ZoneOffset.UTC), pasSecondes()) == 0;
+    }
+
+    /** @return Le début du créneau numéro {@code indice}. */
+    LocalDateTime debut(long indice) {
+        return LocalDateTime.ofEpochSecond(indice * pasSecondes(), 0, ZoneOffset.UTC);
+    }
+
+    /** @return Le numéro du premier créneau de l'horizon courant (minuit aujourd'hui). */
+    long origine() {
+        return indice(LocalDate.now(horloge).atStartOfDay());
+    }
+
+    /** @return Le nombre de créneaux de l'horizon. */
+    int taille() {
+        return horizonJours * (1440 / pasMinutes);
+    }
+}
@@ -0,0 +1,301 @@
+package com.humanbooster.disponibilite;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index en mémoire des créneaux réservés, une structure {@link IntervallesBorne} par borne.
+ * <p>
+ * Répond à la question « ce créneau est-il libre sur cette borne ? » en O(log n), sans accès
+ * à la base. Chaque borne est chargée une seule fois, au premier accès, à l'aide du chargeur
+ * fourni ; l'index est ensuite tenu à jour par les DAO à chaque sauvegarde ou suppression
+ * de réservation validée.
+ * <p>
+ * Les lectures sont sans verrou et peuvent être faites par un nombre quelconque de threads.
+ * Les écritures d'une borne sont sérialisées entre elles et avec son chargement. Une réservation
+ * enregistrée ou retirée pendant un chargement (entre sa lecture en base et la publication des
+ * créneaux) y est écartée : le créneau lu peut être antérieur à l'écriture, et l'enregistrement,
+ * qui attend la fin du chargement, l'ajoute ensuite dans son état à jour.
+ * <p>
+ * L'index sert aussi de calendrier de disponibilité : chaque borne interrogée par {@link #bornesLibres}
+ * ou {@link #creneauxLibres} reçoit un bitmap de ses créneaux occupés ({@link PlanningBorne} : un bit par
+ * créneau de {@code pasMinutes}, sur un horizon glissant de {@code horizonJours} jours à partir d'aujourd'hui),
+ * tenu à jour avec les créneaux. Les questions portant sur plusieurs bornes et plusieurs créneaux se
+ * résolvent alors par opérations bit à bit sur des mots de 64 créneaux.
+ */
+public final class IndexDisponibilite {
+
+    private final Function<Long, List<Creneau>> chargeur;
+    private final Grille grille;
+    private final Map<Long, IntervallesBorne> bornes = new ConcurrentHashMap<>();
+    /** Borne de rattachement de chaque réservation d'une borne chargée. */
+    private final Map<Long, Long> borneParReservation = new ConcurrentHashMap<>();
+    /** Chargements de bornes en cours, avec les réservations écrites depuis leur début. */
+    private final Set<Chargement> chargements = ConcurrentHashMap.newKeySet();
+
+    /** Réservations enregistrées ou retirées pendant un chargement, à écarter des créneaux lus. */
+    private static final class Chargement {
+        private final Set<Long> ecrites = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * @param chargeur Fonction lisant en base les créneaux d'une borne à partir de son ID.
+     */
+    public IndexDisponibilite(Function<Long, List<Creneau>> chargeur) {
+        this(chargeur, 15, 14, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param chargeur     Fonction lisant en base les créneaux d'une borne à partir de son ID.
+     * @param pasMinutes   Durée d'un créneau du calendrier ; doit diviser une journée (15 par défaut).
+     * @param horizonJours Nombre de jours couverts par le calendrier à partir d'aujourd'hui (14 par défaut).
+     * @param horloge      Horloge donnant le jour courant, qui fait glisser l'horizon.
+     */
+    public IndexDisponibilite(Function<Long, List<Creneau>> chargeur, int pasMinutes, int horizonJours, Clock horloge) {
+        this.chargeur = chargeur;
+        this.grille = new Grille(pasMinutes, horizonJours, horloge);
+    }
+
+    /**
+     * @return La durée d'un créneau du calendrier, en minutes.
+     */
+    public int getPasMinutes() {
+        return grille.pasMinutes();
+    }
+
+    /**
+     * Indique si la borne est libre sur tout l'intervalle {@code [debut, fin[}.
+     *
+     * @param borneId L'ID de la borne.
+     * @param debut   Début de l'intervalle.
+     * @param fin     Fin de l'intervalle.
+     * @return {@code true} si aucune réservation de la borne ne chevauche l'intervalle.
+     */
+    public boolean estLibre(Long borneId, LocalDateTime debut, LocalDateTime fin) {
+        return !instantane(borneId).chevauche(debut, fin);
+    }
+
+    /**
+     * Liste les créneaux de la borne qui chevauchent l'intervalle {@code [debut, fin[}.
+     *
+     * @param borneId L'ID de la borne.
+     * @param debut   Début de l'intervalle.
+     * @param fin     Fin de l'intervalle.
+     * @return Les créneaux en conflit, triés par début. Peut être vide.
+     */
+    public List<Creneau> chevauchements(Long borneId, LocalDateTime debut, LocalDateTime fin) {
+        return instantane(borneId).chevauchements(debut, fin);
+    }
+
+    /**
+     * Filtre les bornes libres sur tout l'intervalle {@code [debut, fin[}.
+     * <p>
+     * Dans l'horizon du calendrier, chaque borne est testée sur son bitmap, mot par mot. Le bitmap est exact
+     * pour un intervalle aligné sur les créneaux ; sinon une borne marquée occupée est vérifiée sur ses
+     * créneaux exacts, car une réservation peut n'occuper que la partie du créneau extérieure à l'intervalle.
+     * Hors horizon, seuls les créneaux exacts sont consultés.
+     *
+     * @param borneIds Les IDs des bornes candidates (ex : celles d'un site).
+     * @param debut    Début de l'intervalle.
+     * @param fin      Fin de l'intervalle.
+     * @return Les IDs des bornes libres, dans l'ordre de {@code borneIds}.
+     */
+    public List<Long> bornesLibres(Collection<Long> borneIds, LocalDateTime debut, LocalDateTime fin) {
+        long origine = grille.origine();
+        long premier = grille.indice(debut);
+        long dernier = grille.indiceSuperieur(fin);
+        boolean dansHorizon = premier >= origine && dernier <= origine + grille.taille();
+        boolean alignee = grille.estAlignee(debut) && grille.estAlignee(fin);
+        List<Long> libres = new ArrayList<>();
+        for (Long borneId : borneIds) {
+            IntervallesBorne.Instantane lu = instantane(borneId);
+            boolean libre;
+            if (dansHorizon) {
+                libre = bornes.get(borneId).planning(grille, origine, lu).estLibre((int) (premier - origine), (int) (dernier - origine));
+                if (!libre && !alignee) {
+                    libre = !lu.chevauche(debut, fin);
+                }
+            } else {
+                libre = !lu.chevauche(debut, fin);
+            }
+            if (libre) {
+                libres.add(borneId);
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Calendrier d'un ensemble de bornes sur {@code [debut, fin[} : le bit {@code i} du résultat vaut 1 si au moins
+     * une des bornes est libre pendant tout le {@code i}-ème créneau de la fenêtre, le créneau 0 étant celui qui
+     * contient {@code debut}. Les occupations des bornes sont combinées par ET bit à bit, 64 créneaux à la fois.
+     *
+     * @param borneIds Les IDs des bornes (ex : celles d'un site).
+     * @param debut    Début de la fenêtre.
+     * @param fin      Fin de la fenêtre.
+     * @return Les créneaux où une borne au moins est libre.
+     * @throws IllegalArgumentException si la fenêtre sort de l'horizon du calendrier.
+     */
+    public BitSet creneauxLibres(Collection<Long> borneIds, LocalDateTime debut, LocalDateTime fin) {
+        long origine = grille.origine();
+        long premier = grille.indice(debut);
+        long dernier = grille.indiceSuperieur(fin);
+        if (premier < origine || dernier > origine + grille.taille()) {
+            throw new IllegalArgumentException("Fenêtre [" + debut + ", " + fin + "[ hors de l'horizon du calendrier ("
+                    + grille.horizonJours() + " jours à partir d'aujourd'hui)");
+        }
+        int de = (int) (premier - origine);
+        int a = (int) (dernier - origine);
+        int nombre = a - de;
+        if (nombre <= 0) {
+            return new BitSet();
+        }
+        long[] occupes = new long[(nombre + 63) >>> 6];
+        Arrays.fill(occupes, -1L);
+        for (Long borneId : borneIds) {
+            IntervallesBorne.Instantane lu = instantane(borneId);
+            bornes.get(borneId).planning(grille, origine, lu).intersecterOccupation(occupes, de, a);
+        }
+        for (int j = 0; j < occupes.length; j++) {
+            occupes[j] = ~occupes[j];
+        }
+        if ((nombre & 63) != 0) {
+            occupes[occupes.length - 1] &= (1L << (nombre & 63)) - 1;
+        }
+        return BitSet.valueOf(occupes);
+    }
+
+    /**
+     * Enregistre (ou déplace) le créneau d'une réservation. À appeler après validation de la transaction.
+     *
+     * @param borneId L'ID de la borne de la réservation.
+     * @param creneau Le créneau de la réservation.
+     */
+    public void enregistrer(Long borneId, Creneau creneau) {
+        marquer(creneau.reservationId());
+        IntervallesBorne intervalles = bornes.computeIfAbsent(borneId, id -> new IntervallesBorne());
+        Long ancienneBorne;
+        // Sous le verrou du chargement : seules les réservations des bornes chargées sont suivies
+        synchronized (intervalles) {
+            if (intervalles.instantane() == null) {
+                // Borne pas encore chargée : le créneau sera lu en base au chargement
+                ancienneBorne = borneParReservation.remove(creneau.reservationId());
+            } else {
+                ancienneBorne = borneParReservation.put(creneau.reservationId(), borneId);
+                intervalles.enregistrer(creneau);
+            }
+        }
+        if (ancienneBorne != null && !ancienneBorne.equals(borneId)) {
+            IntervallesBorne ancienne = bornes.get(ancienneBorne);
+            if (ancienne != null) {
+                ancienne.retirer(creneau.reservationId());
+            }
+        }
+    }
+
+    /**
+     * Retire le créneau d'une réservation supprimée. À appeler après validation de la transaction.
+     *
+     * @param reservationId L'ID de la réservation supprimée.
+     */
+    public void retirer(Long reservationId) {
+        marquer(reservationId);
+        Long borneId = borneParReservation.remove(reservationId);
+        if (borneId != null) {
+            IntervallesBorne intervalles = bornes.get(borneId);
+            if (intervalles != null) {
+                intervalles.retirer(reservationId);
+            }
+        }
+    }
+
+    /**
+     * Oublie les créneaux chargés d'une borne (par exemple après une modification faite hors de l'index) ;
+     * elle sera relue en base au prochain accès.
+     *
+     * @param borneId L'ID de la borne.
+     */
+    public void invaliderBorne(Long borneId) {
+        IntervallesBorne intervalles = bornes.get(borneId);
+        if (intervalles != null) {
+            oublier(borneId, intervalles);
+        }
+    }
+
+    /**
+     * Oublie une borne supprimée et ses réservations.
+     *
+     * @param borneId L'ID de la borne supprimée.
+     */
+    public void supprimerBorne(Long borneId) {
+        IntervallesBorne intervalles = bornes.remove(borneId);
+        if (intervalles != null) {
+            oublier(borneId, intervalles);
+        }
+    }
+
+    /**
+     * Invalide une borne et retire ses réservations de {@code borneParReservation}, d'après son propre
+     * instantané : seules les réservations de cette borne sont parcourues. Sous le verrou du chargement,
+     * pour ne pas retirer celles d'un rechargement concurrent.
+     */
+    private void oublier(Long borneId, IntervallesBorne intervalles) {
+        synchronized (intervalles) {
+            IntervallesBorne.Instantane instantane = intervalles.instantane();
+            intervalles.invalider();
+            if (instantane != null) {
+                instantane.creneaux().forEach(c -> borneParReservation.remove(c.reservationId(), borneId));
+            }
+        }
+    }
+
+    /**
+     * Vide entièrement l'index, borne par borne sous le verrou de son chargement.
+     */
+    public void vider() {
+        bornes.forEach(this::oublier);
+    }
+
+    /**
+     * Signale une écriture aux chargements en cours. Un chargement commencé après l'appel lit en base
+     * l'écriture déjà validée.
+     */
+    private void marquer(Long reservationId) {
+        for (Chargement chargement : chargements) {
+            chargement.ecrites.add(reservationId);
+        }
+    }
+
+    private IntervallesBorne.Instantane instantane(Long borneId) {
+        IntervallesBorne intervalles = bornes.computeIfAbsent(borneId, id -> new IntervallesBorne());
+        IntervallesBorne.Instantane instantane = intervalles.instantane();
+        if (instantane == null) {
+            synchronized (intervalles) {
+                instantane = intervalles.instantane();
+                if (instantane == null) {
+                    Chargement chargement = new Chargement();
+                    chargements.add(chargement);
+                    try {
+                        List<Creneau> creneaux = chargeur.apply(borneId).stream()
+                                .filter(c -> !chargement.ecrites.contains(c.reservationId()))
+                                .toList();
+                        creneaux.forEach(c -> borneParReservation.putIfAbsent(c.reservationId(), borneId));
+                        instantane = intervalles.initialiser(creneaux);
+                    } finally {
+                        chargements.remove(chargement);
+                    }
+                }
+            }
+        }
+        return instantane;
+    }
+}
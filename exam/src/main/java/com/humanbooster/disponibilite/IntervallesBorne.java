@@ -0,0 +1,238 @@
+package com.humanbooster.disponibilite;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ensemble trié des créneaux réservés d'une borne.
+ * <p>
+ * Les créneaux sont stockés dans des tableaux immuables triés par début, accompagnés du
+ * maximum cumulé des fins (arbre d'intervalles « aplati » : le maximum des fins des
+ * {@code i} premiers créneaux remplace le maximum de sous-arbre). Une recherche de
+ * chevauchement se réduit ainsi à une recherche dichotomique, en O(log n).
+ * <p>
+ * Les lectures se font sans verrou sur l'instantané courant (champ {@code volatile}) ;
+ * les écritures, rares en comparaison, recopient les tableaux sous le verrou de l'objet
+ * et publient un nouvel instantané.
+ * <p>
+ * Le {@link PlanningBorne} (bitmap des créneaux occupés sur l'horizon du calendrier) est construit
+ * au premier besoin, puis mis à jour à chaque écriture sous le même verrou ; il est reconstruit
+ * quand l'horizon a glissé (changement de jour).
+ */
+final class IntervallesBorne {
+
+    /** Instantané immuable. {@code null} tant que la borne n'a pas été chargée. */
+    private volatile Instantane instantane;
+    /** Bitmap d'occupation. {@code null} tant qu'aucune requête du calendrier ne l'a demandé. */
+    private volatile PlanningBorne planning;
+
+    /**
+     * @return L'instantané courant, ou {@code null} si la borne n'est pas encore chargée.
+     */
+    Instantane instantane() {
+        return instantane;
+    }
+
+    /**
+     * Retourne le bitmap d'occupation de l'horizon commençant au créneau {@code origine}, en le (re)construisant
+     * si nécessaire.
+     *
+     * @param lu L'instantané lu par l'appelant, utilisé si la borne a été invalidée entre-temps
+     *           (le bitmap construit n'est alors pas conservé).
+     */
+    PlanningBorne planning(Grille grille, long origine, Instantane lu) {
+        PlanningBorne courant = planning;
+        if (courant != null && courant.origine() == origine) {
+            return courant;
+        }
+        synchronized (this) {
+            courant = planning;
+            if (courant == null || courant.origine() != origine) {
+                Instantane base = instantane;
+                courant = PlanningBorne.construire(grille, origine, (base != null ? base : lu).creneaux());
+                if (base != null) {
+                    planning = courant;
+                }
+            }
+            return courant;
+        }
+    }
+
+    /**
+     * Initialise la borne avec ses créneaux, si elle ne l'est pas déjà.
+     *
+     * @param creneaux Les créneaux lus depuis la base.
+     * @return L'instantané en vigueur après l'appel.
+     */
+    synchronized Instantane initialiser(List<Creneau> creneaux) {
+        if (instantane == null) {
+            List<Creneau> tries = new ArrayList<>(creneaux);
+            tries.sort((a, b) -> a.debut().compareTo(b.debut()));
+            instantane = new Instantane(tries);
+            planning = null;
+        }
+        return instantane;
+    }
+
+    /**
+     * Ajoute un créneau, ou remplace celui de la même réservation.
+     * Sans effet si la borne n'est pas chargée : le créneau sera lu en base au chargement.
+     *
+     * @param creneau Le créneau à enregistrer.
+     */
+    synchronized void enregistrer(Creneau creneau) {
+        Instantane courant = instantane;
+        if (courant == null) {
+            return;
+        }
+        List<Creneau> creneaux = new ArrayList<>(courant.taille() + 1);
+        boolean insere = false;
+        Creneau remplace = null;
+        for (Creneau existant : courant.creneaux()) {
+            if (existant.reservationId().equals(creneau.reservationId())) {
+                remplace = existant;
+                continue;
+            }
+            if (!insere && existant.debut().isAfter(creneau.debut())) {
+                creneaux.add(creneau);
+                insere = true;
+            }
+            creneaux.add(existant);
+        }
+        if (!insere) {
+            creneaux.add(creneau);
+        }
+        Instantane nouveau = new Instantane(creneaux);
+        instantane = nouveau;
+        PlanningBorne bitmap = planning;
+        if (bitmap != null) {
+            planning = (remplace != null ? bitmap.sans(remplace, nouveau) : bitmap).avec(creneau);
+        }
+    }
+
+    /**
+     * Retire le créneau d'une réservation. Sans effet si la borne n'est pas chargée.
+     *
+     * @param reservationId L'ID de la réservation supprimée.
+     */
+    synchronized void retirer(Long reservationId) {
+        Instantane courant = instantane;
+        if (courant == null) {
+            return;
+        }
+        List<Creneau> creneaux = new ArrayList<>(courant.taille());
+        Creneau retire = null;
+        for (Creneau existant : courant.creneaux()) {
+            if (existant.reservationId().equals(reservationId)) {
+                retire = existant;
+            } else {
+                creneaux.add(existant);
+            }
+        }
+        if (retire != null) {
+            Instantane nouveau = new Instantane(creneaux);
+            instantane = nouveau;
+            PlanningBorne bitmap = planning;
+            if (bitmap != null) {
+                planning = bitmap.sans(retire, nouveau);
+            }
+        }
+    }
+
+    /**
+     * Oublie les créneaux chargés : la borne sera relue en base au prochain accès.
+     */
+    synchronized void invalider() {
+        instantane = null;
+        planning = null;
+    }
+
+    /**
+     * Convertit une date en entier long croissant, exact à la nanoseconde.
+     */
+    static long cle(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + date.getNano();
+    }
+
+    /**
+     * Vue immuable et triée des créneaux d'une borne.
+     */
+    static final class Instantane {
+
+        private final Creneau[] creneaux;
+        private final long[] debuts;
+        private final long[] fins;
+        /** finsMax[i] = max(fins[0..i]). */
+        private final long[] finsMax;
+
+        /**
+         * @param tries Les créneaux, triés par début croissant.
+         */
+        Instantane(List<Creneau> tries) {
+            int n = tries.size();
+            creneaux = tries.toArray(new Creneau[0]);
+            debuts = new long[n];
+            fins = new long[n];
+            finsMax = new long[n];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                debuts[i] = cle(creneaux[i].debut());
+                fins[i] = cle(creneaux[i].fin());
+                max = Math.max(max, fins[i]);
+                finsMax[i] = max;
+            }
+        }
+
+        int taille() {
+            return creneaux.length;
+        }
+
+        List<Creneau> creneaux() {
+            return List.of(creneaux);
+        }
+
+        /**
+         * @return L'indice du dernier créneau commençant strictement avant {@code fin}, ou -1.
+         */
+        private int dernierCommencantAvant(long fin) {
+            int bas = 0, haut = debuts.length - 1, resultat = -1;
+            while (bas <= haut) {
+                int milieu = (bas + haut) >>> 1;
+                if (debuts[milieu] < fin) {
+                    resultat = milieu;
+                    bas = milieu + 1;
+                } else {
+                    haut = milieu - 1;
+                }
+            }
+            return resultat;
+        }
+
+        /**
+         * Indique si au moins un créneau chevauche {@code [debut, fin[}, en O(log n).
+         */
+        boolean chevauche(LocalDateTime debut, LocalDateTime fin) {
+            int i = dernierCommencantAvant(cle(fin));
+            return i >= 0 && finsMax[i] > cle(debut);
+        }
+
+        /**
+         * Liste les créneaux qui chevauchent {@code [debut, fin[}. Le parcours s'arrête dès que le
+         * maximum cumulé des fins ne dépasse plus {@code debut} : seuls les candidats possibles sont visités.
+         */
+        List<Creneau> chevauchements(LocalDateTime debut, LocalDateTime fin) {
+            long cleDebut = cle(debut);
+            List<Creneau> resultat = new ArrayList<>();
+            for (int i = dernierCommencantAvant(cle(fin)); i >= 0 && finsMax[i] > cleDebut; i--) {
+                if (fins[i] > cleDebut) {
+                    resultat.add(creneaux[i]);
+                }
+            }
+            Collections.reverse(resultat);
+            return resultat;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.humanbooster.disponibilite;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Occupation d'une borne sur l'horizon du calendrier, un bit par créneau de la {@link Grille} (1 = au moins
+ * une réservation chevauche le créneau), rangés dans un {@code long[]} : 14 jours de créneaux de 15 minutes
+ * tiennent en 21 mots.
+ * <p>
+ * Immuable : chaque modification produit un nouveau planning, publié par {@link IntervallesBorne} comme ses
+ * instantanés. Les tests de disponibilité portent sur des mots entiers (masques de début et de fin de plage).
+ */
+final class PlanningBorne {
+
+    private final Grille grille;
+    /** Numéro (depuis l'époque) du créneau du bit 0. */
+    private final long origine;
+    private final long[] mots;
+
+    private PlanningBorne(Grille grille, long origine, long[] mots) {
+        this.grille = grille;
+        this.origine = origine;
+        this.mots = mots;
+    }
+
+    /**
+     * Construit le planning de l'horizon commençant au créneau {@code origine}.
+     *
+     * @param creneaux Les créneaux réservés de la borne ; ceux hors horizon sont ignorés.
+     */
+    static PlanningBorne construire(Grille grille, long origine, List<Creneau> creneaux) {
+        PlanningBorne planning = new PlanningBorne(grille, origine, new long[(grille.taille() + 63) >>> 6]);
+        for (Creneau creneau : creneaux) {
+            planning.marquer(creneau);
+        }
+        return planning;
+    }
+
+    long origine() {
+        return origine;
+    }
+
+    /**
+     * @return Un planning où les créneaux couverts par {@code creneau} sont occupés.
+     */
+    PlanningBorne avec(Creneau creneau) {
+        PlanningBorne copie = new PlanningBorne(grille, origine, mots.clone());
+        copie.marquer(creneau);
+        return copie;
+    }
+
+    /**
+     * Retire {@code creneau} : les créneaux qu'il couvrait sont recalculés d'après l'état exact de la borne,
+     * car une autre réservation peut occuper une partie du même créneau.
+     *
+     * @param restant L'instantané de la borne après le retrait.
+     */
+    PlanningBorne sans(Creneau creneau, IntervallesBorne.Instantane restant) {
+        int de = relatif(grille.indice(creneau.debut()));
+        int a = relatif(grille.indiceSuperieur(creneau.fin()));
+        if (de >= a) {
+            return this;
+        }
+        PlanningBorne copie = new PlanningBorne(grille, origine, mots.clone());
+        for (int i = de; i < a; i++) {
+            if (!restant.chevauche(grille.debut(origine + i), grille.debut(origine + i + 1))) {
+                copie.mots[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return copie;
+    }
+
+    /**
+     * @return {@code true} si aucun des créneaux relatifs {@code [de, a[} n'est occupé.
+     */
+    boolean estLibre(int de, int a) {
+        if (de >= a) {
+            return true;
+        }
+        int premier = de >>> 6, dernier = (a - 1) >>> 6;
+        for (int m = premier; m <= dernier; m++) {
+            if ((mots[m] & masque(m, premier, dernier, de, a)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Combine l'occupation des créneaux relatifs {@code [de, a[} dans {@code cumul} par un ET bit à bit :
+     * le bit {@code i} de {@code cumul} correspond au créneau {@code de + i}.
+     */
+    void intersecterOccupation(long[] cumul, int de, int a) {
+        for (int j = 0; j < cumul.length; j++) {
+            cumul[j] &= extraireMot(de + (j << 6), a);
+        }
+    }
+
+    /**
+     * @return Les 64 bits à partir du créneau relatif {@code depart}, limités à {@code a} (bits au-delà à 0).
+     */
+    private long extraireMot(int depart, int a) {
+        int m = depart >>> 6, decalage = depart & 63;
+        long mot = mots[m] >>> decalage;
+        if (decalage != 0 && m + 1 < mots.length) {
+            mot |= mots[m + 1] << (64 - decalage);
+        }
+        int restants = a - depart;
+        return restants >= 64 ? mot : mot & ((1L << restants) - 1);
+    }
+
+    private static long masque(int m, int premier, int dernier, int de, int a) {
+        long masque = -1L;
+        if (m == premier) {
+            masque &= -1L << (de & 63);
+        }
+        if (m == dernier && (a & 63) != 0) {
+            masque &= (1L << (a & 63)) - 1;
+        }
+        return masque;
+    }
+
+    private void marquer(Creneau creneau) {
+        int de = relatif(grille.indice(creneau.debut()));
+        int a = relatif(grille.indiceSuperieur(creneau.fin()));
+        if (de >= a) {
+            return;
+        }
+        int premier = de >>> 6, dernier = (a - 1) >>> 6;
+        for (int m = premier; m <= dernier; m++) {
+            mots[m] |= masque(m, premier, dernier, de, a);
+        }
+    }
+
+    /** @return L'indice relatif du créneau absolu, ramené dans {@code [0, taille]}. */
+    private int relatif(long indice) {
+        return (int) Math.max(0, Math.min(grille.taille(), indice - origine));
+    }
+
+    @Override
+    public String toString() {
+        return "PlanningBorne[origine=" + origine + ", mots=" + Arrays.toString(mots) + "]";
+    }
+}
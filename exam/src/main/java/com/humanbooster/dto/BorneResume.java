@@ -0,0 +1,17 @@
+package com.humanbooster.dto;
+
+import com.humanbooster.model.EtatBorne;
+
+/**
+ * Vue allégée d'une borne de recharge, destinée aux écrans de liste.
+ * Construite directement par une requête HQL ({@code select new ...}) : aucune entité gérée,
+ * aucun proxy et aucune copie pour le dirty checking ne sont créés.
+ *
+ * @param id          L'ID de la borne.
+ * @param puissanceKw La puissance de la borne, en kW (colonne {@code tarif_horaire}).
+ * @param etat        L'état courant de la borne.
+ * @param lieuId      L'ID du lieu de recharge de la borne.
+ * @param lieuNom     Le nom du lieu de recharge de la borne.
+ */
+public record BorneResume(Long id, Double puissanceKw, EtatBorne etat, Long lieuId, String lieuNom) {
+}
@@ -0,0 +1,22 @@
+package com.humanbooster.dto;
+
+import com.humanbooster.model.StatutReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue allégée d'une réservation, destinée aux écrans de liste.
+ * Les associations sont réduites à leurs identifiants (et à l'email de l'utilisateur) :
+ * ni l'utilisateur ni la borne ne sont chargés ou représentés par un proxy.
+ *
+ * @param id               L'ID de la réservation.
+ * @param dateDebut        Début du créneau réservé.
+ * @param dateFin          Fin du créneau réservé.
+ * @param statut           Le statut de la réservation.
+ * @param utilisateurId    L'ID de l'utilisateur ayant réservé.
+ * @param utilisateurEmail L'email de l'utilisateur ayant réservé.
+ * @param borneId          L'ID de la borne réservée.
+ */
+public record ReservationResume(Long id, LocalDateTime dateDebut, LocalDateTime dateFin, StatutReservation statut,
+                                Long utilisateurId, String utilisateurEmail, Long borneId) {
+}
@@ -0,0 +1,15 @@
+package com.humanbooster.dto;
+
+import com.humanbooster.model.RoleUtilisateur;
+
+/**
+ * Vue allégée d'un utilisateur, destinée aux écrans de liste.
+ * Ne contient ni le mot de passe ni le code de validation, qui ne sont même pas lus en base.
+ *
+ * @param id     L'ID de l'utilisateur.
+ * @param email  L'email de l'utilisateur.
+ * @param role   Le rôle de l'utilisateur.
+ * @param valide {@code true} si le compte a été validé.
+ */
+public record UtilisateurResume(Long id, String email, RoleUtilisateur role, boolean valide) {
+}
@@ -1,6 +1,8 @@
 package com.humanbooster.model; // Assurez-vous que ce package correspond à votre structure
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -14,11 +16,17 @@ import java.util.Set;
  * - Une BorneRecharge peut être concernée par plusieurs Réservations (OneToMany).
  */
 @Entity
-@Table(name = "bornes_recharge")
+@Table(name = "bornes_recharge", indexes = {
+        @Index(name = "idx_bornes_recharge_etat", columnList = "etat_borne"),
+        @Index(name = "idx_bornes_recharge_puissance", columnList = "tarif_horaire"),
+        // Bornes disponibles d'un lieu (lieu_id IN (...) AND etat_borne = ?)
+        @Index(name = "idx_bornes_recharge_lieu_etat", columnList = "lieu_id, etat_borne")
+})
 public class BorneRecharge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-incrément géré par la BDD
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bornes_recharge_seq")
+    @SequenceGenerator(name = "bornes_recharge_seq", sequenceName = "bornes_recharge_seq", allocationSize = 50) // Identifiants réservés par blocs : compatible avec le batching JDBC
     @Column(name = "id")
     private Long id;
 
@@ -45,7 +53,8 @@ public class BorneRecharge {
      * pour éviter de charger le lieu inutilement à chaque fois qu'une borne est chargée.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "lieu_id", nullable = false) // La borne doit appartenir à un lieu
+    @JoinColumn(name = "lieu_id", nullable = false, foreignKey = @ForeignKey(name = "fk_bornes_recharge_lieu")) // La borne doit appartenir à un lieu
+    @OnDelete(action = OnDeleteAction.CASCADE) // Suppression du lieu en une instruction : la base supprime ses bornes
     private LieuRecharge lieuRecharge;
 
     /**
@@ -56,6 +65,15 @@ public class BorneRecharge {
     @OneToMany(mappedBy = "borne", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Reservation> reservations = new HashSet<>(); // Initialiser pour éviter NullPointerException
 
+    /**
+     * Numéro de version pour le verrouillage optimiste.
+     * Incrémenté par Hibernate à chaque mise à jour : une modification faite à partir
+     * d'une copie périmée de la borne échoue au lieu d'écraser silencieusement la précédente.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Constructeur par défaut requis par JPA/Hibernate.
      */
@@ -108,6 +126,10 @@ public class BorneRecharge {
         this.lieuRecharge = lieuRecharge;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Reservation> getReservations() {
         return reservations;
     }
@@ -1,6 +1,7 @@
 package com.humanbooster.model;
 
 import org.hibernate.Hibernate; // Import pour Hibernate.isInitialized
+import org.hibernate.annotations.BatchSize;
 
 import jakarta.persistence.*;
 import java.util.HashSet;
@@ -14,11 +15,12 @@ import java.util.Set;
  * Relation : Un LieuRecharge peut avoir plusieurs BornesRecharge.
  */
 @Entity
-@Table(name = "lieux_recharge")
+@Table(name = "lieux_recharge", indexes = @Index(name = "idx_lieux_recharge_nom", columnList = "nom"))
 public class LieuRecharge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-incrément géré par la BDD
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lieux_recharge_seq")
+    @SequenceGenerator(name = "lieux_recharge_seq", sequenceName = "lieux_recharge_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -28,7 +30,12 @@ public class LieuRecharge {
     @Column(name = "adresse", nullable = false, length = 255)
     private String adresse;
 
+    /**
+     * Chargée paresseusement, par lots : lire les bornes d'un lieu initialise aussi celles des autres lieux
+     * de la session (jusqu'à 50), en une requête {@code WHERE lieu_id IN (...)}.
+     */
     @OneToMany(mappedBy = "lieuRecharge", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private Set<BorneRecharge> bornes = new HashSet<>();
 
     /**
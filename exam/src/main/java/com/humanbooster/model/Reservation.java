@@ -1,6 +1,8 @@
 package com.humanbooster.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
@@ -15,11 +17,39 @@ import java.util.Objects;
  * - Plusieurs Réservations peuvent concerner une BorneRecharge (ManyToOne).
  */
 @Entity
-@Table(name = "reservations") // Nom de la table en base de données
+@Table(name = "reservations", // Nom de la table en base de données
+        indexes = {
+                // Recherche des chevauchements sur une borne (borne_id = ? AND date_debut < ? AND date_fin > ?)
+                @Index(name = "idx_reservations_borne_periode", columnList = "borne_id, date_debut, date_fin"),
+                // Réservations d'un utilisateur, triées par date
+                @Index(name = "idx_reservations_utilisateur_debut", columnList = "utilisateur_id, date_debut")
+        })
+@NamedEntityGraph(name = Reservation.GRAPHE_BORNE_ET_LIEU,
+        attributeNodes = @NamedAttributeNode(value = "borne", subgraph = "borne.lieu"),
+        subgraphs = @NamedSubgraph(name = "borne.lieu", attributeNodes = @NamedAttributeNode("lieuRecharge")))
+@NamedEntityGraph(name = Reservation.GRAPHE_COMPLET,
+        attributeNodes = {
+                @NamedAttributeNode("utilisateur"),
+                @NamedAttributeNode(value = "borne", subgraph = "borne.lieu")
+        },
+        subgraphs = @NamedSubgraph(name = "borne.lieu", attributeNodes = @NamedAttributeNode("lieuRecharge")))
 public class Reservation {
 
+    /**
+     * Graphe d'entités chargeant la borne de la réservation et le lieu de cette borne,
+     * dans la même requête que la réservation (voir les surcharges de ReservationDAO prenant un graphe).
+     */
+    public static final String GRAPHE_BORNE_ET_LIEU = "Reservation.borneEtLieu";
+
+    /**
+     * Graphe d'entités chargeant en plus l'utilisateur : la réservation peut être affichée entièrement
+     * après la fermeture de la session.
+     */
+    public static final String GRAPHE_COMPLET = "Reservation.complet";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-incrément géré par la BDD
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -47,16 +77,25 @@ public class Reservation {
      * L'utilisateur qui a effectué cette réservation.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "utilisateur_id", nullable = false)
+    @JoinColumn(name = "utilisateur_id", nullable = false, foreignKey = @ForeignKey(name = "fk_reservations_utilisateur"))
+    @OnDelete(action = OnDeleteAction.CASCADE) // Suppression de l'utilisateur en une instruction : la base supprime ses réservations
     private Utilisateur utilisateur;
 
     /**
      * La borne de recharge concernée par cette réservation.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "borne_id", nullable = false)
+    @JoinColumn(name = "borne_id", nullable = false, foreignKey = @ForeignKey(name = "fk_reservations_borne"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private BorneRecharge borne;
 
+    /**
+     * Numéro de version pour le verrouillage optimiste (changements de statut concurrents).
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Constructeur par défaut requis par JPA/Hibernate.
      */
@@ -122,6 +161,10 @@ public class Reservation {
         this.utilisateur = utilisateur;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public BorneRecharge getBorne() {
         return borne;
     }
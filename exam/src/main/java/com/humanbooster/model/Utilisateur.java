@@ -1,6 +1,8 @@
 package com.humanbooster.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -11,16 +13,21 @@ import java.util.Set;
  * Champs conformes à l'image "4. Modèle de données à mapper":
  * id, email, motDePasse, codeValidation, valide, role.
  * Relation : Un Utilisateur peut avoir plusieurs Réservations.
+ * L'email est l'identifiant naturel : sa résolution email → ID est mise en cache
+ * (région "utilisateurs.email", voir ehcache.xml).
  */
 @Entity
 @Table(name = "utilisateurs")
+@NaturalIdCache(region = "utilisateurs.email")
 public class Utilisateur {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "utilisateurs_seq")
+    @SequenceGenerator(name = "utilisateurs_seq", sequenceName = "utilisateurs_seq", allocationSize = 50) // Pooled : un aller-retour en base pour 50 identifiants
     @Column(name = "id")
     private Long id;
 
+    @NaturalId(mutable = true) // L'utilisateur peut changer d'adresse email
     @Column(name = "email", nullable = false, unique = true, length = 150)
     private String email;
 
@@ -0,0 +1,51 @@
+package com.humanbooster.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tirage de rangs {@code 0..n-1} selon une loi de Zipf : le rang {@code k} est tiré avec une probabilité
+ * proportionnelle à {@code 1 / (k + 1)^s}. Avec {@code s = 0} le tirage est uniforme ; plus {@code s} est grand,
+ * plus les premiers rangs (les sites les plus fréquentés) concentrent les demandes.
+ * <p>
+ * Les probabilités cumulées sont précalculées ; un tirage coûte une recherche dichotomique. Sûr entre threads.
+ */
+final class LoiZipf {
+
+    private final double[] cumul;
+
+    /**
+     * @param n          Le nombre de rangs (au moins 1).
+     * @param asymetrie  L'exposant {@code s} (positif ou nul).
+     */
+    LoiZipf(int n, double asymetrie) {
+        if (n < 1 || asymetrie < 0) {
+            throw new IllegalArgumentException("Loi de Zipf invalide : n=" + n + ", s=" + asymetrie);
+        }
+        cumul = new double[n];
+        double somme = 0;
+        for (int k = 0; k < n; k++) {
+            somme += 1 / Math.pow(k + 1, asymetrie);
+            cumul[k] = somme;
+        }
+        for (int k = 0; k < n; k++) {
+            cumul[k] /= somme;
+        }
+    }
+
+    /**
+     * @return Un rang tiré au hasard, entre {@code 0} et {@code n - 1}.
+     */
+    int tirer() {
+        int position = Arrays.binarySearch(cumul, ThreadLocalRandom.current().nextDouble());
+        int rang = position >= 0 ? position : -position - 1;
+        return Math.min(rang, cumul.length - 1);
+    }
+
+    /**
+     * @return La probabilité de tirer le rang {@code k}.
+     */
+    double probabilite(int k) {
+        return k == 0 ? cumul[0] : cumul[k] - cumul[k - 1];
+    }
+}
@@ -0,0 +1,72 @@
+package com.humanbooster.simulation;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+
+/**
+ * Paramètres d'une simulation de charge, lus dans la configuration ({@code humanbooster.simulation.*},
+ * surchargeables par propriété système ou par les arguments {@code clé=valeur} de {@code App simulation}).
+ *
+ * @param conducteurs          Nombre de conducteurs simulés, un thread chacun.
+ * @param debitParSeconde      Demandes par seconde, tous conducteurs confondus (arrivées de Poisson) ;
+ *                             0 : chaque conducteur enchaîne ses demandes sans pause.
+ * @param asymetrieSites       Exposant de la loi de Zipf choisissant le site visé (0 : uniforme, 1 et plus : quelques
+ *                             sites très demandés).
+ * @param dureeSecondes        Durée de la simulation.
+ * @param lieux                Nombre de lieux de recharge créés pour la simulation.
+ * @param bornesParLieu        Nombre de bornes par lieu.
+ * @param utilisateurs         Nombre de comptes utilisateurs créés.
+ * @param dureeCreneauMinutes  Durée d'un créneau réservé.
+ * @param horizonHeures        Fenêtre, à partir de demain, dans laquelle les créneaux demandés sont tirés.
+ */
+public record ParametresSimulation(int conducteurs,
+                                   double debitParSeconde,
+                                   double asymetrieSites,
+                                   int dureeSecondes,
+                                   int lieux,
+                                   int bornesParLieu,
+                                   int utilisateurs,
+                                   int dureeCreneauMinutes,
+                                   int horizonHeures) {
+
+    private static final String PREFIXE = "humanbooster.simulation.";
+
+    public ParametresSimulation {
+        if (conducteurs < 1 || dureeSecondes < 1 || lieux < 1 || bornesParLieu < 1 || utilisateurs < 1
+                || dureeCreneauMinutes < 1 || horizonHeures * 60 < dureeCreneauMinutes
+                || debitParSeconde < 0 || asymetrieSites < 0) {
+            throw new IllegalArgumentException("Paramètres de simulation invalides : " + this);
+        }
+    }
+
+    /**
+     * @return Les paramètres configurés, avec des valeurs par défaut pour ceux qui ne le sont pas.
+     */
+    public static ParametresSimulation depuisConfiguration() {
+        return new ParametresSimulation(
+                entier("conducteurs", 32),
+                decimal("debit_par_seconde", 0),
+                decimal("asymetrie_sites", 1.0),
+                entier("duree_secondes", 60),
+                entier("lieux", 50),
+                entier("bornes_par_lieu", 8),
+                entier("utilisateurs", 1000),
+                entier("duree_creneau_minutes", 30),
+                entier("horizon_heures", 48));
+    }
+
+    private static int entier(String nom, int valeurParDefaut) {
+        return GestionnaireSessionFactory.getParametreEntier(PREFIXE + nom, valeurParDefaut);
+    }
+
+    private static double decimal(String nom, double valeurParDefaut) {
+        String valeur = GestionnaireSessionFactory.getParametre(PREFIXE + nom, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return valeurParDefaut;
+        }
+        try {
+            return Double.parseDouble(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Paramètre " + PREFIXE + nom + " invalide : " + valeur, e);
+        }
+    }
+}
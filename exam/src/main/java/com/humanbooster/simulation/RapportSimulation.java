@@ -0,0 +1,87 @@
+package com.humanbooster.simulation;
+
+import com.humanbooster.DAO.ResultatReservation;
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Résultats d'une simulation de charge ({@link SimulateurCharge#executer()}).
+ *
+ * @param parametres               Les paramètres de la simulation.
+ * @param dureeSecondes            La durée effectivement mesurée.
+ * @param demandes                 Le nombre de demandes traitées (recherche puis, si une borne est libre, réservation).
+ * @param aucuneBorneLibre         Les demandes pour lesquelles la recherche n'a trouvé aucune borne libre sur le site.
+ * @param erreurs                  Les demandes interrompues par une exception.
+ * @param issues                   Le nombre de tentatives de réservation par issue.
+ * @param demande                  Latence de bout en bout d'une demande (µs), comptée depuis son heure d'arrivée prévue :
+ *                                 un retard pris par un conducteur saturé est inclus.
+ * @param recherche                Latence de la recherche d'une borne libre sur le site (µs).
+ * @param reservation              Latence de {@code reserver} (µs).
+ * @param acquisitionsConnexion    Connexions empruntées au pool pendant la simulation.
+ * @param attenteMoyenneConnexionMillis Attente moyenne d'une connexion pendant la simulation.
+ * @param attenteMaxConnexionMillis     Attente maximale d'une connexion depuis le démarrage de l'application.
+ * @param expirationsConnexion     Demandes de connexion expirées pendant la simulation.
+ * @param threadsEnAttenteMax      Nombre maximal de threads observés en attente d'une connexion (échantillonné).
+ */
+public record RapportSimulation(ParametresSimulation parametres,
+                                double dureeSecondes,
+                                long demandes,
+                                long aucuneBorneLibre,
+                                long erreurs,
+                                Map<ResultatReservation.Issue, Long> issues,
+                                Histogram demande,
+                                Histogram recherche,
+                                Histogram reservation,
+                                long acquisitionsConnexion,
+                                double attenteMoyenneConnexionMillis,
+                                double attenteMaxConnexionMillis,
+                                long expirationsConnexion,
+                                int threadsEnAttenteMax) {
+
+    /** @return Le nombre de tentatives de réservation ayant abouti à l'issue donnée. */
+    public long nombre(ResultatReservation.Issue issue) {
+        return issues.getOrDefault(issue, 0L);
+    }
+
+    /** @return Les demandes traitées par seconde. */
+    public double debitDemandes() {
+        return demandes / dureeSecondes;
+    }
+
+    /** @return Les réservations créées par seconde. */
+    public double debitReservations() {
+        return nombre(ResultatReservation.Issue.RESERVEE) / dureeSecondes;
+    }
+
+    /** @return Les tentatives refusées faute de créneau ou de borne (conflit, borne indisponible, verrou non obtenu). */
+    public long refus() {
+        return nombre(ResultatReservation.Issue.CONFLIT) + nombre(ResultatReservation.Issue.BORNE_INDISPONIBLE)
+                + nombre(ResultatReservation.Issue.VERROU_INDISPONIBLE);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texte = new StringBuilder();
+        texte.append(String.format(Locale.ROOT, "Simulation : %d conducteurs, %s, asymétrie des sites s=%.2f, %.1f s%n",
+                parametres.conducteurs(),
+                parametres.debitParSeconde() > 0 ? String.format(Locale.ROOT, "%.1f demandes/s visées", parametres.debitParSeconde()) : "sans pause",
+                parametres.asymetrieSites(), dureeSecondes));
+        texte.append(String.format(Locale.ROOT, "Débit : %.1f demandes/s, %.1f réservations/s (%d demandes)%n",
+                debitDemandes(), debitReservations(), demandes));
+        texte.append(String.format(Locale.ROOT, "Issues : %s, aucune borne libre=%d, refus=%d, erreurs=%d%n",
+                issues, aucuneBorneLibre, refus(), erreurs));
+        texte.append(ligne("demande", demande)).append(ligne("recherche", recherche)).append(ligne("réservation", reservation));
+        texte.append(String.format(Locale.ROOT,
+                "Pool : %d acquisitions, attente moy.=%.3f ms, attente max=%.3f ms, expirations=%d, threads en attente max=%d",
+                acquisitionsConnexion, attenteMoyenneConnexionMillis, attenteMaxConnexionMillis, expirationsConnexion, threadsEnAttenteMax));
+        return texte.toString();
+    }
+
+    private static String ligne(String nom, Histogram h) {
+        return String.format(Locale.ROOT, "Latence %-11s : n=%d, p50=%.2f ms, p90=%.2f ms, p99=%.2f ms, p99.9=%.2f ms, max=%.2f ms%n",
+                nom, h.getTotalCount(), h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+    }
+}
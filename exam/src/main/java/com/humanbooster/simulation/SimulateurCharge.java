@@ -0,0 +1,256 @@
+package com.humanbooster.simulation;
+
+import com.humanbooster.DAO.BorneRechargeDAO;
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.LieuRechargeDAO;
+import com.humanbooster.DAO.ReservationDAO;
+import com.humanbooster.DAO.ResultatReservation;
+import com.humanbooster.DAO.SuiviAcquisitionConnexions;
+import com.humanbooster.DAO.UtilisateurDAO;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulateur de charge : des conducteurs concurrents (un thread chacun) cherchent une borne libre sur un site
+ * puis réservent un créneau, pendant une durée donnée, à travers les DAO.
+ * <p>
+ * Chaque demande vise un site tiré selon une loi de Zipf ({@link ParametresSimulation#asymetrieSites()}) et un créneau
+ * tiré dans l'horizon. La recherche liste les bornes du site ({@code findByLieu}) et les filtre par le calendrier
+ * de disponibilité ({@code findBornesLibres}) ; une des bornes libres est réservée par {@code reserver}.
+ * Avec un débit visé, les arrivées suivent un processus de Poisson et la latence d'une demande est comptée
+ * depuis son heure d'arrivée prévue, pour ne pas masquer les files d'attente lorsque les DAO saturent.
+ * <p>
+ * Le simulateur crée ses propres lieux, bornes et utilisateurs dans la base configurée : le lancer sur une base
+ * de test ou de préproduction.
+ */
+public final class SimulateurCharge {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulateurCharge.class);
+    /** Plus grande latence enregistrable dans les histogrammes : une heure, en µs. */
+    private static final long LATENCE_MAX_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final ParametresSimulation parametres;
+    private final UtilisateurDAO utilisateurDao;
+    private final LieuRechargeDAO lieuRechargeDao;
+    private final BorneRechargeDAO borneRechargeDao;
+    private final ReservationDAO reservationDao;
+
+    private List<LieuRecharge> lieux;
+    private Long[] utilisateurIds;
+    private LoiZipf loiSites;
+    private LocalDateTime debutHorizon;
+    private int nombreCreneaux;
+
+    public SimulateurCharge(ParametresSimulation parametres, UtilisateurDAO utilisateurDao, LieuRechargeDAO lieuRechargeDao,
+                            BorneRechargeDAO borneRechargeDao, ReservationDAO reservationDao) {
+        this.parametres = parametres;
+        this.utilisateurDao = utilisateurDao;
+        this.lieuRechargeDao = lieuRechargeDao;
+        this.borneRechargeDao = borneRechargeDao;
+        this.reservationDao = reservationDao;
+    }
+
+    /**
+     * Crée le jeu de données, fait tourner les conducteurs pendant la durée prévue et agrège leurs mesures.
+     *
+     * @return Le rapport de la simulation.
+     * @throws InterruptedException si le thread appelant est interrompu pendant la simulation.
+     */
+    public RapportSimulation executer() throws InterruptedException {
+        preparerDonnees();
+
+        long acquisitionsAvant = SuiviAcquisitionConnexions.getNombreAcquisitions();
+        double attenteAvantMillis = SuiviAcquisitionConnexions.getDureeTotaleAcquisitionMillis();
+        long expirationsAvant = SuiviAcquisitionConnexions.getNombreExpirations();
+        LongAccumulator threadsEnAttenteMax = new LongAccumulator(Math::max, 0);
+        ScheduledExecutorService echantillonneur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "simulation-echantillonneur-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        echantillonneur.scheduleAtFixedRate(
+                () -> threadsEnAttenteMax.accumulate(GestionnaireSessionFactory.getStatistiquesPool().threadsEnAttente()),
+                0, 100, TimeUnit.MILLISECONDS);
+
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService conducteurs = Executors.newFixedThreadPool(parametres.conducteurs(),
+                tache -> new Thread(tache, "conducteur-" + numero.incrementAndGet()));
+        LOGGER.info("Simulation démarrée : {} conducteurs pendant {} s.", parametres.conducteurs(), parametres.dureeSecondes());
+        long debut = System.nanoTime();
+        long fin = debut + TimeUnit.SECONDS.toNanos(parametres.dureeSecondes());
+        List<Future<Mesures>> resultats = new ArrayList<>();
+        for (int i = 0; i < parametres.conducteurs(); i++) {
+            resultats.add(conducteurs.submit(() -> conduire(fin)));
+        }
+
+        Mesures total = new Mesures();
+        try {
+            for (Future<Mesures> resultat : resultats) {
+                total.ajouter(resultat.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Un conducteur simulé s'est arrêté sur une erreur", e.getCause());
+        } finally {
+            conducteurs.shutdownNow();
+            echantillonneur.shutdownNow();
+        }
+        double dureeSecondes = (System.nanoTime() - debut) / 1e9;
+
+        long acquisitions = SuiviAcquisitionConnexions.getNombreAcquisitions() - acquisitionsAvant;
+        double attenteMillis = SuiviAcquisitionConnexions.getDureeTotaleAcquisitionMillis() - attenteAvantMillis;
+        Map<ResultatReservation.Issue, Long> issues = new EnumMap<>(ResultatReservation.Issue.class);
+        for (ResultatReservation.Issue issue : ResultatReservation.Issue.values()) {
+            if (total.issues[issue.ordinal()] > 0) {
+                issues.put(issue, total.issues[issue.ordinal()]);
+            }
+        }
+        return new RapportSimulation(parametres, dureeSecondes, total.demandes, total.aucuneBorneLibre, total.erreurs, issues,
+                total.demande, total.recherche, total.reservation,
+                acquisitions, acquisitions > 0 ? attenteMillis / acquisitions : 0,
+                SuiviAcquisitionConnexions.getDureeMaxAcquisitionMillis(),
+                SuiviAcquisitionConnexions.getNombreExpirations() - expirationsAvant,
+                (int) threadsEnAttenteMax.get());
+    }
+
+    /**
+     * Crée les lieux (du plus au moins fréquenté), leurs bornes et les utilisateurs de la simulation.
+     */
+    private void preparerDonnees() {
+        String serie = Long.toString(System.currentTimeMillis(), 36);
+        List<Utilisateur> utilisateurs = new ArrayList<>(parametres.utilisateurs());
+        for (int i = 0; i < parametres.utilisateurs(); i++) {
+            utilisateurs.add(new Utilisateur("conducteur-" + serie + "-" + i + "@simulation.example.com", "motdepasse", RoleUtilisateur.UTILISATEUR));
+        }
+        utilisateurDao.saveAll(utilisateurs);
+        utilisateurIds = utilisateurs.stream().map(Utilisateur::getId).toArray(Long[]::new);
+
+        lieux = new ArrayList<>(parametres.lieux());
+        for (int i = 0; i < parametres.lieux(); i++) {
+            lieux.add(new LieuRecharge("Simulation " + serie + " site " + i, i + " rue de la Montée en Charge"));
+        }
+        lieuRechargeDao.saveAll(lieux);
+
+        List<BorneRecharge> bornes = new ArrayList<>(parametres.lieux() * parametres.bornesParLieu());
+        for (LieuRecharge lieu : lieux) {
+            for (int i = 0; i < parametres.bornesParLieu(); i++) {
+                bornes.add(new BorneRecharge(7.0 + 15.0 * (i % 4), EtatBorne.DISPONIBLE, lieu));
+            }
+        }
+        borneRechargeDao.saveAll(bornes);
+
+        loiSites = new LoiZipf(lieux.size(), parametres.asymetrieSites());
+        debutHorizon = LocalDate.now().plusDays(1).atStartOfDay();
+        nombreCreneaux = parametres.horizonHeures() * 60 / parametres.dureeCreneauMinutes();
+        LOGGER.info("Jeu de données de simulation '{}' créé : {} utilisateurs, {} lieux, {} bornes ; le site le plus demandé reçoit {} % des demandes.",
+                serie, utilisateurs.size(), lieux.size(), bornes.size(), Math.round(loiSites.probabilite(0) * 100));
+    }
+
+    /**
+     * Boucle d'un conducteur jusqu'à l'instant {@code fin} (en {@link System#nanoTime()}).
+     */
+    private Mesures conduire(long fin) {
+        Mesures mesures = new Mesures();
+        ThreadLocalRandom hasard = ThreadLocalRandom.current();
+        double intervalleMoyenNanos = parametres.debitParSeconde() > 0
+                ? parametres.conducteurs() * 1e9 / parametres.debitParSeconde() : 0;
+        long arrivee = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (intervalleMoyenNanos > 0) {
+                arrivee += (long) (-Math.log(1 - hasard.nextDouble()) * intervalleMoyenNanos);
+                if (arrivee >= fin) {
+                    break;
+                }
+                long attente;
+                while ((attente = arrivee - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(attente);
+                }
+            } else {
+                arrivee = System.nanoTime();
+                if (arrivee >= fin) {
+                    break;
+                }
+            }
+            try {
+                traiterDemande(mesures, hasard);
+            } catch (RuntimeException e) {
+                mesures.erreurs++;
+                LOGGER.debug("Demande simulée en erreur", e);
+            }
+            mesures.demandes++;
+            enregistrer(mesures.demande, System.nanoTime() - arrivee);
+        }
+        return mesures;
+    }
+
+    private void traiterDemande(Mesures mesures, ThreadLocalRandom hasard) {
+        LieuRecharge lieu = lieux.get(loiSites.tirer());
+        LocalDateTime debut = debutHorizon.plusMinutes((long) hasard.nextInt(nombreCreneaux) * parametres.dureeCreneauMinutes());
+        LocalDateTime fin = debut.plusMinutes(parametres.dureeCreneauMinutes());
+
+        long debutRecherche = System.nanoTime();
+        List<BorneRecharge> libres = reservationDao.findBornesLibres(borneRechargeDao.findByLieu(lieu), debut, fin);
+        enregistrer(mesures.recherche, System.nanoTime() - debutRecherche);
+        if (libres.isEmpty()) {
+            mesures.aucuneBorneLibre++;
+            return;
+        }
+        BorneRecharge libre = libres.get(hasard.nextInt(libres.size()));
+
+        long debutReservation = System.nanoTime();
+        ResultatReservation resultat = reservationDao.reserver(utilisateurIds[hasard.nextInt(utilisateurIds.length)], libre.getId(), debut, fin);
+        enregistrer(mesures.reservation, System.nanoTime() - debutReservation);
+        mesures.issues[resultat.issue().ordinal()]++;
+    }
+
+    private static void enregistrer(Histogram histogramme, long dureeNanos) {
+        histogramme.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(dureeNanos), LATENCE_MAX_MICROS));
+    }
+
+    /**
+     * Mesures d'un conducteur, propres à son thread puis additionnées en fin de simulation.
+     */
+    private static final class Mesures {
+        final Histogram demande = new Histogram(LATENCE_MAX_MICROS, 3);
+        final Histogram recherche = new Histogram(LATENCE_MAX_MICROS, 3);
+        final Histogram reservation = new Histogram(LATENCE_MAX_MICROS, 3);
+        final long[] issues = new long[ResultatReservation.Issue.values().length];
+        long demandes;
+        long aucuneBorneLibre;
+        long erreurs;
+
+        void ajouter(Mesures autres) {
+            demande.add(autres.demande);
+            recherche.add(autres.recherche);
+            reservation.add(autres.reservation);
+            for (int i = 0; i < issues.length; i++) {
+                issues[i] += autres.issues[i];
+            }
+            demandes += autres.demandes;
+            aucuneBorneLibre += autres.aucuneBorneLibre;
+            erreurs += autres.erreurs;
+        }
+    }
+}
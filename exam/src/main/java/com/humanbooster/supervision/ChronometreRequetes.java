@@ -0,0 +1,84 @@
+package com.humanbooster.supervision;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Mesure la durée d'exécution JDBC de chaque instruction (et de chaque lot) d'une session,
+ * et la transmet au {@link JournalRequetesLentes} avec le SQL retenu par {@link InspecteurSql}
+ * et la méthode DAO en cours ({@link InstrumentationDao#methodeCourante()}).
+ * Une instance par session, déclarée par {@code hibernate.session.events.auto}.
+ * <p>
+ * Un lot JDBC est exécuté bien après la préparation de son instruction, souvent quand Hibernate prépare
+ * déjà l'instruction d'une autre table : le dernier SQL du thread ne le désigne pas. Le SQL de chaque
+ * instruction est donc noté à sa préparation ; celles exécutées seules sont retirées aussitôt, il reste
+ * celles des lots, exécutés dans l'ordre de leur préparation. Un lot plein est exécuté puis complété avec
+ * la même instruction : il garde son SQL jusqu'à l'exécution du lot suivant.
+ */
+public class ChronometreRequetes implements SessionEventListener {
+
+    /** Borne de sécurité, pour les instructions préparées puis abandonnées sans être exécutées. */
+    private static final int MAX_LOTS_EN_ATTENTE = 64;
+
+    /** SQL des instructions préparées et pas encore exécutées, de la plus ancienne à la plus récente. */
+    private final Deque<String> preparees = new ArrayDeque<>();
+    private long debutExecution;
+    private long debutLot;
+    /** SQL du lot en cours d'exécution, conservé pour les exécutions suivantes de la même instruction. */
+    private String sqlLot;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        String sql = InspecteurSql.derniereInstruction();
+        if (sql != null) {
+            preparees.addLast(sql);
+            if (preparees.size() > MAX_LOTS_EN_ATTENTE) {
+                preparees.removeFirst();
+            }
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        debutExecution = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        String sql = InspecteurSql.derniereInstruction();
+        preparees.removeLastOccurrence(sql);
+        JournalRequetesLentes.enregistrer(sql, System.nanoTime() - debutExecution, InstrumentationDao.methodeCourante());
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        String sql = preparees.pollFirst();
+        if (sql != null) {
+            sqlLot = sql;
+        } else if (sqlLot == null) {
+            sqlLot = InspecteurSql.derniereInstruction();
+        }
+        debutLot = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        JournalRequetesLentes.enregistrer(sqlLot, System.nanoTime() - debutLot, InstrumentationDao.methodeCourante());
+    }
+
+    /**
+     * @return Le SQL attribué au dernier lot exécuté, ou {@code null}.
+     */
+    String sqlDuLot() {
+        return sqlLot;
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        // Lots d'une transaction annulée : jamais exécutés
+        preparees.clear();
+        sqlLot = null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.humanbooster.supervision;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalise une instruction SQL en « empreinte » : les valeurs littérales sont remplacées par {@code ?},
+ * les listes {@code IN (?, ?, ...)} réduites à {@code IN (?+)}, les commentaires retirés et les espaces
+ * uniformisés. Deux requêtes de même forme, quelles que soient leurs valeurs, ont la même empreinte.
+ */
+public final class EmpreinteSql {
+
+    private static final Pattern COMMENTAIRES = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern CHAINES = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NOMBRES = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:e[+-]?\\d+)?(?![\\w.])", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LISTES = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACES = Pattern.compile("\\s+");
+
+    private EmpreinteSql() {
+    }
+
+    /**
+     * @param sql L'instruction SQL telle qu'envoyée au pilote JDBC.
+     * @return Son empreinte, en minuscules.
+     */
+    public static String de(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String empreinte = COMMENTAIRES.matcher(sql).replaceAll(" ");
+        empreinte = CHAINES.matcher(empreinte).replaceAll("?");
+        empreinte = NOMBRES.matcher(empreinte).replaceAll("?");
+        empreinte = LISTES.matcher(empreinte).replaceAll("(?+)");
+        empreinte = ESPACES.matcher(empreinte).replaceAll(" ");
+        return empreinte.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,143 @@
+package com.humanbooster.supervision;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.humanbooster.DAO.PolitiqueReessai;
+import com.humanbooster.DAO.StatistiquesPool;
+import com.humanbooster.DAO.StatistiquesRegionCache;
+import com.humanbooster.DAO.TamponEtatsBornes;
+import org.HdrHistogram.Histogram;
+import org.hibernate.stat.Statistics;
+
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Met en forme toutes les mesures de l'application au format texte de Prometheus (version 0.0.4) :
+ * latences et compteurs des méthodes DAO, statistiques Hibernate, caches, pool de connexions
+ * réessais sur conflit de version et requêtes lentes. Servi par {@link Supervision} sur {@code /metrics}.
+ */
+public final class ExportPrometheus {
+
+    private ExportPrometheus() {
+    }
+
+    /**
+     * @return Le texte exposé sur {@code /metrics}, calculé à l'instant de l'appel.
+     */
+    public static String texte() {
+        StringBuilder sortie = new StringBuilder(8192);
+
+        entete(sortie, "humanbooster_dao_latence_secondes", "summary", "Durée des appels aux méthodes DAO.");
+        for (StatistiquesMethode stats : InstrumentationDao.toutes()) {
+            Histogram h = stats.histogramme();
+            String etiquettes = "dao=\"" + stats.getDao() + "\",methode=\"" + stats.getMethode() + "\"";
+            for (double quantile : new double[]{0.5, 0.99, 0.999}) {
+                ligne(sortie, "humanbooster_dao_latence_secondes{" + etiquettes + ",quantile=\"" + quantile + "\"}",
+                        h.getValueAtPercentile(quantile * 100) / 1e6);
+            }
+            ligne(sortie, "humanbooster_dao_latence_secondes_sum{" + etiquettes + "}", h.getMean() * h.getTotalCount() / 1e6);
+            ligne(sortie, "humanbooster_dao_latence_secondes_count{" + etiquettes + "}", h.getTotalCount());
+        }
+        entete(sortie, "humanbooster_dao_erreurs_total", "counter", "Appels DAO en échec : exception levée ou erreur interceptée par le DAO.");
+        for (StatistiquesMethode stats : InstrumentationDao.toutes()) {
+            ligne(sortie, "humanbooster_dao_erreurs_total{dao=\"" + stats.getDao() + "\",methode=\"" + stats.getMethode() + "\"}", stats.getErreurs());
+        }
+
+        Statistics hibernate = GestionnaireSessionFactory.getSessionFactory().getStatistics();
+        compteur(sortie, "hibernate_requetes_total", "Requêtes HQL/SQL exécutées.", hibernate.getQueryExecutionCount());
+        jauge(sortie, "hibernate_requete_duree_max_secondes", "Durée de la requête la plus lente.", hibernate.getQueryExecutionMaxTime() / 1e3);
+        compteur(sortie, "hibernate_entites_chargees_total", "Entités chargées depuis la base.", hibernate.getEntityLoadCount());
+        compteur(sortie, "hibernate_entites_recuperees_total", "Entités récupérées par une requête supplémentaire (chargement paresseux).", hibernate.getEntityFetchCount());
+        compteur(sortie, "hibernate_flushs_total", "Flushs de session.", hibernate.getFlushCount());
+        compteur(sortie, "hibernate_sessions_ouvertes_total", "Sessions ouvertes.", hibernate.getSessionOpenCount());
+        compteur(sortie, "hibernate_transactions_total", "Transactions terminées.", hibernate.getTransactionCount());
+        compteur(sortie, "hibernate_instructions_preparees_total", "Instructions JDBC préparées.", hibernate.getPrepareStatementCount());
+        compteur(sortie, "hibernate_cache_requetes_succes_total", "Résultats servis par le cache de requêtes.", hibernate.getQueryCacheHitCount());
+        compteur(sortie, "hibernate_cache_requetes_echecs_total", "Résultats absents du cache de requêtes.", hibernate.getQueryCacheMissCount());
+
+        entete(sortie, "hibernate_cache_succes_total", "counter", "Lectures servies par le cache de second niveau, par région.");
+        for (StatistiquesRegionCache region : GestionnaireSessionFactory.getStatistiquesCache()) {
+            ligne(sortie, "hibernate_cache_succes_total{region=\"" + region.region() + "\"}", region.succes());
+        }
+        entete(sortie, "hibernate_cache_echecs_total", "counter", "Lectures absentes du cache de second niveau, par région.");
+        for (StatistiquesRegionCache region : GestionnaireSessionFactory.getStatistiquesCache()) {
+            ligne(sortie, "hibernate_cache_echecs_total{region=\"" + region.region() + "\"}", region.echecs());
+        }
+
+        StatistiquesPool pool = GestionnaireSessionFactory.getStatistiquesPool();
+        entete(sortie, "humanbooster_pool_connexions", "gauge", "Connexions du pool, par état.");
+        ligne(sortie, "humanbooster_pool_connexions{etat=\"actives\"}", pool.connexionsActives());
+        ligne(sortie, "humanbooster_pool_connexions{etat=\"inactives\"}", pool.connexionsInactives());
+        ligne(sortie, "humanbooster_pool_connexions{etat=\"totales\"}", pool.connexionsTotales());
+        jauge(sortie, "humanbooster_pool_threads_en_attente", "Threads en attente d'une connexion.", pool.threadsEnAttente());
+        compteur(sortie, "humanbooster_pool_acquisitions_total", "Connexions obtenues du pool.", pool.nombreAcquisitions());
+        jauge(sortie, "humanbooster_pool_acquisition_moyenne_secondes", "Temps moyen d'attente d'une connexion.", pool.acquisitionMoyenneMillis() / 1e3);
+        jauge(sortie, "humanbooster_pool_acquisition_max_secondes", "Temps d'attente maximal d'une connexion.", pool.acquisitionMaxMillis() / 1e3);
+        compteur(sortie, "humanbooster_pool_expirations_total", "Demandes de connexion expirées.", pool.nombreExpirations());
+
+        entete(sortie, "humanbooster_reessai_conflits_total", "counter", "Conflits de version (@Version) rencontrés, par politique.");
+        for (PolitiqueReessai politique : PolitiqueReessai.toutes()) {
+            ligne(sortie, "humanbooster_reessai_conflits_total{politique=\"" + politique.getNom() + "\"}", politique.getConflits());
+        }
+        entete(sortie, "humanbooster_reessai_abandons_total", "counter", "Opérations abandonnées après épuisement des réessais.");
+        for (PolitiqueReessai politique : PolitiqueReessai.toutes()) {
+            ligne(sortie, "humanbooster_reessai_abandons_total{politique=\"" + politique.getNom() + "\"}", politique.getAbandons());
+        }
+
+        serieTampons(sortie, "humanbooster_tampon_etats_recus_total", "counter", "États de bornes signalés au tampon d'écriture différée.", TamponEtatsBornes::getRecus);
+        serieTampons(sortie, "humanbooster_tampon_etats_coalesces_total", "counter", "États remplacés par un état plus récent avant écriture, ou identiques au dernier état écrit.", TamponEtatsBornes::getCoalesces);
+        serieTampons(sortie, "humanbooster_tampon_etats_rejetes_total", "counter", "États rejetés, tampon plein ou fermé.", TamponEtatsBornes::getRejetes);
+        serieTampons(sortie, "humanbooster_tampon_etats_envoyes_total", "counter", "États écrits en base par les vidages, écritures en échec exclues.", TamponEtatsBornes::getEnvoyes);
+        serieTampons(sortie, "humanbooster_tampon_etats_modifies_total", "counter", "Bornes dont l'état a changé en base.", TamponEtatsBornes::getModifies);
+        serieTampons(sortie, "humanbooster_tampon_etats_echecs_total", "counter", "États dont l'écriture a échoué, remis en attente ou rejetés.", TamponEtatsBornes::getEchecs);
+        serieTampons(sortie, "humanbooster_tampon_etats_vidages_total", "counter", "Vidages du tampon.", TamponEtatsBornes::getVidages);
+        serieTampons(sortie, "humanbooster_tampon_etats_en_attente", "gauge", "Bornes dont l'état attend d'être écrit.", TamponEtatsBornes::getEnAttente);
+
+        entete(sortie, "humanbooster_requetes_lentes_total", "counter", "Exécutions au-delà du seuil de lenteur, par empreinte SQL.");
+        for (JournalRequetesLentes.RequeteLente requete : JournalRequetesLentes.toutes()) {
+            ligne(sortie, "humanbooster_requetes_lentes_total{empreinte=\"" + echapper(requete.getEmpreinte()) + "\"}", requete.getNombre());
+        }
+        entete(sortie, "humanbooster_requetes_lentes_secondes_total", "counter", "Durée cumulée des exécutions lentes, par empreinte SQL.");
+        for (JournalRequetesLentes.RequeteLente requete : JournalRequetesLentes.toutes()) {
+            ligne(sortie, "humanbooster_requetes_lentes_secondes_total{empreinte=\"" + echapper(requete.getEmpreinte()) + "\"}",
+                    requete.getDureeTotaleNanos() / 1e9);
+        }
+        return sortie.toString();
+    }
+
+    private static void serieTampons(StringBuilder sortie, String nom, String type, String aide, ToDoubleFunction<TamponEtatsBornes> valeur) {
+        entete(sortie, nom, type, aide);
+        for (TamponEtatsBornes tampon : TamponEtatsBornes.tous()) {
+            ligne(sortie, nom + "{tampon=\"" + echapper(tampon.getNom()) + "\"}", valeur.applyAsDouble(tampon));
+        }
+    }
+
+    private static String echapper(String valeur) {
+        return valeur.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void entete(StringBuilder sortie, String nom, String type, String aide) {
+        sortie.append("# HELP ").append(nom).append(' ').append(aide).append('\n');
+        sortie.append("# TYPE ").append(nom).append(' ').append(type).append('\n');
+    }
+
+    private static void compteur(StringBuilder sortie, String nom, String aide, double valeur) {
+        entete(sortie, nom, "counter", aide);
+        ligne(sortie, nom, valeur);
+    }
+
+    private static void jauge(StringBuilder sortie, String nom, String aide, double valeur) {
+        entete(sortie, nom, "gauge", aide);
+        ligne(sortie, nom, valeur);
+    }
+
+    private static void ligne(StringBuilder sortie, String serie, double valeur) {
+        sortie.append(serie).append(' ');
+        if (valeur == Math.rint(valeur) && Math.abs(valeur) < 1e15) {
+            sortie.append((long) valeur);
+        } else {
+            sortie.append(String.format(Locale.ROOT, "%.9g", valeur));
+        }
+        sortie.append('\n');
+    }
+}
@@ -0,0 +1,26 @@
+package com.humanbooster.supervision;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Retient, pour le thread courant, la dernière instruction SQL préparée par Hibernate,
+ * afin que {@link ChronometreRequetes} puisse associer une durée d'exécution à son texte.
+ * Déclaré par {@code hibernate.session_factory.statement_inspector} ; le SQL n'est pas modifié.
+ */
+public class InspecteurSql implements StatementInspector {
+
+    private static final ThreadLocal<String> DERNIERE_INSTRUCTION = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        DERNIERE_INSTRUCTION.set(sql);
+        return sql;
+    }
+
+    /**
+     * @return La dernière instruction préparée sur ce thread, ou {@code null}.
+     */
+    static String derniereInstruction() {
+        return DERNIERE_INSTRUCTION.get();
+    }
+}
@@ -0,0 +1,131 @@
+package com.humanbooster.supervision;
+
+import com.humanbooster.DAO.EchecsDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Couche d'instrumentation des DAO : enveloppe une implémentation dans un proxy de son interface
+ * qui mesure chaque appel de méthode (durée, nombre d'appels, erreurs). Une erreur est une exception levée
+ * par la méthode, ou un échec qu'elle a intercepté et signalé par {@link EchecsDao#signaler()} avant de
+ * renvoyer une valeur par défaut.
+ * <p>
+ * Exemple : {@code UtilisateurDAO dao = InstrumentationDao.instrumenter(UtilisateurDAO.class, new UtilisateurDAOImpl());}
+ * <p>
+ * Les mesures de chaque méthode sont publiées en JMX ({@link StatistiquesMethodeMXBean}) et dans
+ * l'export Prometheus ({@link ExportPrometheus}). Pendant un appel, {@link #methodeCourante()} donne
+ * la méthode DAO en cours d'exécution sur le thread, pour rattacher les requêtes SQL à leur origine.
+ */
+public final class InstrumentationDao {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentationDao.class);
+
+    private static final Map<String, StatistiquesMethode> STATISTIQUES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> METHODE_COURANTE = new ThreadLocal<>();
+
+    private InstrumentationDao() {
+    }
+
+    /**
+     * Enveloppe un DAO dans un proxy instrumenté.
+     *
+     * @param interfaceDao L'interface du DAO (ex : {@code ReservationDAO.class}).
+     * @param dao          L'implémentation à instrumenter.
+     * @param <T>          Le type de l'interface.
+     * @return Un proxy implémentant {@code interfaceDao}, qui délègue chaque appel à {@code dao}.
+     */
+    public static <T> T instrumenter(Class<T> interfaceDao, T dao) {
+        if (!interfaceDao.isInterface()) {
+            throw new IllegalArgumentException(interfaceDao.getName() + " n'est pas une interface");
+        }
+        String nomDao = interfaceDao.getSimpleName();
+        for (Method methode : interfaceDao.getMethods()) {
+            statistiques(nomDao, methode.getName());
+        }
+        InvocationHandler gestionnaire = (proxy, methode, arguments) -> {
+            if (methode.getDeclaringClass() == Object.class) {
+                return invoquer(dao, methode, arguments);
+            }
+            StatistiquesMethode stats = statistiques(nomDao, methode.getName());
+            String precedente = METHODE_COURANTE.get();
+            METHODE_COURANTE.set(nomDao + "." + methode.getName());
+            boolean echecAppelant = EchecsDao.reinitialiser();
+            long debut = System.nanoTime();
+            boolean enErreur = true;
+            try {
+                Object resultat = invoquer(dao, methode, arguments);
+                enErreur = false;
+                return resultat;
+            } finally {
+                enErreur |= EchecsDao.reinitialiser();
+                stats.enregistrer(System.nanoTime() - debut, enErreur);
+                if (echecAppelant) {
+                    EchecsDao.signaler();
+                }
+                if (precedente == null) {
+                    METHODE_COURANTE.remove();
+                } else {
+                    METHODE_COURANTE.set(precedente);
+                }
+            }
+        };
+        return interfaceDao.cast(Proxy.newProxyInstance(interfaceDao.getClassLoader(), new Class<?>[]{interfaceDao}, gestionnaire));
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] arguments) throws Throwable {
+        try {
+            return methode.invoke(cible, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return La méthode DAO instrumentée en cours d'exécution sur ce thread (ex : {@code "ReservationDAO.reserver"}),
+     * ou {@code null} hors d'un appel DAO.
+     */
+    public static String methodeCourante() {
+        return METHODE_COURANTE.get();
+    }
+
+    /**
+     * @return Les mesures de toutes les méthodes instrumentées, triées par DAO puis par méthode.
+     */
+    public static List<StatistiquesMethode> toutes() {
+        List<StatistiquesMethode> liste = new ArrayList<>(STATISTIQUES.values());
+        liste.sort(Comparator.comparing(StatistiquesMethode::getDao).thenComparing(StatistiquesMethode::getMethode));
+        return liste;
+    }
+
+    private static StatistiquesMethode statistiques(String dao, String methode) {
+        return STATISTIQUES.computeIfAbsent(dao + "." + methode, cle -> {
+            StatistiquesMethode stats = new StatistiquesMethode(dao, methode);
+            publierJmx(stats);
+            return stats;
+        });
+    }
+
+    private static void publierJmx(StatistiquesMethode stats) {
+        try {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nom = new ObjectName("com.humanbooster:type=Dao,dao=" + stats.getDao() + ",methode=" + stats.getMethode());
+            if (!serveur.isRegistered(nom)) {
+                serveur.registerMBean(stats, nom);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Publication JMX impossible pour {}.{} : {}", stats.getDao(), stats.getMethode(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.humanbooster.supervision;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal des requêtes lentes : seules les instructions dont l'exécution JDBC dépasse
+ * {@code humanbooster.requetes_lentes.seuil_ms} (200 ms par défaut) sont signalées, avec la méthode DAO
+ * qui les a émises. Elles sont agrégées par empreinte ({@link EmpreinteSql}) : nombre, durée totale
+ * et durée maximale, consultables par {@link #toutes()} et exportées sur {@code /metrics}.
+ * <p>
+ * Le nombre d'empreintes suivies est borné ({@value #EMPREINTES_MAX}) ; au-delà, les requêtes lentes
+ * sont comptées sous l'empreinte {@value #AUTRES}. Chaque requête lente est aussi journalisée en WARN
+ * (journal {@code com.humanbooster.supervision}).
+ */
+public final class JournalRequetesLentes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalRequetesLentes.class);
+    static final int EMPREINTES_MAX = 500;
+    static final String AUTRES = "(autres)";
+
+    private static final Map<String, RequeteLente> REQUETES = new ConcurrentHashMap<>();
+    private static volatile long seuilNanos = -1;
+
+    private JournalRequetesLentes() {
+    }
+
+    /**
+     * Prend en compte une exécution ; ignorée si elle est sous le seuil.
+     *
+     * @param sql        L'instruction exécutée (peut être {@code null} si inconnue).
+     * @param dureeNanos La durée d'exécution JDBC.
+     * @param methodeDao La méthode DAO à l'origine de l'instruction, ou {@code null}.
+     */
+    static void enregistrer(String sql, long dureeNanos, String methodeDao) {
+        if (dureeNanos < seuilNanos()) {
+            return;
+        }
+        String empreinte = EmpreinteSql.de(sql);
+        RequeteLente requete = REQUETES.get(empreinte);
+        if (requete == null) {
+            String cle = REQUETES.size() < EMPREINTES_MAX ? empreinte : AUTRES;
+            requete = REQUETES.computeIfAbsent(cle, RequeteLente::new);
+        }
+        requete.ajouter(dureeNanos, methodeDao);
+        LOGGER.warn("Requête lente ({} ms, {}) : {}", dureeNanos / 1_000_000, methodeDao != null ? methodeDao : "hors DAO", empreinte);
+    }
+
+    /**
+     * @return Les requêtes lentes agrégées, de la plus coûteuse (durée totale) à la moins coûteuse.
+     */
+    public static List<RequeteLente> toutes() {
+        List<RequeteLente> liste = new ArrayList<>(REQUETES.values());
+        liste.sort(Comparator.comparingLong(RequeteLente::getDureeTotaleNanos).reversed());
+        return liste;
+    }
+
+    private static long seuilNanos() {
+        long seuil = seuilNanos;
+        if (seuil < 0) {
+            seuil = GestionnaireSessionFactory.getParametreEntier("humanbooster.requetes_lentes.seuil_ms", 200) * 1_000_000L;
+            seuilNanos = seuil;
+        }
+        return seuil;
+    }
+
+    /**
+     * Agrégat des exécutions lentes d'une même empreinte.
+     */
+    public static final class RequeteLente {
+
+        private final String empreinte;
+        private final LongAdder nombre = new LongAdder();
+        private final LongAdder dureeTotaleNanos = new LongAdder();
+        private final LongAccumulator dureeMaxNanos = new LongAccumulator(Math::max, 0);
+        private volatile String derniereMethodeDao;
+
+        RequeteLente(String empreinte) {
+            this.empreinte = empreinte;
+        }
+
+        void ajouter(long dureeNanos, String methodeDao) {
+            nombre.increment();
+            dureeTotaleNanos.add(dureeNanos);
+            dureeMaxNanos.accumulate(dureeNanos);
+            if (methodeDao != null) {
+                derniereMethodeDao = methodeDao;
+            }
+        }
+
+        public String getEmpreinte() {
+            return empreinte;
+        }
+
+        public long getNombre() {
+            return nombre.sum();
+        }
+
+        public long getDureeTotaleNanos() {
+            return dureeTotaleNanos.sum();
+        }
+
+        public long getDureeMaxNanos() {
+            return dureeMaxNanos.get();
+        }
+
+        /** @return La dernière méthode DAO ayant émis cette requête, ou {@code null} si aucune n'est connue. */
+        public String getDerniereMethodeDao() {
+            return derniereMethodeDao;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Requête lente [%d fois, total=%.1f ms, max=%.1f ms, dao=%s] %s",
+                    getNombre(), getDureeTotaleNanos() / 1e6, getDureeMaxNanos() / 1e6, derniereMethodeDao, empreinte);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.humanbooster.supervision;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Publie en JMX les compteurs de {@link Statistics} utiles au suivi des DAO :
+ * requêtes, chargements d'entités, flushs et caches.
+ */
+public class StatistiquesHibernate implements StatistiquesHibernateMXBean {
+
+    private final Statistics statistiques;
+
+    public StatistiquesHibernate(Statistics statistiques) {
+        this.statistiques = statistiques;
+    }
+
+    @Override
+    public long getRequetesExecutees() {
+        return statistiques.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getDureeMaxRequeteMillis() {
+        return statistiques.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getRequeteLaPlusLente() {
+        return statistiques.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getEntitesChargees() {
+        return statistiques.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntitesRecuperees() {
+        return statistiques.getEntityFetchCount();
+    }
+
+    @Override
+    public long getFlushs() {
+        return statistiques.getFlushCount();
+    }
+
+    @Override
+    public long getSessionsOuvertes() {
+        return statistiques.getSessionOpenCount();
+    }
+
+    @Override
+    public long getTransactions() {
+        return statistiques.getTransactionCount();
+    }
+
+    @Override
+    public long getInstructionsPreparees() {
+        return statistiques.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getSuccesCacheNiveau2() {
+        return statistiques.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getEchecsCacheNiveau2() {
+        return statistiques.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getSuccesCacheRequetes() {
+        return statistiques.getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getEchecsCacheRequetes() {
+        return statistiques.getQueryCacheMissCount();
+    }
+}
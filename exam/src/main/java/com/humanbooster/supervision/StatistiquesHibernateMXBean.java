@@ -0,0 +1,34 @@
+package com.humanbooster.supervision;
+
+/**
+ * Vue JMX des statistiques Hibernate ({@code hibernate.generate_statistics}), publiée sous
+ * {@code com.humanbooster:type=Hibernate}.
+ */
+public interface StatistiquesHibernateMXBean {
+
+    long getRequetesExecutees();
+
+    long getDureeMaxRequeteMillis();
+
+    String getRequeteLaPlusLente();
+
+    long getEntitesChargees();
+
+    long getEntitesRecuperees();
+
+    long getFlushs();
+
+    long getSessionsOuvertes();
+
+    long getTransactions();
+
+    long getInstructionsPreparees();
+
+    long getSuccesCacheNiveau2();
+
+    long getEchecsCacheNiveau2();
+
+    long getSuccesCacheRequetes();
+
+    long getEchecsCacheRequetes();
+}
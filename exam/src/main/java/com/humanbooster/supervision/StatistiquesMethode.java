@@ -0,0 +1,103 @@
+package com.humanbooster.supervision;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une méthode DAO : nombre d'appels, nombre d'erreurs et histogramme des durées.
+ * <p>
+ * L'enregistrement passe par un {@link Recorder} HdrHistogram, sans verrou pour les threads appelants ;
+ * les lectures basculent l'intervalle en cours dans un histogramme cumulé, d'où sont tirés les percentiles.
+ * Les durées sont enregistrées en microsecondes, avec 3 chiffres significatifs.
+ */
+public class StatistiquesMethode implements StatistiquesMethodeMXBean {
+
+    private final String dao;
+    private final String methode;
+    private final Recorder enregistreur = new Recorder(3);
+    private final Histogram cumul = new Histogram(3);
+    private final LongAdder appels = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+    private Histogram intervalle;
+
+    StatistiquesMethode(String dao, String methode) {
+        this.dao = dao;
+        this.methode = methode;
+    }
+
+    /**
+     * Enregistre un appel.
+     *
+     * @param dureeNanos La durée de l'appel.
+     * @param enErreur   {@code true} si l'appel a levé une exception ou signalé un échec ({@code EchecsDao}).
+     */
+    void enregistrer(long dureeNanos, boolean enErreur) {
+        enregistreur.recordValue(Math.max(0, dureeNanos / 1_000));
+        appels.increment();
+        if (enErreur) {
+            erreurs.increment();
+        }
+    }
+
+    /**
+     * @return Une copie de l'histogramme cumulé des durées (µs), à jour à l'instant de l'appel.
+     */
+    public synchronized Histogram histogramme() {
+        intervalle = enregistreur.getIntervalHistogram(intervalle);
+        cumul.add(intervalle);
+        return cumul.copy();
+    }
+
+    public String getDao() {
+        return dao;
+    }
+
+    public String getMethode() {
+        return methode;
+    }
+
+    @Override
+    public long getAppels() {
+        return appels.sum();
+    }
+
+    @Override
+    public long getErreurs() {
+        return erreurs.sum();
+    }
+
+    @Override
+    public double getMoyenneMicros() {
+        return histogramme().getMean();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return histogramme().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return histogramme().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getP999Micros() {
+        return histogramme().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return histogramme().getMaxValue();
+    }
+
+    @Override
+    public String toString() {
+        Histogram h = histogramme();
+        return dao + "." + methode + " [appels=" + getAppels() + ", erreurs=" + getErreurs()
+                + ", p50=" + h.getValueAtPercentile(50) + " µs, p99=" + h.getValueAtPercentile(99)
+                + " µs, p99.9=" + h.getValueAtPercentile(99.9) + " µs, max=" + h.getMaxValue() + " µs]";
+    }
+}
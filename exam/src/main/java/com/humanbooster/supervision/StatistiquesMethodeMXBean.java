@@ -0,0 +1,22 @@
+package com.humanbooster.supervision;
+
+/**
+ * Vue JMX des mesures d'une méthode DAO (durées en microsecondes, depuis le démarrage).
+ * Publiée sous {@code com.humanbooster:type=Dao,dao=<interface>,methode=<méthode>}.
+ */
+public interface StatistiquesMethodeMXBean {
+
+    long getAppels();
+
+    long getErreurs();
+
+    double getMoyenneMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+}
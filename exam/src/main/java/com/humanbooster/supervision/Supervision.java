@@ -0,0 +1,87 @@
+package com.humanbooster.supervision;
+
+import com.humanbooster.DAO.GestionnaireSessionFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Point d'entrée de la supervision : publie les statistiques Hibernate en JMX et sert
+ * {@link ExportPrometheus} sur {@code http://<hôte>:<port>/metrics} avec le serveur HTTP du JDK.
+ * <p>
+ * Le port est donné par {@code humanbooster.supervision.port} (9404 par défaut) ; une valeur
+ * nulle ou négative désactive l'export HTTP, la publication JMX restant active.
+ */
+public final class Supervision {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Supervision.class);
+
+    private static HttpServer serveur;
+
+    private Supervision() {
+    }
+
+    /**
+     * Démarre la supervision. Sans effet si elle est déjà démarrée.
+     */
+    public static synchronized void demarrer() {
+        publierStatistiquesHibernate();
+        int port = GestionnaireSessionFactory.getParametreEntier("humanbooster.supervision.port", 9404);
+        if (serveur != null || port <= 0) {
+            return;
+        }
+        try {
+            HttpServer http = HttpServer.create(new InetSocketAddress(port), 0);
+            http.createContext("/metrics", echange -> {
+                try {
+                    byte[] corps = ExportPrometheus.texte().getBytes(StandardCharsets.UTF_8);
+                    echange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    echange.sendResponseHeaders(200, corps.length);
+                    try (OutputStream sortie = echange.getResponseBody()) {
+                        sortie.write(corps);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.error("Erreur lors de l'export des métriques : {}", e.getMessage());
+                    echange.sendResponseHeaders(500, -1);
+                } finally {
+                    echange.close();
+                }
+            });
+            http.start();
+            serveur = http;
+            LOGGER.info("Métriques Prometheus exposées sur http://localhost:{}/metrics", port);
+        } catch (IOException e) {
+            LOGGER.warn("Impossible d'exposer les métriques sur le port {} : {}", port, e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête l'export HTTP des métriques.
+     */
+    public static synchronized void arreter() {
+        if (serveur != null) {
+            serveur.stop(0);
+            serveur = null;
+        }
+    }
+
+    private static void publierStatistiquesHibernate() {
+        try {
+            MBeanServer serveurMBean = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nom = new ObjectName("com.humanbooster:type=Hibernate");
+            if (!serveurMBean.isRegistered(nom)) {
+                serveurMBean.registerMBean(new StatistiquesHibernate(GestionnaireSessionFactory.getSessionFactory().getStatistics()), nom);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Publication JMX des statistiques Hibernate impossible : {}", e.getMessage());
+        }
+    }
+}
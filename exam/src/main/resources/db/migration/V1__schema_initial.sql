@@ -0,0 +1,61 @@
+-- Schéma initial : tables des entités, tables de séquences, contraintes et index.
+-- Équivalent du schéma que produisait hibernate.hbm2ddl.auto=update (MySQL 8).
+-- Les bases déjà créées par hbm2ddl sont reprises à cette version sans exécuter ce script.
+
+create table utilisateurs (
+    id bigint not null,
+    email varchar(150) not null,
+    mot_de_passe varchar(255) not null,
+    code_validation varchar(36),
+    valide bit not null,
+    role enum ('UTILISATEUR','ADMINISTRATEUR') not null,
+    primary key (id),
+    constraint uk_utilisateurs_email unique (email)
+) engine=InnoDB;
+
+create table lieux_recharge (
+    id bigint not null,
+    nom varchar(200) not null,
+    adresse varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bornes_recharge (
+    id bigint not null,
+    tarif_horaire float(53) not null,
+    etat_borne enum ('DISPONIBLE','OCCUPEE','HORS_SERVICE') not null,
+    lieu_id bigint not null,
+    version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reservations (
+    id bigint not null,
+    date_debut datetime(6) not null,
+    date_fin datetime(6) not null,
+    statut enum ('EN_ATTENTE','ACCEPTEE','REFUSEE') not null,
+    utilisateur_id bigint not null,
+    borne_id bigint not null,
+    version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Séquences émulées par table (MySQL n'a pas de séquences), une valeur réservée par bloc de 50
+create table utilisateurs_seq (next_val bigint) engine=InnoDB;
+insert into utilisateurs_seq values (1);
+create table lieux_recharge_seq (next_val bigint) engine=InnoDB;
+insert into lieux_recharge_seq values (1);
+create table bornes_recharge_seq (next_val bigint) engine=InnoDB;
+insert into bornes_recharge_seq values (1);
+create table reservations_seq (next_val bigint) engine=InnoDB;
+insert into reservations_seq values (1);
+
+alter table bornes_recharge add constraint fk_bornes_recharge_lieu foreign key (lieu_id) references lieux_recharge (id);
+alter table reservations add constraint fk_reservations_utilisateur foreign key (utilisateur_id) references utilisateurs (id);
+alter table reservations add constraint fk_reservations_borne foreign key (borne_id) references bornes_recharge (id);
+
+create index idx_lieux_recharge_nom on lieux_recharge (nom);
+create index idx_bornes_recharge_etat on bornes_recharge (etat_borne);
+create index idx_bornes_recharge_puissance on bornes_recharge (tarif_horaire);
+create index idx_reservations_borne_periode on reservations (borne_id, date_debut, date_fin);
+create index idx_reservations_utilisateur_debut on reservations (utilisateur_id, date_debut);
@@ -0,0 +1,3 @@
+-- Recherche des bornes disponibles d'un ou plusieurs lieux (BorneRechargeDAO.findBornesDisponibles) :
+-- filtre sur le lieu et l'état sans relire toutes les bornes du lieu.
+create index idx_bornes_recharge_lieu_etat on bornes_recharge (lieu_id, etat_borne);
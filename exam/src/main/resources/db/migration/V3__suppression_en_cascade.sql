@@ -0,0 +1,29 @@
+-- Suppressions en une instruction (deleteById, deleteByIds, purgerAvant) : la base supprime elle-même
+-- les bornes d'un lieu et les réservations d'une borne ou d'un utilisateur (ON DELETE CASCADE),
+-- au lieu qu'Hibernate charge et supprime chaque enfant.
+-- Les bases reprises de hbm2ddl ont des clés étrangères au nom généré (FK...) : le nom de chaque
+-- contrainte est donc lu dans information_schema avant de la supprimer.
+
+set @fk = (select constraint_name from information_schema.referential_constraints
+    where constraint_schema = database() and table_name = 'bornes_recharge' and referenced_table_name = 'lieux_recharge' limit 1);
+set @sql = concat('alter table bornes_recharge drop foreign key ', @fk);
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+alter table bornes_recharge add constraint fk_bornes_recharge_lieu foreign key (lieu_id) references lieux_recharge (id) on delete cascade;
+
+set @fk = (select constraint_name from information_schema.referential_constraints
+    where constraint_schema = database() and table_name = 'reservations' and referenced_table_name = 'utilisateurs' limit 1);
+set @sql = concat('alter table reservations drop foreign key ', @fk);
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+alter table reservations add constraint fk_reservations_utilisateur foreign key (utilisateur_id) references utilisateurs (id) on delete cascade;
+
+set @fk = (select constraint_name from information_schema.referential_constraints
+    where constraint_schema = database() and table_name = 'reservations' and referenced_table_name = 'bornes_recharge' limit 1);
+set @sql = concat('alter table reservations drop foreign key ', @fk);
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+alter table reservations add constraint fk_reservations_borne foreign key (borne_id) references bornes_recharge (id) on delete cascade;
@@ -0,0 +1,68 @@
+-- Reprise d'une base créée par hibernate.hbm2ddl.auto=update avant les migrations versionnées :
+-- ajoute ce que le schéma initial (V1) crée et qu'hbm2ddl ne créait pas, puis la base est enregistrée en V1.
+-- Exécuté par MigrationsSchema avant la création de schema_version ; chaque étape vérifie d'abord dans
+-- information_schema si l'objet existe déjà, le script peut donc être rejoué après un échec partiel.
+-- Les colonnes id restent en AUTO_INCREMENT : les identifiants, fournis par les séquences, y sont acceptés.
+
+-- Colonnes de verrouillage optimiste (@Version), à 0 pour les lignes existantes
+set @sql = (select if(count(*) = 0, 'alter table bornes_recharge add column version bigint not null default 0', 'do 0')
+    from information_schema.columns where table_schema = database() and table_name = 'bornes_recharge' and column_name = 'version');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+set @sql = (select if(count(*) = 0, 'alter table reservations add column version bigint not null default 0', 'do 0')
+    from information_schema.columns where table_schema = database() and table_name = 'reservations' and column_name = 'version');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+-- Séquences émulées par table. Avec allocationSize = 50, Hibernate réserve les identifiants
+-- next_val - 49 .. next_val : next_val = MAX(id) + 50 fait commencer le premier bloc à MAX(id) + 1.
+create table if not exists utilisateurs_seq (next_val bigint) engine=InnoDB;
+insert into utilisateurs_seq (next_val)
+    select v from (select coalesce(max(id), 0) + 50 as v from utilisateurs) m
+    where not exists (select 1 from utilisateurs_seq);
+create table if not exists lieux_recharge_seq (next_val bigint) engine=InnoDB;
+insert into lieux_recharge_seq (next_val)
+    select v from (select coalesce(max(id), 0) + 50 as v from lieux_recharge) m
+    where not exists (select 1 from lieux_recharge_seq);
+create table if not exists bornes_recharge_seq (next_val bigint) engine=InnoDB;
+insert into bornes_recharge_seq (next_val)
+    select v from (select coalesce(max(id), 0) + 50 as v from bornes_recharge) m
+    where not exists (select 1 from bornes_recharge_seq);
+create table if not exists reservations_seq (next_val bigint) engine=InnoDB;
+insert into reservations_seq (next_val)
+    select v from (select coalesce(max(id), 0) + 50 as v from reservations) m
+    where not exists (select 1 from reservations_seq);
+
+-- Index du schéma initial
+set @sql = (select if(count(*) = 0, 'create index idx_lieux_recharge_nom on lieux_recharge (nom)', 'do 0')
+    from information_schema.statistics where table_schema = database() and table_name = 'lieux_recharge' and index_name = 'idx_lieux_recharge_nom');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+set @sql = (select if(count(*) = 0, 'create index idx_bornes_recharge_etat on bornes_recharge (etat_borne)', 'do 0')
+    from information_schema.statistics where table_schema = database() and table_name = 'bornes_recharge' and index_name = 'idx_bornes_recharge_etat');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+set @sql = (select if(count(*) = 0, 'create index idx_bornes_recharge_puissance on bornes_recharge (tarif_horaire)', 'do 0')
+    from information_schema.statistics where table_schema = database() and table_name = 'bornes_recharge' and index_name = 'idx_bornes_recharge_puissance');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+set @sql = (select if(count(*) = 0, 'create index idx_reservations_borne_periode on reservations (borne_id, date_debut, date_fin)', 'do 0')
+    from information_schema.statistics where table_schema = database() and table_name = 'reservations' and index_name = 'idx_reservations_borne_periode');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
+
+set @sql = (select if(count(*) = 0, 'create index idx_reservations_utilisateur_debut on reservations (utilisateur_id, date_debut)', 'do 0')
+    from information_schema.statistics where table_schema = database() and table_name = 'reservations' and index_name = 'idx_reservations_utilisateur_debut');
+prepare instruction from @sql;
+execute instruction;
+deallocate prepare instruction;
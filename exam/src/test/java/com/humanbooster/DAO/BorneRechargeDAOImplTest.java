@@ -0,0 +1,146 @@
+package com.humanbooster.DAO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import com.humanbooster.model.Reservation;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de BorneRechargeDAOImpl sur la base H2 de l'environnement "test" (hibernate-test.properties).
+ */
+public class BorneRechargeDAOImplTest {
+
+    private final BorneRechargeDAO borneDao = new BorneRechargeDAOImpl();
+
+    private List<BorneRecharge> creerLieu(String nom, int nombreBornes) {
+        LieuRecharge lieu = new LieuRecharge(nom, "1 rue des Mises à jour");
+        new LieuRechargeDAOImpl().saveOrUpdate(lieu);
+        List<BorneRecharge> bornes = new ArrayList<>();
+        for (int i = 0; i < nombreBornes; i++) {
+            bornes.add(new BorneRecharge(22.0, EtatBorne.DISPONIBLE, lieu));
+        }
+        borneDao.saveAll(bornes);
+        return bornes;
+    }
+
+    private EtatBorne etat(BorneRecharge borne) {
+        return borneDao.findById(borne.getId()).orElseThrow().getEtatBorne();
+    }
+
+    private static PolitiqueReessai politiqueBornes() {
+        return PolitiqueReessai.toutes().stream().filter(p -> p.getNom().equals("bornes_recharge")).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void mettreAJourRejoueLaModificationApresUneEcritureConcurrente() {
+        BorneRecharge borne = creerLieu("Lieu disputé", 1).get(0);
+        AtomicInteger appels = new AtomicInteger();
+        long conflitsAvant = politiqueBornes().getConflits();
+
+        BorneRecharge modifiee = borneDao.mettreAJour(borne.getId(), b -> {
+            if (appels.incrementAndGet() == 1) {
+                // Écriture concurrente entre la relecture et la validation : la version lue est périmée
+                borneDao.updateEtat(List.of(b.getId()), EtatBorne.OCCUPEE);
+            }
+            b.setTarif_horaire(b.getTarif_horaire() + 1);
+        }).orElseThrow();
+
+        assertEquals(2, appels.get());
+        assertEquals(1, politiqueBornes().getConflits() - conflitsAvant);
+        assertEquals(EtatBorne.OCCUPEE, modifiee.getEtatBorne(), "La tentative rejouée relit l'écriture concurrente");
+        assertEquals(23.0, borneDao.findById(borne.getId()).orElseThrow().getTarif_horaire(), 0.0);
+    }
+
+    @Test
+    public void mettreAJourAbandonneApresLeNombreMaximalDeTentatives() {
+        BorneRecharge borne = creerLieu("Lieu très disputé", 1).get(0);
+        AtomicInteger appels = new AtomicInteger();
+        long abandonsAvant = politiqueBornes().getAbandons();
+
+        assertTrue(borneDao.mettreAJour(borne.getId(), b -> {
+            appels.incrementAndGet();
+            borneDao.updateEtat(List.of(b.getId()), b.getEtatBorne() == EtatBorne.OCCUPEE ? EtatBorne.DISPONIBLE : EtatBorne.OCCUPEE);
+            b.setTarif_horaire(50.0);
+        }).isEmpty());
+
+        assertEquals(GestionnaireSessionFactory.getParametreEntier("humanbooster.reessai.tentatives", 3), appels.get());
+        assertEquals(1, politiqueBornes().getAbandons() - abandonsAvant);
+        assertEquals(22.0, borneDao.findById(borne.getId()).orElseThrow().getTarif_horaire(), 0.0, "Aucune tentative validée");
+    }
+
+    @Test
+    public void findBornesDisponiblesDUnLieuLitToutesLesPages() {
+        int nombre = PaginationParCle.limiteMax() + 1;
+        List<BorneRecharge> bornes = creerLieu("Grand lieu", nombre);
+        LocalDateTime debut = LocalDateTime.of(2031, 3, 3, 8, 0);
+
+        List<Long> ids = borneDao.findBornesDisponibles(bornes.get(0).getLieuRecharge(), debut, debut.plusHours(1))
+                .stream().map(b -> b.id()).toList();
+
+        assertEquals(bornes.stream().map(BorneRecharge::getId).toList(), ids);
+    }
+
+    @Test
+    public void updateEtatParLieuModifieToutLeSiteEtGardeLesCachesCoherents() {
+        List<BorneRecharge> bornes = creerLieu("Lieu en panne", 3);
+        // Bornes et requête par état mises en cache avant la mise à jour de masse
+        assertEquals(EtatBorne.DISPONIBLE, etat(bornes.get(0)));
+        borneDao.findByEtat(EtatBorne.HORS_SERVICE);
+
+        assertEquals(3, borneDao.updateEtatParLieu(bornes.get(0).getLieuRecharge().getId(), EtatBorne.HORS_SERVICE));
+
+        assertEquals(EtatBorne.HORS_SERVICE, etat(bornes.get(0)));
+        List<Long> horsService = borneDao.findByEtat(EtatBorne.HORS_SERVICE).stream().map(BorneRecharge::getId).toList();
+        assertTrue(horsService.containsAll(bornes.stream().map(BorneRecharge::getId).toList()));
+    }
+
+    @Test
+    public void updateEtatIgnoreLesBornesDejaDansLEtatEtIncrementeLaVersion() {
+        List<BorneRecharge> bornes = creerLieu("Lieu remis en service", 3);
+        List<Long> ids = List.of(bornes.get(0).getId(), bornes.get(1).getId(), bornes.get(1).getId());
+
+        assertEquals(2, borneDao.updateEtat(ids, EtatBorne.OCCUPEE));
+        assertEquals(0, borneDao.updateEtat(ids, EtatBorne.OCCUPEE), "Bornes déjà dans l'état demandé");
+        assertEquals(EtatBorne.DISPONIBLE, etat(bornes.get(2)));
+
+        // Copie antérieure à la mise à jour de masse : sa version est périmée, l'écriture est refusée
+        BorneRecharge perimee = bornes.get(0);
+        perimee.setEtatBorne(EtatBorne.DISPONIBLE);
+        borneDao.saveOrUpdate(perimee);
+        assertEquals(EtatBorne.OCCUPEE, etat(bornes.get(0)));
+    }
+
+    @Test
+    public void supprimerUnLieuSupprimeSesBornesEtReservationsEnCascade() {
+        List<BorneRecharge> bornes = creerLieu("Lieu fermé", 2);
+        Utilisateur utilisateur = new Utilisateur("cascade@test.fr", "secret", RoleUtilisateur.UTILISATEUR);
+        new UtilisateurDAOImpl().saveOrUpdate(utilisateur);
+        LocalDateTime debut = LocalDateTime.of(2030, 5, 6, 8, 0);
+        Reservation reservation = new Reservation(debut, debut.plusHours(1), utilisateur, bornes.get(0));
+        ReservationDAO reservationDao = new ReservationDAOImpl();
+        reservationDao.saveOrUpdate(reservation);
+        assertFalse(reservationDao.estDisponible(bornes.get(0), debut, debut.plusHours(1)));
+        // Borne en cache avant la suppression du lieu
+        assertTrue(borneDao.findById(bornes.get(0).getId()).isPresent());
+
+        new LieuRechargeDAOImpl().delete(bornes.get(0).getLieuRecharge());
+
+        assertTrue(borneDao.findById(bornes.get(0).getId()).isEmpty());
+        assertTrue(borneDao.findById(bornes.get(1).getId()).isEmpty());
+        assertTrue(reservationDao.findById(reservation.getId()).isEmpty());
+        assertEquals(0, borneDao.deleteByIds(List.of(bornes.get(0).getId(), bornes.get(1).getId())), "Bornes déjà supprimées");
+    }
+}
@@ -0,0 +1,36 @@
+package com.humanbooster.DAO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.humanbooster.supervision.InspecteurSql;
+
+/**
+ * Enregistre le SQL généré par Hibernate pendant les tests (voir hibernate-test.properties),
+ * pour que les tests puissent examiner les requêtes réellement émises par les DAO.
+ * Étend l'inspecteur de l'application pour que le journal des requêtes lentes reste actif.
+ */
+public class CaptureSql extends InspecteurSql {
+
+    private static final List<String> REQUETES = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (REQUETES) {
+            REQUETES.add(sql);
+        }
+        return super.inspect(sql);
+    }
+
+    public static void vider() {
+        synchronized (REQUETES) {
+            REQUETES.clear();
+        }
+    }
+
+    public static List<String> requetes() {
+        synchronized (REQUETES) {
+            return new ArrayList<>(REQUETES);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.humanbooster.DAO;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import com.humanbooster.model.Reservation;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Vérifie, avec EXPLAIN sur H2, que les requêtes de recherche des DAO utilisent un index
+ * (clé primaire ou index déclarés dans les {@code @Table} des entités) et non un parcours complet de table.
+ * <p>
+ * Ne sont pas couvertes : les {@code findAll}, qui lisent toute la table par définition,
+ * et {@code LieuRechargeDAO.findByNom}, dont la recherche « contient » ({@code LIKE '%nom%'})
+ * ne peut pas utiliser d'index B-tree.
+ */
+public class PlansExecutionTest {
+
+    private static final UtilisateurDAO utilisateurDao = new UtilisateurDAOImpl();
+    private static final LieuRechargeDAO lieuDao = new LieuRechargeDAOImpl();
+    private static final BorneRechargeDAO borneDao = new BorneRechargeDAOImpl();
+    private static final ReservationDAO reservationDao = new ReservationDAOImpl();
+
+    private static Utilisateur utilisateur;
+    private static LieuRecharge lieu;
+    private static BorneRecharge borne;
+    private static final LocalDateTime DEBUT = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @BeforeAll
+    public static void creerJeuDeDonnees() {
+        utilisateur = new Utilisateur("plans@test.fr", "secret", RoleUtilisateur.UTILISATEUR);
+        utilisateurDao.saveOrUpdate(utilisateur);
+        lieu = new LieuRecharge("Lieu plans", "1 rue des Index");
+        lieuDao.saveOrUpdate(lieu);
+        borne = new BorneRecharge(50.0, EtatBorne.DISPONIBLE, lieu);
+        borneDao.saveOrUpdate(borne);
+        reservationDao.saveOrUpdate(new Reservation(DEBUT, DEBUT.plusHours(1), utilisateur, borne));
+    }
+
+    static Stream<Arguments> requetesDao() {
+        return Stream.of(
+                Arguments.of("UtilisateurDAO.findByEmail", (Runnable) () -> utilisateurDao.findByEmail("plans@test.fr")),
+                Arguments.of("UtilisateurDAO.findPage", (Runnable) () -> utilisateurDao.findPage(0L, 10)),
+                Arguments.of("LieuRechargeDAO.findPageAvecBornes", (Runnable) () -> lieuDao.findPageAvecBornes(0L, 10)),
+                Arguments.of("BorneRechargeDAO.findByLieu", (Runnable) () -> borneDao.findByLieu(lieu)),
+                Arguments.of("BorneRechargeDAO.findByEtat", (Runnable) () -> borneDao.findByEtat(EtatBorne.HORS_SERVICE)),
+                Arguments.of("BorneRechargeDAO.findByPuissanceMin", (Runnable) () -> borneDao.findByPuissanceMin(150.0)),
+                Arguments.of("BorneRechargeDAO.findResumesByEtat", (Runnable) () -> borneDao.findResumesByEtat(EtatBorne.DISPONIBLE)),
+                Arguments.of("BorneRechargeDAO.findBornesDisponibles",
+                        (Runnable) () -> borneDao.findBornesDisponibles(lieu, DEBUT, DEBUT.plusHours(2))),
+                Arguments.of("ReservationDAO.findByUtilisateur", (Runnable) () -> reservationDao.findByUtilisateur(utilisateur)),
+                Arguments.of("ReservationDAO.findResumesByUtilisateur", (Runnable) () -> reservationDao.findResumesByUtilisateur(utilisateur)),
+                Arguments.of("ReservationDAO.findByBorne", (Runnable) () -> reservationDao.findByBorne(borne)),
+                Arguments.of("ReservationDAO.findReservationsChevauchantesPourBorne",
+                        (Runnable) () -> reservationDao.findReservationsChevauchantesPourBorne(borne, DEBUT, DEBUT.plusHours(2))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("requetesDao")
+    public void requeteSansParcoursCompletDeTable(String nom, Runnable appel) {
+        // Caches vidés pour que la requête parte réellement en base
+        GestionnaireSessionFactory.getSessionFactory().getCache().evictAllRegions();
+        CaptureSql.vider();
+        appel.run();
+        List<String> requetes = CaptureSql.requetes().stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+
+        assertFalse(requetes.isEmpty(), nom + " n'a émis aucune requête SELECT");
+        for (String sql : requetes) {
+            String plan = plan(sql);
+            assertFalse(plan.contains("tableScan"), nom + " parcourt toute une table :\n" + plan);
+        }
+    }
+
+    private static String plan(String sql) {
+        try (Session session = GestionnaireSessionFactory.getSessionFactory().openSession()) {
+            return session.doReturningWork(connexion -> {
+                try (PreparedStatement explain = connexion.prepareStatement("EXPLAIN " + sql)) {
+                    // Le plan est calculé sans exécuter la requête : la valeur des paramètres importe peu
+                    int parametres = explain.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parametres; i++) {
+                        explain.setObject(i, null);
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet resultat = explain.executeQuery()) {
+                        while (resultat.next()) {
+                            plan.append(resultat.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                }
+            });
+        }
+    }
+}
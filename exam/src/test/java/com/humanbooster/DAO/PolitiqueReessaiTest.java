@@ -0,0 +1,93 @@
+package com.humanbooster.DAO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.persistence.OptimisticLockException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de PolitiqueReessai, sans base : l'opération échoue sur un conflit de version un nombre donné de fois.
+ */
+public class PolitiqueReessaiTest {
+
+    private final AtomicInteger appels = new AtomicInteger();
+
+    /**
+     * @return Une opération qui lève {@code conflit} à ses {@code echecs} premiers appels, puis renvoie le numéro d'appel.
+     */
+    private Supplier<Integer> operation(int echecs, RuntimeException conflit) {
+        return () -> {
+            int appel = appels.incrementAndGet();
+            if (appel <= echecs) {
+                throw conflit;
+            }
+            return appel;
+        };
+    }
+
+    @Test
+    public void rejoueLOperationJusquALaPremiereReussite() {
+        PolitiqueReessai politique = new PolitiqueReessai("test-reussite", 4, 1, 2, 5);
+
+        assertEquals(3, politique.executer(operation(2, new OptimisticLockException("conflit"))));
+
+        assertEquals(3, appels.get());
+        assertEquals(1, politique.getExecutions());
+        assertEquals(2, politique.getConflits());
+        assertEquals(2, politique.getReessais());
+        assertEquals(0, politique.getAbandons());
+    }
+
+    @Test
+    public void abandonneApresLeNombreMaximalDeTentatives() {
+        PolitiqueReessai politique = new PolitiqueReessai("test-abandon", 3, 1, 2, 5);
+        OptimisticLockException conflit = new OptimisticLockException("conflit");
+
+        assertSame(conflit, assertThrows(OptimisticLockException.class, () -> politique.executer(operation(10, conflit))));
+
+        assertEquals(3, appels.get());
+        assertEquals(3, politique.getConflits());
+        assertEquals(2, politique.getReessais());
+        assertEquals(1, politique.getAbandons());
+    }
+
+    @Test
+    public void reconnaitUnConflitEnCauseEtPropageLesAutresErreurs() {
+        PolitiqueReessai politique = new PolitiqueReessai("test-causes", 3, 0, 2, 0);
+        RuntimeException enveloppe = new IllegalStateException("flush", new StaleObjectStateException("BorneRecharge", 1L));
+
+        assertEquals(2, politique.executer(operation(1, enveloppe)));
+
+        appels.set(0);
+        IllegalArgumentException autre = new IllegalArgumentException("pas un conflit");
+        assertSame(autre, assertThrows(IllegalArgumentException.class, () -> politique.executer(operation(1, autre))));
+        assertEquals(1, appels.get(), "Pas de réessai hors conflit de version");
+        assertEquals(0, politique.getAbandons());
+    }
+
+    @Test
+    public void seulesLesPolitiquesPartageesSontPublieesPourLaSupervision() {
+        PolitiqueReessai locale = new PolitiqueReessai("test-locale", 3, 1, 2, 5);
+
+        assertFalse(PolitiqueReessai.toutes().contains(locale), "Politique créée directement : non inscrite");
+    }
+
+    @Test
+    public void lAttenteCroitExponentiellementJusquAuPlafond() {
+        PolitiqueReessai politique = new PolitiqueReessai("test-attente", 10, 20, 3, 500);
+
+        assertEquals(20, politique.plafondAttente(1));
+        assertEquals(60, politique.plafondAttente(2));
+        assertEquals(180, politique.plafondAttente(3));
+        assertEquals(500, politique.plafondAttente(4));
+        assertEquals(500, politique.plafondAttente(9));
+    }
+}
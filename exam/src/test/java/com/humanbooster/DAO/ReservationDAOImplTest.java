@@ -0,0 +1,288 @@
+package com.humanbooster.DAO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.humanbooster.dto.BorneResume;
+import com.humanbooster.model.BorneRecharge;
+import com.humanbooster.model.EtatBorne;
+import com.humanbooster.model.LieuRecharge;
+import com.humanbooster.model.Reservation;
+import com.humanbooster.model.RoleUtilisateur;
+import com.humanbooster.model.Utilisateur;
+import com.humanbooster.supervision.InstrumentationDao;
+import com.humanbooster.supervision.StatistiquesMethode;
+
+import jakarta.persistence.LockModeType;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de ReservationDAOImpl sur la base H2 de l'environnement "test" (hibernate-test.properties).
+ */
+public class ReservationDAOImplTest {
+
+    private static final ReservationDAO reservationDao = new ReservationDAOImpl();
+    private static Utilisateur utilisateur;
+    private static final List<LieuRecharge> lieux = new ArrayList<>();
+    private static final LocalDateTime PREMIER_CRENEAU = LocalDateTime.of(2030, 1, 7, 8, 0);
+    /** Créneau demandé par les tests de {@code reserver}, chacun sur sa propre borne. */
+    private static final LocalDateTime CRENEAU_RESERVE = LocalDateTime.of(2030, 2, 4, 18, 0);
+    private static Utilisateur client;
+    private static LieuRecharge lieuReservations;
+
+    @BeforeAll
+    public static void creerJeuDeDonnees() {
+        utilisateur = new Utilisateur("graphe@test.fr", "secret", RoleUtilisateur.UTILISATEUR);
+        new UtilisateurDAOImpl().saveOrUpdate(utilisateur);
+
+        client = new Utilisateur("reserver@test.fr", "secret", RoleUtilisateur.UTILISATEUR);
+        new UtilisateurDAOImpl().saveOrUpdate(client);
+
+        BorneRechargeDAO borneDao = new BorneRechargeDAOImpl();
+        LieuRechargeDAO lieuDao = new LieuRechargeDAOImpl();
+        lieuReservations = new LieuRecharge("Lieu des réservations", "1 rue du Verrou");
+        lieuDao.saveOrUpdate(lieuReservations);
+        LocalDateTime debut = PREMIER_CRENEAU;
+        for (int l = 0; l < 3; l++) {
+            LieuRecharge lieu = new LieuRecharge("Lieu " + l, l + " rue du Test");
+            lieuDao.saveOrUpdate(lieu);
+            lieux.add(lieu);
+            for (int b = 0; b < 2; b++) {
+                BorneRecharge borne = new BorneRecharge(22.0, EtatBorne.DISPONIBLE, lieu);
+                borneDao.saveOrUpdate(borne);
+                reservationDao.saveOrUpdate(new Reservation(debut, debut.plusHours(1), utilisateur, borne));
+                debut = debut.plusHours(2);
+            }
+        }
+    }
+
+    @Test
+    public void grapheCompletChargeReservationsBornesEtLieuxEnUneRequete() {
+        Statistics statistiques = GestionnaireSessionFactory.getSessionFactory().getStatistics();
+        long avant = statistiques.getPrepareStatementCount();
+
+        List<Reservation> reservations = reservationDao.findByUtilisateur(utilisateur, Reservation.GRAPHE_COMPLET);
+        // Session fermée : toute association non chargée lèverait LazyInitializationException
+        Set<String> lieux = reservations.stream()
+                .map(r -> r.getUtilisateur().getEmail() + " @ " + r.getBorne().getLieuRecharge().getNom())
+                .collect(Collectors.toSet());
+
+        assertEquals(6, reservations.size());
+        assertEquals(Set.of("graphe@test.fr @ Lieu 0", "graphe@test.fr @ Lieu 1", "graphe@test.fr @ Lieu 2"), lieux);
+        assertEquals(1, statistiques.getPrepareStatementCount() - avant, "Une seule requête SQL attendue");
+    }
+
+    @Test
+    public void grapheBorneEtLieuParBorneEnUneRequete() {
+        BorneRecharge borne = reservationDao.findByUtilisateur(utilisateur, Reservation.GRAPHE_BORNE_ET_LIEU).get(0).getBorne();
+        Statistics statistiques = GestionnaireSessionFactory.getSessionFactory().getStatistics();
+        long avant = statistiques.getPrepareStatementCount();
+
+        List<Reservation> reservations = reservationDao.findByBorne(borne, Reservation.GRAPHE_BORNE_ET_LIEU);
+        reservations.forEach(r -> r.getBorne().getLieuRecharge().getNom());
+
+        assertEquals(1, reservations.size());
+        assertEquals(1, statistiques.getPrepareStatementCount() - avant, "Une seule requête SQL attendue");
+    }
+
+    @Test
+    public void findBornesDisponiblesExclutLesBornesReserveesEnUneRequete() {
+        // Lieu 0 : première borne réservée de 8h à 9h, seconde de 10h à 11h
+        BorneRechargeDAO borneDao = new BorneRechargeDAOImpl();
+        Statistics statistiques = GestionnaireSessionFactory.getSessionFactory().getStatistics();
+        long avant = statistiques.getPrepareStatementCount();
+
+        List<BorneResume> libres = borneDao.findBornesDisponibles(lieux.get(0), PREMIER_CRENEAU.plusMinutes(30), PREMIER_CRENEAU.plusMinutes(90));
+
+        assertEquals(1, statistiques.getPrepareStatementCount() - avant, "Une seule requête SQL attendue");
+        assertEquals(1, libres.size());
+        assertEquals(lieux.get(0).getId(), libres.get(0).lieuId());
+        assertEquals(2, borneDao.findBornesDisponibles(lieux.get(0), PREMIER_CRENEAU.plusHours(1), PREMIER_CRENEAU.plusHours(2)).size(),
+                "Intervalles semi-ouverts : une réservation finissant au début de l'intervalle ne gêne pas");
+
+        // Plusieurs lieux, par pages d'une borne
+        List<Long> ids = lieux.stream().map(LieuRecharge::getId).toList();
+        LocalDateTime apresTout = PREMIER_CRENEAU.plusDays(1);
+        List<BorneResume> premiere = borneDao.findBornesDisponibles(ids, apresTout, apresTout.plusHours(1), null, 1);
+        List<BorneResume> suivante = borneDao.findBornesDisponibles(ids, apresTout, apresTout.plusHours(1), premiere.get(0).id(), 5);
+        assertEquals(1, premiere.size());
+        assertEquals(5, suivante.size());
+        assertTrue(premiere.get(0).id() < suivante.get(0).id());
+    }
+
+    @Test
+    public void purgerAvantSupprimeLesReservationsTermineesParPaquets() {
+        LieuRecharge lieu = new LieuRecharge("Lieu purgé", "1 rue de l'Historique");
+        new LieuRechargeDAOImpl().saveOrUpdate(lieu);
+        BorneRecharge borne = new BorneRecharge(11.0, EtatBorne.DISPONIBLE, lieu);
+        new BorneRechargeDAOImpl().saveOrUpdate(borne);
+        Utilisateur ancienClient = new Utilisateur("purge@test.fr", "secret", RoleUtilisateur.UTILISATEUR);
+        new UtilisateurDAOImpl().saveOrUpdate(ancienClient);
+        LocalDateTime ancien = LocalDateTime.of(2020, 3, 2, 8, 0);
+        List<Reservation> anciennes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            anciennes.add(new Reservation(ancien.plusHours(i), ancien.plusHours(i + 1), ancienClient, borne));
+        }
+        reservationDao.saveAll(anciennes);
+        assertFalse(reservationDao.estDisponible(borne, ancien, ancien.plusHours(1)));
+
+        assertEquals(5, reservationDao.purgerAvant(LocalDateTime.of(2021, 1, 1, 0, 0), 2));
+
+        assertEquals(0, reservationDao.purgerAvant(LocalDateTime.of(2021, 1, 1, 0, 0), 2));
+        assertTrue(reservationDao.findByBorne(borne).isEmpty());
+        assertTrue(reservationDao.estDisponible(borne, ancien, ancien.plusHours(1)), "Index de disponibilité mis à jour");
+        assertEquals(6, reservationDao.findByUtilisateur(utilisateur).size(), "Réservations récentes conservées");
+    }
+
+    private static BorneRecharge nouvelleBorne(EtatBorne etat) {
+        BorneRecharge borne = new BorneRecharge(22.0, etat, lieuReservations);
+        new BorneRechargeDAOImpl().saveOrUpdate(borne);
+        return borne;
+    }
+
+    private static ResultatReservation.Issue reserver(Long utilisateurId, Long borneId) {
+        return reservationDao.reserver(utilisateurId, borneId, CRENEAU_RESERVE, CRENEAU_RESERVE.plusHours(1)).issue();
+    }
+
+    @Test
+    public void reserverEnConcurrenceNeCreeQuUneReservation() throws Exception {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+        int concurrents = 8;
+        CyclicBarrier depart = new CyclicBarrier(concurrents);
+        ExecutorService executeur = Executors.newFixedThreadPool(concurrents);
+        List<ResultatReservation.Issue> issues = new ArrayList<>();
+        try {
+            List<Future<ResultatReservation.Issue>> tentatives = new ArrayList<>();
+            for (int i = 0; i < concurrents; i++) {
+                tentatives.add(executeur.submit(() -> {
+                    depart.await();
+                    return reserver(client.getId(), borne.getId());
+                }));
+            }
+            for (Future<ResultatReservation.Issue> tentative : tentatives) {
+                issues.add(tentative.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executeur.shutdownNow();
+        }
+
+        assertEquals(1, issues.stream().filter(ResultatReservation.Issue.RESERVEE::equals).count(), issues.toString());
+        assertTrue(issues.stream().allMatch(issue -> issue == ResultatReservation.Issue.RESERVEE
+                || issue == ResultatReservation.Issue.CONFLIT || issue == ResultatReservation.Issue.VERROU_INDISPONIBLE), issues.toString());
+        assertEquals(1, reservationDao.findReservationsChevauchantesPourBorne(borne, CRENEAU_RESERVE, CRENEAU_RESERVE.plusHours(1)).size());
+    }
+
+    @Test
+    public void reserverRefuseUnCreneauDejaPris() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+        assertEquals(ResultatReservation.Issue.RESERVEE, reserver(client.getId(), borne.getId()));
+
+        assertEquals(ResultatReservation.Issue.CONFLIT, reservationDao.reserver(client.getId(), borne.getId(),
+                CRENEAU_RESERVE.plusMinutes(30), CRENEAU_RESERVE.plusMinutes(90)).issue());
+        assertEquals(ResultatReservation.Issue.RESERVEE, reservationDao.reserver(client.getId(), borne.getId(),
+                CRENEAU_RESERVE.plusHours(1), CRENEAU_RESERVE.plusHours(2)).issue(), "Créneau contigu");
+    }
+
+    @Test
+    public void reserverVerifieEnBaseUnConflitSignaleParLIndex() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+        assertEquals(ResultatReservation.Issue.RESERVEE, reserver(client.getId(), borne.getId()));
+        // Suppression faite hors de ce DAO (autre instance) : l'index croit encore le créneau pris
+        try (Session session = GestionnaireSessionFactory.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createMutationQuery("DELETE FROM Reservation r WHERE r.borne.id = :borneId")
+                    .setParameter("borneId", borne.getId())
+                    .executeUpdate();
+            transaction.commit();
+        }
+        assertFalse(reservationDao.estDisponible(borne, CRENEAU_RESERVE, CRENEAU_RESERVE.plusHours(1)));
+
+        assertEquals(ResultatReservation.Issue.RESERVEE, reserver(client.getId(), borne.getId()));
+        assertEquals(1, reservationDao.findByBorne(borne).size());
+    }
+
+    @Test
+    public void reserverRefuseUneBorneNonDisponible() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.HORS_SERVICE);
+
+        assertEquals(ResultatReservation.Issue.BORNE_INDISPONIBLE, reserver(client.getId(), borne.getId()));
+        assertTrue(reservationDao.findByBorne(borne).isEmpty());
+    }
+
+    @Test
+    public void reserverSignaleUnUtilisateurOuUneBorneIntrouvable() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+
+        assertEquals(ResultatReservation.Issue.INTROUVABLE, reserver(Long.MAX_VALUE, borne.getId()));
+        assertEquals(ResultatReservation.Issue.INTROUVABLE, reserver(client.getId(), Long.MAX_VALUE));
+        assertTrue(reservationDao.findByBorne(borne).isEmpty());
+    }
+
+    @Test
+    public void reserverRefuseDesParametresInvalides() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+
+        assertEquals(ResultatReservation.Issue.INVALIDE, reserver(null, borne.getId()));
+        assertEquals(ResultatReservation.Issue.INVALIDE,
+                reservationDao.reserver(client.getId(), borne.getId(), CRENEAU_RESERVE, CRENEAU_RESERVE).issue(), "Créneau vide");
+    }
+
+    @Test
+    public void reserverAbandonneSiLaBorneResteVerrouillee() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+        try (Session session = GestionnaireSessionFactory.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.find(BorneRecharge.class, borne.getId(), LockModeType.PESSIMISTIC_WRITE);
+
+            // Attente bornée par LOCK_TIMEOUT (hibernate-test.properties)
+            assertEquals(ResultatReservation.Issue.VERROU_INDISPONIBLE, reserver(client.getId(), borne.getId()));
+            transaction.rollback();
+        }
+        assertEquals(ResultatReservation.Issue.RESERVEE, reserver(client.getId(), borne.getId()), "Verrou libéré");
+    }
+
+    @Test
+    public void reserverSignaleUneErreurTechnique() {
+        BorneRecharge borne = nouvelleBorne(EtatBorne.DISPONIBLE);
+        SessionFactory enPanne = (SessionFactory) Proxy.newProxyInstance(SessionFactory.class.getClassLoader(),
+                new Class<?>[]{SessionFactory.class}, (proxy, methode, arguments) -> {
+                    throw new HibernateException("Base indisponible");
+                });
+
+        ReservationDAO instrumente = InstrumentationDao.instrumenter(ReservationDAO.class, new ReservationDAOImpl(enPanne));
+        long erreurs = erreursDeReserver();
+
+        ResultatReservation resultat = instrumente.reserver(client.getId(), borne.getId(), CRENEAU_RESERVE, CRENEAU_RESERVE.plusHours(1));
+
+        assertEquals(ResultatReservation.Issue.ERREUR, resultat.issue());
+        assertFalse(resultat.estReservee());
+        assertEquals(erreurs + 1, erreursDeReserver(), "Erreur interceptée par le DAO comptée par l'instrumentation");
+    }
+
+    private static long erreursDeReserver() {
+        return InstrumentationDao.toutes().stream()
+                .filter(stats -> stats.getDao().equals("ReservationDAO") && stats.getMethode().equals("reserver"))
+                .mapToLong(StatistiquesMethode::getErreurs)
+                .sum();
+    }
+}
@@ -0,0 +1,198 @@
+package com.humanbooster.DAO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.humanbooster.model.EtatBorne;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de TamponEtatsBornes, sans base : le DAO est remplacé par un enregistreur des appels à {@code updateEtat},
+ * qui peut simuler une base en panne.
+ */
+public class TamponEtatsBornesTest {
+
+    /** Un vidage périodique par heure : seuls les vidages explicites ou déclenchés par le tampon plein ont lieu. */
+    private static final long INTERVALLE_LONG = 3_600_000;
+
+    private record Ecriture(EtatBorne etat, List<Long> ids) {
+    }
+
+    private final List<Ecriture> ecritures = new CopyOnWriteArrayList<>();
+    private final List<TamponEtatsBornes> tampons = new CopyOnWriteArrayList<>();
+    /** Action exécutée à chaque écriture en échec ; {@code null} quand la base répond. */
+    private volatile Runnable panne;
+
+    private final BorneRechargeDAO dao = (BorneRechargeDAO) Proxy.newProxyInstance(
+            BorneRechargeDAO.class.getClassLoader(), new Class<?>[]{BorneRechargeDAO.class},
+            (proxy, methode, arguments) -> {
+                if (methode.getName().equals("updateEtat")) {
+                    if (panne != null) {
+                        panne.run();
+                        return -1;
+                    }
+                    List<Long> ids = List.copyOf((Collection<Long>) arguments[0]);
+                    ecritures.add(new Ecriture((EtatBorne) arguments[1], ids));
+                    return ids.size();
+                }
+                if (methode.getDeclaringClass() == Object.class) {
+                    return methode.getName().equals("equals") ? proxy == arguments[0]
+                            : methode.getName().equals("hashCode") ? System.identityHashCode(proxy) : "DAO factice";
+                }
+                throw new UnsupportedOperationException(methode.getName());
+            });
+
+    private TamponEtatsBornes tampon(int capacite, long attenteMaxMillis) {
+        TamponEtatsBornes tampon = new TamponEtatsBornes("test-" + tampons.size(), dao, INTERVALLE_LONG, capacite, capacite, attenteMaxMillis);
+        tampons.add(tampon);
+        return tampon;
+    }
+
+    @AfterEach
+    public void fermer() {
+        tampons.forEach(TamponEtatsBornes::fermer);
+    }
+
+    @Test
+    public void seulLeDernierEtatDeChaqueBorneEstEcrit() {
+        TamponEtatsBornes tampon = tampon(100, 0);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(tampon.signaler(1L, i % 2 == 0 ? EtatBorne.OCCUPEE : EtatBorne.DISPONIBLE));
+        }
+        assertEquals(1, tampon.getEnAttente());
+
+        assertEquals(1, tampon.vider());
+
+        assertEquals(List.of(new Ecriture(EtatBorne.OCCUPEE, List.of(1L))), ecritures);
+        assertEquals(9, tampon.getRecus());
+        assertEquals(8, tampon.getCoalesces());
+        assertEquals(1, tampon.getEnvoyes());
+        assertEquals(0, tampon.getEnAttente());
+        assertEquals(0, tampon.vider(), "Tampon déjà vidé");
+        assertEquals(1, tampon.getVidages());
+    }
+
+    @Test
+    public void unVidageEcritUneFoisParEtat() {
+        TamponEtatsBornes tampon = tampon(100, 0);
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.signaler(2L, EtatBorne.HORS_SERVICE);
+        tampon.signaler(3L, EtatBorne.OCCUPEE);
+        tampon.signaler(2L, EtatBorne.OCCUPEE);
+        tampon.signaler(4L, EtatBorne.DISPONIBLE);
+
+        assertEquals(4, tampon.vider());
+
+        Map<EtatBorne, List<Long>> parEtat = ecritures.stream()
+                .collect(Collectors.toMap(Ecriture::etat, e -> e.ids().stream().sorted().toList()));
+        assertEquals(2, ecritures.size());
+        assertEquals(Map.of(EtatBorne.OCCUPEE, List.of(1L, 2L, 3L), EtatBorne.DISPONIBLE, List.of(4L)), parEtat);
+    }
+
+    @Test
+    public void unEtatDejaEcritNEstPasRenvoye() {
+        TamponEtatsBornes tampon = tampon(100, 0);
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.vider();
+        ecritures.clear();
+
+        assertTrue(tampon.signaler(1L, EtatBorne.OCCUPEE));
+        assertEquals(0, tampon.getEnAttente());
+        assertEquals(0, tampon.vider());
+        assertTrue(ecritures.isEmpty(), "Battement de cœur sans changement : aucun UPDATE");
+        assertEquals(1, tampon.getCoalesces());
+
+        tampon.signaler(1L, EtatBorne.DISPONIBLE);
+        tampon.vider();
+        assertEquals(List.of(new Ecriture(EtatBorne.DISPONIBLE, List.of(1L))), ecritures);
+    }
+
+    @Test
+    public void sansDureeDeValiditeChaqueEtatEstRenvoye() {
+        TamponEtatsBornes tampon = new TamponEtatsBornes("test-validite", dao, INTERVALLE_LONG, 100, 100, 0, 0);
+        tampons.add(tampon);
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.vider();
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.vider();
+
+        assertEquals(2, ecritures.size());
+    }
+
+    @Test
+    public void uneEcritureEnEchecEstRemiseEnAttenteSansEcraserUnSignalementPlusRecent() {
+        TamponEtatsBornes tampon = tampon(100, 0);
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.signaler(2L, EtatBorne.OCCUPEE);
+        // Signalement reçu pendant l'écriture en échec
+        panne = () -> tampon.signaler(1L, EtatBorne.DISPONIBLE);
+
+        assertEquals(0, tampon.vider());
+
+        assertEquals(2, tampon.getEchecs());
+        assertEquals(0, tampon.getEnvoyes());
+        assertEquals(2, tampon.getEnAttente());
+
+        panne = null;
+        tampon.vider();
+        Map<EtatBorne, List<Long>> parEtat = ecritures.stream()
+                .collect(Collectors.toMap(Ecriture::etat, Ecriture::ids));
+        assertEquals(Map.of(EtatBorne.DISPONIBLE, List.of(1L), EtatBorne.OCCUPEE, List.of(2L)), parEtat);
+        assertEquals(2, tampon.getEnvoyes());
+        assertEquals(0, tampon.getEnAttente());
+    }
+
+    @Test
+    public void unTamponPleinEstVideSansAttendreLIntervalle() {
+        TamponEtatsBornes tampon = tampon(2, 5_000);
+        tampon.signaler(1L, EtatBorne.OCCUPEE);
+        tampon.signaler(2L, EtatBorne.OCCUPEE);
+
+        assertTrue(tampon.signaler(3L, EtatBorne.OCCUPEE));
+        // Attend la fin du vidage déclenché par le tampon plein, puis écrit la borne 3
+        tampon.vider();
+
+        assertEquals(List.of(1L, 2L), ecritures.get(0).ids().stream().sorted().toList());
+        assertEquals(List.of(3L), ecritures.get(1).ids());
+        assertEquals(0, tampon.getRejetes());
+    }
+
+    @Test
+    public void unTamponPleinRejetteLesNouvellesBornesMaisCoalesceLesAutres() {
+        TamponEtatsBornes tampon = tampon(2, 0);
+        // Vidage bloqué tant que le test détient le moniteur du tampon : aucune place ne se libère
+        synchronized (tampon) {
+            tampon.signaler(1L, EtatBorne.OCCUPEE);
+            tampon.signaler(2L, EtatBorne.OCCUPEE);
+            assertFalse(tampon.signaler(3L, EtatBorne.OCCUPEE));
+            assertTrue(tampon.signaler(1L, EtatBorne.HORS_SERVICE), "Borne déjà en attente : pas de place nécessaire");
+        }
+
+        assertEquals(1, tampon.getRejetes());
+        assertEquals(1, tampon.getCoalesces());
+    }
+
+    @Test
+    public void fermerEcritLesEtatsEnAttenteEtRefuseLesSuivants() {
+        TamponEtatsBornes tampon = tampon(100, 0);
+        tampon.signaler(1L, EtatBorne.HORS_SERVICE);
+        assertTrue(TamponEtatsBornes.tous().contains(tampon));
+
+        tampon.fermer();
+
+        assertEquals(List.of(new Ecriture(EtatBorne.HORS_SERVICE, List.of(1L))), ecritures);
+        assertFalse(tampon.signaler(2L, EtatBorne.OCCUPEE));
+        assertFalse(TamponEtatsBornes.tous().contains(tampon));
+        assertEquals(0, tampon.getEnAttente());
+    }
+}
@@ -0,0 +1,180 @@
+package com.humanbooster.disponibilite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de l'index de disponibilité, sans base de données : le chargeur est simulé.
+ */
+public class IndexDisponibiliteTest {
+
+    private static final LocalDateTime H8 = LocalDateTime.of(2025, 6, 2, 8, 0);
+
+    private static LocalDateTime h(double heures) {
+        return H8.plusMinutes(Math.round((heures - 8) * 60));
+    }
+
+    /** Index à créneaux de 15 minutes sur 14 jours, « aujourd'hui » étant le jour de {@link #H8}. */
+    private static IndexDisponibilite calendrier(Map<Long, List<Creneau>> enBase) {
+        Clock horloge = Clock.fixed(H8.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new IndexDisponibilite(borneId -> enBase.getOrDefault(borneId, List.of()), 15, 14, horloge);
+    }
+
+    @Test
+    public void detecteLesChevauchementsSelonLaRegleDuDao() {
+        IndexDisponibilite index = new IndexDisponibilite(borneId -> List.of(
+                new Creneau(1L, h(8), h(9)),
+                new Creneau(2L, h(10), h(12)),
+                new Creneau(3L, h(10.5), h(11))));
+
+        assertTrue(index.estLibre(7L, h(9), h(10)), "Créneau exactement entre deux réservations");
+        assertFalse(index.estLibre(7L, h(8.5), h(9.5)));
+        assertFalse(index.estLibre(7L, h(11.5), h(13)));
+        assertTrue(index.estLibre(7L, h(12), h(13)), "Intervalles semi-ouverts : fin exclue");
+        assertTrue(index.estLibre(7L, h(6), h(8)));
+
+        List<Creneau> conflits = index.chevauchements(7L, h(10.75), h(12.5));
+        assertEquals(List.of(2L, 3L), conflits.stream().map(Creneau::reservationId).toList());
+    }
+
+    @Test
+    public void chargeChaqueBorneUneSeuleFois() {
+        AtomicInteger chargements = new AtomicInteger();
+        IndexDisponibilite index = new IndexDisponibilite(borneId -> {
+            chargements.incrementAndGet();
+            return List.of();
+        });
+        index.estLibre(1L, h(8), h(9));
+        index.estLibre(1L, h(9), h(10));
+        index.estLibre(2L, h(8), h(9));
+        assertEquals(2, chargements.get());
+    }
+
+    @Test
+    public void suitLesEnregistrementsDeplacementsEtSuppressions() {
+        IndexDisponibilite index = new IndexDisponibilite(borneId -> new ArrayList<>());
+        assertTrue(index.estLibre(1L, h(8), h(9)));
+        assertTrue(index.estLibre(2L, h(8), h(9)));
+
+        index.enregistrer(1L, new Creneau(10L, h(8), h(9)));
+        assertFalse(index.estLibre(1L, h(8.5), h(8.75)));
+
+        // Même réservation enregistrée deux fois : pas de doublon
+        index.enregistrer(1L, new Creneau(10L, h(8), h(9)));
+        assertEquals(1, index.chevauchements(1L, h(8), h(9)).size());
+
+        // Changement de borne et d'horaire
+        index.enregistrer(2L, new Creneau(10L, h(14), h(15)));
+        assertTrue(index.estLibre(1L, h(8), h(9)));
+        assertFalse(index.estLibre(2L, h(14), h(14.5)));
+
+        index.retirer(10L);
+        assertTrue(index.estLibre(2L, h(14), h(15)));
+    }
+
+    @Test
+    public void invaliderUneBorneProvoqueUnRechargement() {
+        List<Creneau> enBase = new ArrayList<>(List.of(new Creneau(1L, h(8), h(9))));
+        IndexDisponibilite index = new IndexDisponibilite(borneId -> List.copyOf(enBase));
+        assertFalse(index.estLibre(1L, h(8), h(9)));
+
+        enBase.clear();
+        index.invaliderBorne(1L);
+        assertTrue(index.estLibre(1L, h(8), h(9)));
+    }
+
+    @Test
+    public void uneSuppressionPendantLeChargementNEstPasPerdue() {
+        IndexDisponibilite[] index = new IndexDisponibilite[1];
+        index[0] = new IndexDisponibilite(borneId -> {
+            List<Creneau> lus = List.of(new Creneau(10L, h(8), h(9)), new Creneau(11L, h(10), h(11)));
+            // Suppression validée après la lecture en base, avant la publication des créneaux
+            index[0].retirer(10L);
+            return lus;
+        });
+
+        assertTrue(index[0].estLibre(1L, h(8), h(9)));
+        assertFalse(index[0].estLibre(1L, h(10), h(11)));
+    }
+
+    @Test
+    public void supprimerUneBorneOublieSesReservations() {
+        Map<Long, List<Creneau>> enBase = new HashMap<>(Map.of(1L, List.of(new Creneau(10L, h(8), h(9)))));
+        IndexDisponibilite index = new IndexDisponibilite(borneId -> enBase.getOrDefault(borneId, List.of()));
+        assertFalse(index.estLibre(1L, h(8), h(9)));
+        assertTrue(index.estLibre(2L, h(8), h(9)));
+
+        enBase.remove(1L);
+        index.supprimerBorne(1L);
+        assertTrue(index.estLibre(1L, h(8), h(9)), "Borne relue en base");
+
+        // La réservation n'est plus rattachée à la borne supprimée : elle suit son nouvel enregistrement
+        index.enregistrer(2L, new Creneau(10L, h(8), h(9)));
+        assertFalse(index.estLibre(2L, h(8), h(9)));
+        index.retirer(10L);
+        assertTrue(index.estLibre(2L, h(8), h(9)));
+    }
+
+    @Test
+    public void bornesLibresSurFenetresAligneesOuNon() {
+        IndexDisponibilite index = calendrier(Map.of(
+                1L, List.of(new Creneau(1L, h(8), h(9))),
+                2L, List.of(new Creneau(2L, h(8).plusMinutes(40), h(8).plusMinutes(50)))));
+        List<Long> candidates = List.of(1L, 2L, 3L);
+
+        assertEquals(List.of(2L, 3L), index.bornesLibres(candidates, h(8), h(8.5)));
+        assertEquals(List.of(3L), index.bornesLibres(candidates, h(8.5), h(9)));
+        // Fenêtre non alignée : la borne 2 occupe les créneaux de 8h30 à 9h00 mais est libre dès 8h50
+        assertEquals(List.of(2L, 3L), index.bornesLibres(candidates, h(8).plusMinutes(50), h(9).plusMinutes(10)));
+        // Hors horizon : recherche exacte
+        assertEquals(candidates, index.bornesLibres(candidates, h(8).plusDays(30), h(9).plusDays(30)));
+        assertEquals(List.of(3L), index.bornesLibres(candidates, h(8).minusDays(1), h(9)));
+    }
+
+    @Test
+    public void bornesLibresSuitLesEnregistrementsEtSuppressions() {
+        IndexDisponibilite index = calendrier(Map.of());
+        List<Long> candidates = List.of(1L, 2L);
+        assertEquals(candidates, index.bornesLibres(candidates, h(8), h(9)));
+
+        index.enregistrer(1L, new Creneau(10L, h(8.25), h(8.5)));
+        assertEquals(List.of(2L), index.bornesLibres(candidates, h(8), h(9)));
+        assertEquals(candidates, index.bornesLibres(candidates, h(8.5), h(9)));
+
+        // Déplacement vers l'autre borne : l'ancien créneau est libéré
+        index.enregistrer(2L, new Creneau(10L, h(8.25), h(8.5)));
+        assertEquals(List.of(1L), index.bornesLibres(candidates, h(8), h(9)));
+
+        index.retirer(10L);
+        assertEquals(candidates, index.bornesLibres(candidates, h(8), h(9)));
+    }
+
+    @Test
+    public void creneauxLibresCombineLesBornes() {
+        IndexDisponibilite index = calendrier(Map.of(
+                1L, List.of(new Creneau(1L, h(8), h(9))),
+                2L, List.of(new Creneau(2L, h(8.5), h(9.5)))));
+
+        BitSet libres = index.creneauxLibres(List.of(1L, 2L), h(8), h(10));
+        BitSet attendus = new BitSet();
+        attendus.set(0, 2);
+        attendus.set(4, 8);
+        assertEquals(attendus, libres);
+
+        assertThrows(IllegalArgumentException.class, () -> index.creneauxLibres(List.of(1L), h(8).plusDays(14), h(9).plusDays(14)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.humanbooster.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests du tirage des sites selon une loi de Zipf.
+ */
+public class LoiZipfTest {
+
+    @Test
+    public void exposantNulDonneUnTirageUniforme() {
+        LoiZipf loi = new LoiZipf(4, 0);
+        for (int k = 0; k < 4; k++) {
+            assertEquals(0.25, loi.probabilite(k), 1e-9);
+        }
+    }
+
+    @Test
+    public void lesPremiersRangsConcentrentLesTirages() {
+        LoiZipf loi = new LoiZipf(50, 1.0);
+        int[] tirages = new int[50];
+        for (int i = 0; i < 100_000; i++) {
+            tirages[loi.tirer()]++;
+        }
+        // Probabilité du rang 0 : 1 / H(50) ≈ 0,222
+        assertEquals(0.222, loi.probabilite(0), 1e-3);
+        assertEquals(loi.probabilite(0), tirages[0] / 100_000.0, 0.01);
+        assertTrue(tirages[0] > tirages[1] && tirages[1] > tirages[9] && tirages[9] > tirages[49]);
+    }
+}
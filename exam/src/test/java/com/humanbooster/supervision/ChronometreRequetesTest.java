@@ -0,0 +1,59 @@
+package com.humanbooster.supervision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de l'attribution du SQL aux lots JDBC, sur des séquences d'événements telles qu'Hibernate les émet.
+ */
+public class ChronometreRequetesTest {
+
+    private static final String INSERT_LIEU = "insert into lieux_recharge (adresse,nom,id) values (?,?,?)";
+    private static final String INSERT_BORNE = "insert into bornes_recharge (etat_borne,lieu_id,tarif_horaire,version,id) values (?,?,?,?,?)";
+    private static final String SELECT_SEQ = "select next_val as id_val from bornes_recharge_seq for update";
+
+    private final InspecteurSql inspecteur = new InspecteurSql();
+    private final ChronometreRequetes chronometre = new ChronometreRequetes();
+
+    private void preparer(String sql) {
+        inspecteur.inspect(sql);
+        chronometre.jdbcPrepareStatementStart();
+        chronometre.jdbcPrepareStatementEnd();
+    }
+
+    private void executerSeule(String sql) {
+        preparer(sql);
+        chronometre.jdbcExecuteStatementStart();
+        chronometre.jdbcExecuteStatementEnd();
+    }
+
+    private String executerLot() {
+        chronometre.jdbcExecuteBatchStart();
+        chronometre.jdbcExecuteBatchEnd();
+        return chronometre.sqlDuLot();
+    }
+
+    @Test
+    public void unLotGardeLeSqlDeSaPreparationMalgreLesInstructionsSuivantes() {
+        preparer(INSERT_LIEU);
+        executerSeule(SELECT_SEQ);
+        // Instruction de la table suivante déjà inspectée quand le lot des lieux part
+        inspecteur.inspect(INSERT_BORNE);
+
+        assertEquals(INSERT_LIEU, executerLot());
+
+        preparer(INSERT_BORNE);
+        assertEquals(INSERT_BORNE, executerLot());
+        assertEquals(INSERT_BORNE, executerLot(), "Lot plein exécuté puis complété avec la même instruction");
+    }
+
+    @Test
+    public void lesLotsDUneTransactionAnnuleeSontOublies() {
+        preparer(INSERT_LIEU);
+        chronometre.transactionCompletion(false);
+
+        preparer(INSERT_BORNE);
+        assertEquals(INSERT_BORNE, executerLot());
+    }
+}
@@ -0,0 +1,24 @@
+package com.humanbooster.supervision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests de la normalisation des instructions SQL en empreintes.
+ */
+public class EmpreinteSqlTest {
+
+    @Test
+    public void remplaceLesLitterauxEtReduitLesListes() {
+        assertEquals("select r1_0.id from reservations r1_0 where r1_0.borne_id=? and r1_0.statut in (?+) and r1_0.note=?",
+                EmpreinteSql.de("/* findByBorne */ SELECT r1_0.id\n  FROM reservations r1_0\n WHERE r1_0.borne_id=42 AND r1_0.statut IN ('EN_ATTENTE', 'ACCEPTEE') AND r1_0.note='l''ami'"));
+    }
+
+    @Test
+    public void memesRequetesAvecParametresOuValeursMemeEmpreinte() {
+        String avecParametres = EmpreinteSql.de("select * from bornes_recharge b1_0 where b1_0.id in (?,?,?) and b1_0.tarif_horaire>=?");
+        String avecValeurs = EmpreinteSql.de("select * from bornes_recharge b1_0 where b1_0.id in (1, 2) and b1_0.tarif_horaire>=22.5");
+        assertEquals(avecParametres, avecValeurs);
+    }
+}
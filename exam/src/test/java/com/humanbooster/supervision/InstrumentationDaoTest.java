@@ -0,0 +1,76 @@
+package com.humanbooster.supervision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.humanbooster.DAO.EchecsDao;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests du comptage des erreurs par la couche d'instrumentation, sur un DAO factice.
+ */
+public class InstrumentationDaoTest {
+
+    /** DAO factice : chaque méthode reproduit une façon de terminer un appel. */
+    public interface DaoEssai {
+
+        boolean reussir();
+
+        boolean intercepterErreur();
+
+        boolean leverErreur();
+    }
+
+    private final DaoEssai dao = InstrumentationDao.instrumenter(DaoEssai.class, new DaoEssai() {
+        @Override
+        public boolean reussir() {
+            return true;
+        }
+
+        @Override
+        public boolean intercepterErreur() {
+            // Comme les DAO : l'erreur est journalisée, signalée, puis une valeur par défaut est renvoyée
+            EchecsDao.signaler();
+            return false;
+        }
+
+        @Override
+        public boolean leverErreur() {
+            throw new IllegalStateException("Base indisponible");
+        }
+    });
+
+    private static StatistiquesMethode statistiques(String methode) {
+        return InstrumentationDao.toutes().stream()
+                .filter(stats -> stats.getDao().equals("DaoEssai") && stats.getMethode().equals(methode))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    public void compteLesErreursIntercepteesEtLesExceptions() {
+        long reussites = statistiques("reussir").getErreurs();
+        long interceptees = statistiques("intercepterErreur").getErreurs();
+        long levees = statistiques("leverErreur").getErreurs();
+
+        dao.reussir();
+        assertFalse(dao.intercepterErreur());
+        assertThrows(IllegalStateException.class, dao::leverErreur);
+
+        assertEquals(reussites, statistiques("reussir").getErreurs());
+        assertEquals(interceptees + 1, statistiques("intercepterErreur").getErreurs());
+        assertEquals(levees + 1, statistiques("leverErreur").getErreurs());
+    }
+
+    @Test
+    public void unEchecSignaleHorsAppelNEstPasAttribueAuSuivant() {
+        long erreurs = statistiques("reussir").getErreurs();
+
+        EchecsDao.signaler();
+        dao.reussir();
+
+        assertEquals(erreurs, statistiques("reussir").getErreurs());
+    }
+}